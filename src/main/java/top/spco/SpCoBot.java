@@ -24,9 +24,14 @@ import top.spco.api.NormalMember;
 import top.spco.api.message.service.MessageService;
 import top.spco.core.CAATP;
 import top.spco.core.config.BotSettings;
+import top.spco.core.config.DataBaseSettings;
 import top.spco.core.config.Settings;
 import top.spco.core.config.SettingsVersion;
 import top.spco.core.database.DataBase;
+import top.spco.core.database.DataBaseBackup;
+import top.spco.core.storage.Storage;
+import top.spco.core.storage.memory.MemoryStorage;
+import top.spco.core.storage.sqlite.SqliteStorage;
 import top.spco.core.module.ModuleManager;
 import top.spco.events.*;
 import top.spco.modules.AutoSign;
@@ -37,18 +42,24 @@ import top.spco.service.chat.ChatDispatcher;
 import top.spco.service.chat.ChatType;
 import top.spco.service.command.Command;
 import top.spco.service.command.CommandDispatcher;
+import top.spco.service.command.CommandExecutor;
+import top.spco.service.command.RateLimiter;
 import top.spco.service.command.commands.SignCommand;
 import top.spco.service.dashscope.DashScopeDispatcher;
 import top.spco.service.statistics.StatisticsDispatcher;
 import top.spco.statistics.GroupStatistics;
 import top.spco.statistics.Statistic;
+import top.spco.statistics.SuppliedStatistics;
 import top.spco.trade.RechargeSystem;
 import top.spco.user.BotUser;
+import top.spco.user.BotUserCache;
 import top.spco.user.BotUsers;
 import top.spco.util.ExceptionUtil;
+import top.spco.util.TimeUtil;
 
 import java.io.File;
 import java.io.IOException;
+import java.sql.SQLException;
 
 /**
  * <pre>
@@ -95,6 +106,8 @@ public class SpCoBot {
     private Settings settings;
     private MessageService messageService;
     private DataBase dataBase;
+    private DataBaseBackup dataBaseBackup;
+    private Storage storage;
     private Bot<?> bot;
     private CAATP caatp;
     private final Statistic runtimeStatistic = new Statistic();
@@ -128,9 +141,32 @@ public class SpCoBot {
     }
 
     public void initOthers() {
-        this.dataBase = new DataBase();
+        PluginEvents.DISABLE_PLUGIN_TICK.register(this::shutdown);
+        runtimeStatistic.add(new SuppliedStatistics("用户缓存", () -> {
+            BotUserCache cache = BotUsers.getCache();
+            long hits = cache.getHits();
+            long misses = cache.getMisses();
+            long total = hits + misses;
+            return cache.size() + "人，命中" + hits + "次，未命中" + misses + "次，命中率" + (total == 0 ? 0 : hits * 100 / total) + "%";
+        }));
+        runtimeStatistic.add(new SuppliedStatistics("签到人次", () -> {
+            int today = (int) TimeUtil.today().toEpochDay();
+            try {
+                var history = storage.signHistory();
+                return "今日" + history.countOn(today) + "人，近7日" + history.countBetween(today - 6, today) + "人次";
+            } catch (SQLException e) {
+                return "读取失败";
+            }
+        }));
         this.caatp = CAATP.getInstance();
         this.settings = new Settings(configFolder.getAbsolutePath() + File.separator + "config.yaml");
+        if ("memory".equalsIgnoreCase(settings.getStringProperty(DataBaseSettings.STORAGE))) {
+            LOGGER.warn("正在使用内存存储，数据将在关闭后丢失。");
+            this.storage = new MemoryStorage();
+        } else {
+            initDataBase();
+            this.storage = new SqliteStorage(dataBase);
+        }
         try {
             rechargeSystem = RechargeSystem.getInstance();
         } catch (IOException e) {
@@ -144,9 +180,61 @@ public class SpCoBot {
         botOwnerId = settings.getLongProperty(BotSettings.OWNER_ID);
         testGroupId = settings.getLongProperty(BotSettings.TEST_GROUP);
         this.commandDispatcher = CommandDispatcher.getInstance();
+        if (commandDispatcher.getRateLimiter() != null) {
+            RateLimiter rateLimiter = commandDispatcher.getRateLimiter();
+            runtimeStatistic.add(new SuppliedStatistics("命令限流", () ->
+                    "拒绝" + rateLimiter.getRejectedCount() + "次，受限用户" + rateLimiter.getActiveUserCount() + "人"));
+        }
+        if (commandDispatcher.getExecutor() != null) {
+            CommandExecutor executor = commandDispatcher.getExecutor();
+            runtimeStatistic.add(new SuppliedStatistics("命令执行", () ->
+                    (executor.isVirtual() ? "虚拟线程" : "平台线程") + "，执行中" + executor.getRunningCount() + "条，活跃信箱" + executor.getMailboxCount() + "个"));
+        }
         initModules();
     }
 
+    /**
+     * 打开 SQLite 数据库并启动备份。只在使用 SQLite 存储时调用，内存存储不访问磁盘。
+     */
+    private void initDataBase() {
+        this.dataBase = new DataBase();
+        dataBase.getQueryMetrics().setSlowQueryThresholdMillis(settings.getLongProperty(DataBaseSettings.SLOW_QUERY_MILLIS));
+        runtimeStatistic.add(new SuppliedStatistics("语句缓存", () -> {
+            long hits = dataBase.getStatementCacheHits();
+            long misses = dataBase.getStatementCacheMisses();
+            long total = hits + misses;
+            return "命中" + hits + "次，未命中" + misses + "次，命中率" + (total == 0 ? 0 : hits * 100 / total) + "%";
+        }));
+        runtimeStatistic.add(new SuppliedStatistics("数据库语句", () -> {
+            var metrics = dataBase.getQueryMetrics();
+            var overall = metrics.getOverall();
+            return overall.count() + "条，p50 " + overall.percentileMicros(0.5) + "μs，p99 " + overall.percentileMicros(0.99) + "μs，慢查询" + metrics.getSlowQueryCount() + "条";
+        }));
+        this.dataBaseBackup = new DataBaseBackup(dataBase, new File(dataFolder, "backups"),
+                settings.getIntegerProperty(DataBaseSettings.BACKUP_INTERVAL_HOURS),
+                settings.getIntegerProperty(DataBaseSettings.BACKUP_KEEP),
+                settings.getIntegerProperty(DataBaseSettings.BACKUP_CHUNK_ROWS),
+                settings.getLongProperty(DataBaseSettings.BACKUP_STEP_PAUSE_MILLIS));
+    }
+
+    /**
+     * 按依赖关系依次关闭各组件，数据库最后关闭。
+     */
+    private void shutdown() {
+        if (commandDispatcher != null && commandDispatcher.getExecutor() != null) {
+            commandDispatcher.getExecutor().close();
+        }
+        if (dataBaseBackup != null) {
+            dataBaseBackup.close();
+        }
+        if (storage != null) {
+            storage.close();
+        }
+        if (dataBase != null) {
+            dataBase.close();
+        }
+    }
+
     private void initModules() {
         moduleManager.register(new AutoSign(), true);
         moduleManager.register(new EchoMute(), true);
@@ -283,10 +371,24 @@ public class SpCoBot {
         return bot;
     }
 
+    /**
+     * @return SQLite 数据库，使用内存存储时为 {@code null}
+     */
     public DataBase getDataBase() {
         return dataBase;
     }
 
+    public Storage getStorage() {
+        return storage;
+    }
+
+    /**
+     * @return 数据库备份服务，使用内存存储时为 {@code null}
+     */
+    public DataBaseBackup getDataBaseBackup() {
+        return dataBaseBackup;
+    }
+
     public void setMessageService(MessageService messageService) {
         this.messageService = messageService;
     }
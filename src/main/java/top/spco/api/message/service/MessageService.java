@@ -25,7 +25,6 @@ import top.spco.util.tuple.ImmutablePair;
 
 import java.io.File;
 import java.io.InputStream;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
@@ -75,13 +74,19 @@ public interface MessageService {
 
     String getAtRegex();
 
-    default boolean isAtFormat(String input) {
-        String regex = getAtRegex();
-        // 编译正则表达式
-        Pattern pattern = Pattern.compile(regex);
-        // 创建匹配器
-        Matcher matcher = pattern.matcher(input);
-        return matcher.find();
+    /**
+     * 获取匹配@格式的正则表达式。若表达式含有捕获组，第一个捕获组为被@的用户ID。
+     *
+     * <p>默认实现每次调用都会编译 {@link #getAtRegex()}，实现类应缓存编译后的结果。
+     *
+     * @return 编译后的正则表达式
+     */
+    default Pattern getAtPattern() {
+        return Pattern.compile(getAtRegex());
+    }
+
+    default boolean isAtFormat(CharSequence input) {
+        return getAtPattern().matcher(input).find();
     }
 
     /**
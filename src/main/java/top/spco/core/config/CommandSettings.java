@@ -0,0 +1,71 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.config;
+
+import java.util.Map;
+
+/**
+ * 本配置组包含了命令执行的设置，包含以下配置项：
+ * <table border="1">
+ *   <tr>
+ *     <th>配置项名</th>
+ *     <th>描述</th>
+ *   </tr>
+ *   <tr>
+ *     <td>async_execution</td>
+ *     <td>是否在事件线程之外执行命令。关闭后命令在收到消息的线程上直接执行。</td>
+ *   </tr>
+ *   <tr>
+ *     <td>default_concurrency</td>
+ *     <td>每个命令默认最多同时执行的次数。</td>
+ *   </tr>
+ *   <tr>
+ *     <td>concurrency_limits</td>
+ *     <td>以命令的主标签为键、最多同时执行的次数为值的表，用于单独限制耗时较长的命令。</td>
+ *   </tr>
+ * </table>
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+public enum CommandSettings implements SettingsGroup {
+    ASYNC_EXECUTION("async_execution", true),
+    DEFAULT_CONCURRENCY("default_concurrency", 16),
+    CONCURRENCY_LIMITS("concurrency_limits", Map.of("valorant", 2, "dashscope", 4, "recharge", 4));
+    private final String key;
+    private final Object defaultValue;
+
+    CommandSettings(String key, Object defaultValue) {
+        this.key = key;
+        this.defaultValue = defaultValue;
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+
+    @Override
+    public Object defaultValue() {
+        return defaultValue;
+    }
+
+    @Override
+    public String groupName() {
+        return "Command";
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.config;
+
+/**
+ * 本配置组包含了数据库的维护设置，包含以下配置项：
+ * <table border="1">
+ *   <tr>
+ *     <th>配置项名</th>
+ *     <th>描述</th>
+ *   </tr>
+ *   <tr>
+ *     <td>storage</td>
+ *     <td>存储后端。{@code sqlite} 将数据保存在数据库文件中；{@code memory} 将数据保存在内存中，重启后丢失，仅用于测试。</td>
+ *   </tr>
+ *   <tr>
+ *     <td>backup_interval_hours</td>
+ *     <td>自动备份数据库的间隔（小时）。第一次自动备份在启动后的下一个凌晨4点进行。<p>
+ *         设置为0时不进行自动备份，但仍可以通过命令手动备份。</td>
+ *   </tr>
+ *   <tr>
+ *     <td>backup_keep</td>
+ *     <td>保留的备份数量。超出此数量时删除最旧的备份。</td>
+ *   </tr>
+ *   <tr>
+ *     <td>backup_chunk_rows</td>
+ *     <td>备份时每一步复制的行数。</td>
+ *   </tr>
+ *   <tr>
+ *     <td>backup_step_pause_millis</td>
+ *     <td>备份时每一步之间暂停的毫秒数。数值越大，备份对消息处理的影响越小，备份耗时越长。</td>
+ *   </tr>
+ *   <tr>
+ *     <td>slow_query_millis</td>
+ *     <td>慢查询的阈值（毫秒）。耗时超过此值的语句会被记录在日志中，并可通过 {@code /dbstats slow} 查看。</td>
+ *   </tr>
+ * </table>
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+public enum DataBaseSettings implements SettingsGroup {
+    STORAGE("storage", "sqlite"),
+    BACKUP_INTERVAL_HOURS("backup_interval_hours", 24),
+    BACKUP_KEEP("backup_keep", 7),
+    BACKUP_CHUNK_ROWS("backup_chunk_rows", 500),
+    BACKUP_STEP_PAUSE_MILLIS("backup_step_pause_millis", 20),
+    SLOW_QUERY_MILLIS("slow_query_millis", 100);
+    private final String key;
+    private final Object defaultValue;
+
+    DataBaseSettings(String key, Object defaultValue) {
+        this.key = key;
+        this.defaultValue = defaultValue;
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+
+    @Override
+    public Object defaultValue() {
+        return defaultValue;
+    }
+
+    @Override
+    public String groupName() {
+        return "DataBase";
+    }
+}
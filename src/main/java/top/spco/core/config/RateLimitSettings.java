@@ -0,0 +1,91 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.config;
+
+import java.util.Map;
+
+/**
+ * 本配置组包含了命令限流的设置，包含以下配置项：
+ * <table border="1">
+ *   <tr>
+ *     <th>配置项名</th>
+ *     <th>描述</th>
+ *   </tr>
+ *   <tr>
+ *     <td>enabled</td>
+ *     <td>是否启用限流。机器人管理员和机器人主人不受限流影响。</td>
+ *   </tr>
+ *   <tr>
+ *     <td>user_burst</td>
+ *     <td>每个用户的令牌桶容量，即用户在空闲后最多可以连续使用的令牌数。</td>
+ *   </tr>
+ *   <tr>
+ *     <td>user_refill_millis</td>
+ *     <td>每个用户每恢复一个令牌所需的毫秒数。</td>
+ *   </tr>
+ *   <tr>
+ *     <td>group_burst</td>
+ *     <td>每个群的令牌桶容量，群内所有用户共用。</td>
+ *   </tr>
+ *   <tr>
+ *     <td>group_refill_millis</td>
+ *     <td>每个群每恢复一个令牌所需的毫秒数。</td>
+ *   </tr>
+ *   <tr>
+ *     <td>command_costs</td>
+ *     <td>以命令的主标签为键、每次调用消耗的令牌数为值的表。未列出的命令每次消耗1个令牌。</td>
+ *   </tr>
+ *   <tr>
+ *     <td>command_per_minute</td>
+ *     <td>以命令的主标签为键、所有用户每分钟合计最多调用的次数为值的表，用于限制共用额度的命令。</td>
+ *   </tr>
+ * </table>
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+public enum RateLimitSettings implements SettingsGroup {
+    ENABLED("enabled", true),
+    USER_BURST("user_burst", 10),
+    USER_REFILL_MILLIS("user_refill_millis", 3000),
+    GROUP_BURST("group_burst", 40),
+    GROUP_REFILL_MILLIS("group_refill_millis", 500),
+    COMMAND_COSTS("command_costs", Map.of("dashscope", 5, "divine", 2, "mcs", 3)),
+    COMMAND_PER_MINUTE("command_per_minute", Map.of("dashscope", 30));
+    private final String key;
+    private final Object defaultValue;
+
+    RateLimitSettings(String key, Object defaultValue) {
+        this.key = key;
+        this.defaultValue = defaultValue;
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+
+    @Override
+    public Object defaultValue() {
+        return defaultValue;
+    }
+
+    @Override
+    public String groupName() {
+        return "RateLimit";
+    }
+}
@@ -92,6 +92,9 @@ public class Settings {
         setDefaultProperty(DashScopeSettings.class);
         setDefaultProperty(ValorantGroupSettings.class);
         setDefaultProperty(PayApiSettings.class);
+        setDefaultProperty(DataBaseSettings.class);
+        setDefaultProperty(CommandSettings.class);
+        setDefaultProperty(RateLimitSettings.class);
         return defaultSettings;
     }
 
@@ -133,16 +136,18 @@ public class Settings {
      *
      * @param key 配置项的枚举常量
      * @param <T> 实现了{@link SettingsGroup}接口的枚举类型
-     * @return 配置项的值，如果未找到则返回null
+     * @return 配置项的值，如果配置文件中没有该配置项则返回其默认值
      */
     public <T extends Enum<T> & SettingsGroup> Object getProperty(T key) {
         String groupName = key.groupName();
         if (settings.containsKey(groupName) && settings.get(groupName) instanceof Map) {
             var group = (Map<String, Object>) settings.get(groupName);
-            return group.get(key.toString());
-        } else {
-            return null;
+            if (group.containsKey(key.toString())) {
+                return group.get(key.toString());
+            }
         }
+        // 旧的配置文件中可能没有新版本添加的配置项
+        return key.defaultValue();
     }
 
     /**
@@ -198,6 +203,48 @@ public class Settings {
         }
     }
 
+    /**
+     * 获取配置项的值，并将其转换为 {@code boolean} 类型。
+     *
+     * @param key 配置项的枚举常量
+     * @param <T> 实现了{@link SettingsGroup}接口的枚举类型
+     * @return 配置项的 {@code boolean} 值
+     * @throws IllegalArgumentException 如果配置项的值不是 {@code boolean} 类型
+     */
+    public <T extends Enum<T> & SettingsGroup> boolean getBooleanProperty(T key) {
+        Object value = getProperty(key);
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        } else if ("true".equalsIgnoreCase(value.toString())) {
+            return true;
+        } else if ("false".equalsIgnoreCase(value.toString())) {
+            return false;
+        } else {
+            throw new IllegalArgumentException("Property " + key + " is not a boolean");
+        }
+    }
+
+    /**
+     * 获取配置项的值，并将其转换为以 {@code String} 为键、{@code int} 为值的表。值不是整数的项会被忽略。
+     *
+     * @param key 配置项的枚举常量
+     * @param <T> 实现了{@link SettingsGroup}接口的枚举类型
+     * @return 配置项的值，配置项不是表时为空表
+     */
+    public <T extends Enum<T> & SettingsGroup> Map<String, Integer> getIntegerMapProperty(T key) {
+        Map<String, Integer> result = new HashMap<>();
+        if (getProperty(key) instanceof Map<?, ?> map) {
+            for (var entry : map.entrySet()) {
+                try {
+                    result.put(entry.getKey().toString(), Integer.parseInt(entry.getValue().toString()));
+                } catch (NumberFormatException e) {
+                    SpCoBot.LOGGER.warn("配置项 {} 中 {} 的值 {} 不是整数，已忽略。", key, entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        return result;
+    }
+
     /**
      * 设置配置项的值，并保存到文件。
      *
@@ -32,6 +32,7 @@ public class ColumnBuilder implements Builder<String> {
     private String checkConstraint = null;
     private String collate = null;
     private boolean autoIncrement = false;
+    private boolean indexed = false;
 
     public ColumnBuilder(String name, FieldType type) {
         if (name == null || name.isEmpty()) {
@@ -79,6 +80,20 @@ public class ColumnBuilder implements Builder<String> {
         return this;
     }
 
+    /**
+     * 为此列创建一个单列的二级索引。
+     *
+     * <p>索引不属于列定义，由 {@link TableChecker} 在建表后单独创建。
+     */
+    public ColumnBuilder index() {
+        this.indexed = true;
+        return this;
+    }
+
+    public boolean isIndexed() {
+        return indexed;
+    }
+
     public ColumnBuilder autoIncrement() {
         if (!isPrimaryKey) {
             throw new IllegalStateException("Auto increment can only be applied to primary key fields.");
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * 表示一个在借出的数据库连接上执行的操作。
+ *
+ * <p>这是一个<a href="package-summary.html">函数式接口</a>，其功能方法是 {@link #apply(Connection)}。
+ *
+ * @param <T> 操作结果的类型
+ * @author SpCo
+ * @version 4.0.0
+ * @see DataBase#read(ConnectionCallback)
+ * @see DataBase#write(ConnectionCallback)
+ * @see DataBase#transaction(ConnectionCallback)
+ * @since 4.0.0
+ */
+@FunctionalInterface
+public interface ConnectionCallback<T> {
+    /**
+     * 在给定的连接上执行此操作。
+     *
+     * <p>操作结束后连接会被归还给连接池，实现方不应关闭该连接。
+     *
+     * @param conn 借出的连接
+     * @return 操作结果
+     * @throws SQLException 执行 SQL 时发生错误
+     */
+    T apply(Connection conn) throws SQLException;
+}
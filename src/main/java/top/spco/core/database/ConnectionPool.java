@@ -0,0 +1,369 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.database;
+
+import top.spco.SpCoBot;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * SQLite 连接池。
+ *
+ * <p>数据库以 WAL 模式打开，连接池持有一条专用的写连接和若干条只读连接：
+ * <ul>
+ * <li>所有写操作串行地使用同一条写连接，由一把可重入锁保护。写连接使用 {@code synchronous = FULL}，事务提交返回时数据已写入磁盘。</li>
+ * <li>读操作从只读连接中借出一条使用，不会被正在进行的写操作阻塞。</li>
+ * </ul>
+ * 当前线程持有写锁（如处于事务中）时，读操作也会使用写连接，以便读到本事务尚未提交的数据。
+ *
+ * <p>每条连接各自持有一个 {@link StatementCache}，可通过 {@link #prepare(Connection, String)} 取得缓存的预编译语句。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @see DataBase
+ * @since 4.0.0
+ */
+public class ConnectionPool {
+    /**
+     * 借出只读连接的最长等待时间（毫秒）
+     */
+    private static final long BORROW_TIMEOUT_MILLIS = 5000;
+    /**
+     * SQLite 遇到锁时的最长等待时间（毫秒）
+     */
+    private static final int BUSY_TIMEOUT_MILLIS = 5000;
+    /**
+     * 每条连接最多缓存的预编译语句数
+     */
+    private static final int STATEMENT_CACHE_CAPACITY = 64;
+    private final String url;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final BlockingQueue<Connection> readers;
+    private final List<Connection> allReaders = new ArrayList<>();
+    private final ConcurrentHashMap<Connection, StatementCache> statementCaches = new ConcurrentHashMap<>();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+    private final QueryMetrics metrics;
+    private Connection writer;
+    private volatile boolean closed = false;
+
+    /**
+     * 创建一个连接池。
+     *
+     * @param url         数据库的 JDBC 地址
+     * @param readerCount 只读连接的数量
+     * @param metrics     记录语句执行统计的对象
+     * @throws SQLException 打开连接时发生错误
+     */
+    public ConnectionPool(String url, int readerCount, QueryMetrics metrics) throws SQLException {
+        if (readerCount < 1) {
+            throw new IllegalArgumentException("Reader count must be positive.");
+        }
+        this.url = url;
+        this.metrics = metrics;
+        // 写连接必须先于只读连接打开，以便在只读连接打开前切换到 WAL 模式
+        this.writer = openWriter();
+        this.readers = new ArrayBlockingQueue<>(readerCount);
+        for (int i = 0; i < readerCount; i++) {
+            Connection reader = openReader();
+            allReaders.add(reader);
+            readers.add(reader);
+        }
+    }
+
+    private Connection openWriter() throws SQLException {
+        Connection conn = DriverManager.getConnection(url);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA journal_mode = WAL");
+            // 每次提交都同步到磁盘，写后队列每批只提交一次，同步的开销由整批分摊
+            stmt.execute("PRAGMA synchronous = FULL");
+            stmt.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MILLIS);
+        }
+        statementCaches.put(conn, new StatementCache(conn, STATEMENT_CACHE_CAPACITY, statementCacheHits, statementCacheMisses, metrics));
+        return conn;
+    }
+
+    private Connection openReader() throws SQLException {
+        Connection conn = DriverManager.getConnection(url);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MILLIS);
+            stmt.execute("PRAGMA query_only = ON");
+        }
+        statementCaches.put(conn, new StatementCache(conn, STATEMENT_CACHE_CAPACITY, statementCacheHits, statementCacheMisses, metrics));
+        return conn;
+    }
+
+    /**
+     * 打开一条不属于连接池的连接，供备份等长时间运行的任务独占使用，使用完毕后由调用方关闭。
+     *
+     * @return 新的连接
+     * @throws SQLException 打开连接时发生错误
+     */
+    Connection openDedicated() throws SQLException {
+        ensureOpen();
+        Connection conn = DriverManager.getConnection(url);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT_MILLIS);
+        }
+        return conn;
+    }
+
+    /**
+     * 从连接的语句缓存中取得指定 SQL 的预编译语句。
+     *
+     * <p>只能在 {@link #read(ConnectionCallback)}、{@link #write(ConnectionCallback)} 或
+     * {@link #transaction(ConnectionCallback)} 的回调内，对回调得到的连接调用。返回的语句归缓存所有，不应关闭。
+     *
+     * @param conn 回调得到的连接
+     * @param sql  SQL 语句
+     * @return 预编译语句，参数已被清除
+     * @throws SQLException 编译语句时发生错误
+     */
+    public PreparedStatement prepare(Connection conn, String sql) throws SQLException {
+        StatementCache cache = statementCaches.get(conn);
+        if (cache == null) {
+            // 不是连接池管理的连接
+            return InstrumentedStatement.wrap(conn.prepareStatement(sql), sql, metrics);
+        }
+        return cache.prepare(sql);
+    }
+
+    /**
+     * @return 预编译语句缓存的命中次数
+     */
+    public long getStatementCacheHits() {
+        return statementCacheHits.sum();
+    }
+
+    /**
+     * @return 预编译语句缓存的未命中次数
+     */
+    public long getStatementCacheMisses() {
+        return statementCacheMisses.sum();
+    }
+
+    private void discardStatementCache(Connection conn) {
+        StatementCache cache = statementCaches.remove(conn);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * 获取写连接，不加锁。
+     *
+     * <p>仅供尚未迁移到 {@link #write(ConnectionCallback)} 的旧代码使用。
+     *
+     * @return 写连接
+     * @throws SQLException 重新打开写连接时发生错误
+     */
+    Connection getWriter() throws SQLException {
+        ensureOpen();
+        writeLock.lock();
+        try {
+            if (writer == null || writer.isClosed()) {
+                if (writer != null) {
+                    discardStatementCache(writer);
+                }
+                writer = openWriter();
+            }
+            return writer;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 借出一条只读连接执行操作，操作结束后归还。
+     *
+     * @param callback 要执行的操作
+     * @param <T>      操作结果的类型
+     * @return 操作结果
+     * @throws SQLException 执行操作或借出连接时发生错误
+     */
+    public <T> T read(ConnectionCallback<T> callback) throws SQLException {
+        Connection conn = acquireReader();
+        try {
+            return callback.apply(conn);
+        } finally {
+            releaseReader(conn);
+        }
+    }
+
+    /**
+     * 借出一条只读连接，使用完毕后必须通过 {@link #releaseReader(Connection)} 归还。
+     *
+     * <p>当前线程持有写锁时返回写连接。供不便使用回调的场合（如需要返回基本类型）使用。
+     *
+     * @return 借出的连接
+     * @throws SQLException 借出连接时发生错误
+     */
+    Connection acquireReader() throws SQLException {
+        ensureOpen();
+        if (writeLock.isHeldByCurrentThread()) {
+            return writer;
+        }
+        Connection conn;
+        try {
+            conn = readers.poll(BORROW_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a reader connection.", e);
+        }
+        if (conn == null) {
+            throw new SQLException("Timed out waiting for a reader connection.");
+        }
+        if (conn.isClosed()) {
+            try {
+                conn = replaceReader(conn);
+            } catch (SQLException e) {
+                // 无法重新打开时仍归还原连接，避免连接池缩小
+                readers.offer(conn);
+                throw e;
+            }
+        }
+        return conn;
+    }
+
+    /**
+     * 归还通过 {@link #acquireReader()} 借出的连接。
+     *
+     * @param conn 借出的连接
+     */
+    void releaseReader(Connection conn) {
+        if (conn != writer) {
+            readers.offer(conn);
+        }
+    }
+
+    /**
+     * 持有写锁并使用写连接执行操作。
+     *
+     * <p>在 {@link #transaction(ConnectionCallback)} 内调用时，操作会加入该事务。
+     *
+     * @param callback 要执行的操作
+     * @param <T>      操作结果的类型
+     * @return 操作结果
+     * @throws SQLException 执行操作时发生错误
+     */
+    public <T> T write(ConnectionCallback<T> callback) throws SQLException {
+        ensureOpen();
+        writeLock.lock();
+        try {
+            if (writer == null || writer.isClosed()) {
+                if (writer != null) {
+                    discardStatementCache(writer);
+                }
+                writer = openWriter();
+            }
+            return callback.apply(writer);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 持有写锁并在一个事务中执行操作。操作正常返回时提交，抛出异常时回滚。
+     *
+     * <p>事务可以嵌套，嵌套的事务会并入最外层的事务。
+     *
+     * @param callback 要执行的操作
+     * @param <T>      操作结果的类型
+     * @return 操作结果
+     * @throws SQLException 执行操作、提交或回滚时发生错误
+     */
+    public <T> T transaction(ConnectionCallback<T> callback) throws SQLException {
+        return write(conn -> {
+            if (!conn.getAutoCommit()) {
+                // 已处于事务中
+                return callback.apply(conn);
+            }
+            conn.setAutoCommit(false);
+            try {
+                T result = callback.apply(conn);
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollbackException) {
+                    e.addSuppressed(rollbackException);
+                }
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        });
+    }
+
+    private Connection replaceReader(Connection old) throws SQLException {
+        discardStatementCache(old);
+        Connection conn = openReader();
+        synchronized (allReaders) {
+            allReaders.remove(old);
+            allReaders.add(conn);
+        }
+        return conn;
+    }
+
+    private void ensureOpen() throws SQLException {
+        if (closed) {
+            throw new SQLException("The connection pool has been closed.");
+        }
+    }
+
+    /**
+     * 关闭连接池中的所有连接。
+     */
+    public void close() {
+        closed = true;
+        writeLock.lock();
+        try {
+            if (writer != null) {
+                discardStatementCache(writer);
+                writer.close();
+            }
+        } catch (SQLException e) {
+            SpCoBot.LOGGER.error("关闭写连接时发生错误。", e);
+        } finally {
+            writeLock.unlock();
+        }
+        synchronized (allReaders) {
+            for (Connection reader : allReaders) {
+                try {
+                    discardStatementCache(reader);
+                    reader.close();
+                } catch (SQLException e) {
+                    SpCoBot.LOGGER.error("关闭只读连接时发生错误。", e);
+                }
+            }
+            allReaders.clear();
+        }
+        readers.clear();
+    }
+}
@@ -22,16 +22,70 @@ import java.io.IOException;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 数据库
  *
+ * <p>数据库以 WAL 模式打开，并通过 {@link ConnectionPool} 管理连接：读操作使用只读连接，写操作串行地使用专用的写连接。
+ * 新代码应当通过 {@link #read(ConnectionCallback)}、{@link #write(ConnectionCallback)} 和
+ * {@link #transaction(ConnectionCallback)} 借用连接，而不是直接使用 {@link #getConn()}。
+ *
+ * <p>频繁执行的语句应通过 {@link #prepare(Connection, String)} 从连接的语句缓存中获取，以免每次都重新编译。
+ * 大量细碎且无需立即得到结果的写入可以通过 {@link #updateAsync(String, Object...)} 交给 {@link WriteBehindQueue} 合并提交。
+ *
  * @author SpCo
  * @version 4.0.0
  * @since 0.1.0
  */
 public class DataBase {
-    private Connection conn;
+    /**
+     * 只读连接的数量
+     */
+    private static final int READER_COUNT = 4;
+    /**
+     * 写后队列中一批语句最多等待的毫秒数
+     */
+    private static final long WRITE_BEHIND_FLUSH_INTERVAL_MILLIS = 10;
+    /**
+     * 写后队列中一批语句的最大条数
+     */
+    private static final int WRITE_BEHIND_MAX_BATCH_SIZE = 256;
+    /**
+     * 迁移6中将逗号分隔的 {@code feature.unavailable} 拆分后写入 {@code feature_unavailable} 的语句。
+     * 用递归 CTE 逐项拆分，空项被跳过，重复项被忽略。
+     */
+    static final String SPLIT_FEATURE_UNAVAILABLE_SQL = "WITH RECURSIVE split(id, item, rest) AS ("
+            + "SELECT id, '', unavailable || ',' FROM feature WHERE unavailable IS NOT NULL AND unavailable != '' "
+            + "UNION ALL SELECT id, substr(rest, 1, instr(rest, ',') - 1), substr(rest, instr(rest, ',') + 1) FROM split WHERE rest != '') "
+            + "INSERT OR IGNORE INTO feature_unavailable (feature, target) SELECT id, CAST(item AS INTEGER) FROM split WHERE item != ''";
+    /**
+     * 在消息处理等频繁执行的路径上使用的查询，启动时会检查它们的查询计划
+     *
+     * @see #checkQueryPlans()
+     */
+    private static final List<String> HOT_QUERIES = List.of(
+            "SELECT permission, smf_coin, star_coin, sign, premium FROM user WHERE id = ?",
+            "SELECT sign FROM user WHERE id = ?",
+            "SELECT disable FROM feature WHERE id = ?",
+            "SELECT target FROM feature_unavailable WHERE feature = ?",
+            "SELECT 1 FROM feature_unavailable WHERE feature = ? AND target = ?",
+            "SELECT state FROM trade WHERE id = ?",
+            "SELECT user FROM trade WHERE id = ?",
+            "SELECT id FROM user WHERE sign != ? AND premium = 1",
+            "SELECT user, reward FROM auto_sign_log WHERE date = ?",
+            "SELECT id, smf_coin FROM user ORDER BY smf_coin DESC, id DESC LIMIT ? OFFSET ?",
+            "SELECT id, star_coin FROM user ORDER BY star_coin DESC, id DESC LIMIT ? OFFSET ?",
+            "SELECT days FROM sign_history WHERE user = ?",
+            "SELECT COALESCE(SUM(count), 0) FROM sign_daily WHERE day BETWEEN ? AND ?");
+    private final QueryMetrics queryMetrics = new QueryMetrics();
+    private final ConnectionPool pool;
+    private final WriteBehindQueue writeBehindQueue;
+    /**
+     * {@code select*} 方法生成的 SQL 文本，依次以表名、字段名、主键字段名为键
+     */
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, ConcurrentHashMap<String, String>>> selectSqlCache = new ConcurrentHashMap<>();
 
     public DataBase() {
         try {
@@ -52,9 +106,13 @@ public class DataBase {
             }
 
             Class.forName("org.sqlite.JDBC");
-            conn = DriverManager.getConnection("jdbc:sqlite:" + dbFilePath);
+            pool = new ConnectionPool("jdbc:sqlite:" + dbFilePath, READER_COUNT, queryMetrics);
 
-            checkTables();
+            migrate();
+            for (String warning : checkQueryPlans()) {
+                SpCoBot.LOGGER.warn("查询需要全表扫描: {}", warning);
+            }
+            writeBehindQueue = new WriteBehindQueue(this, WRITE_BEHIND_FLUSH_INTERVAL_MILLIS, WRITE_BEHIND_MAX_BATCH_SIZE);
         } catch (Exception e) {
             throw new RuntimeException("无法连接至数据库或数据库初始化失败: " + e.getMessage());
         }
@@ -65,67 +123,235 @@ public class DataBase {
         return file.exists() && file.isFile();
     }
 
+    /**
+     * 获取写连接。
+     *
+     * <p>通过此方法获取的连接不受写锁保护，在其上直接创建的语句也不会被计入 {@link QueryMetrics}，
+     * 请优先使用 {@link #read(ConnectionCallback)}、{@link #write(ConnectionCallback)} 或 {@link #transaction(ConnectionCallback)}。
+     *
+     * @return 写连接
+     */
     public Connection getConn() throws SQLException {
-        if (conn == null || conn.isClosed()) {
-            conn = openConn();
-        }
-        return conn;
+        return pool.getWriter();
     }
 
+    /**
+     * @deprecated 连接由 {@link ConnectionPool} 管理，请使用 {@link #getConn()} 替代
+     */
+    @Deprecated
     public Connection openConn() throws SQLException {
-        String dbFilePath = SpCoBot.dataFolder.getAbsolutePath() + File.separator + "spcobot.db";
-        conn = DriverManager.getConnection("jdbc:sqlite:" + dbFilePath);
-        return conn;
-    }
-
-    private void checkTables() throws SQLException {
-        new TableChecker(this, "user")
-                .addColumn(new ColumnBuilder("id", FieldType.INTEGER).notNull().primaryKey())
-                .addColumn(new ColumnBuilder("smf_coin", FieldType.INTEGER).defaultValue("0"))
-                .addColumn(new ColumnBuilder("permission", FieldType.INTEGER).defaultValue("1"))
-                .addColumn(new ColumnBuilder("sign", FieldType.TEXT).defaultValue("从未签到过"))
-                .addColumn(new ColumnBuilder("premium", FieldType.INTEGER).defaultValue("0"))
-                .addColumn(new ColumnBuilder("star_coin", FieldType.INTEGER).defaultValue("0"))
-                .check();
-        new TableChecker(this, "valorant_user")
-                .addColumn(new ColumnBuilder("id", FieldType.INTEGER).notNull().primaryKey())
-                .addColumn(new ColumnBuilder("username", FieldType.TEXT).defaultValue("null"))
-                .addColumn(new ColumnBuilder("password", FieldType.TEXT).defaultValue("null"))
-                .addColumn(new ColumnBuilder("access_token", FieldType.TEXT).defaultValue("null"))
-                .addColumn(new ColumnBuilder("entitlements", FieldType.TEXT).defaultValue("null"))
-                .addColumn(new ColumnBuilder("uuid", FieldType.TEXT).defaultValue("null"))
-                .addColumn(new ColumnBuilder("name", FieldType.TEXT).defaultValue("null"))
-                .addColumn(new ColumnBuilder("tag", FieldType.TEXT).defaultValue("null"))
-                .addColumn(new ColumnBuilder("create_data", FieldType.TEXT).defaultValue("null"))
-                .addColumn(new ColumnBuilder("ban_type", FieldType.TEXT).defaultValue("null"))
-                .addColumn(new ColumnBuilder("region", FieldType.TEXT).defaultValue("null"))
-                .check();
-        new TableChecker(this, "mcs")
-                .addColumn(new ColumnBuilder("group_id", FieldType.INTEGER).notNull().primaryKey())
-                .addColumn(new ColumnBuilder("host", FieldType.TEXT).defaultValue("null"))
-                .addColumn(new ColumnBuilder("port", FieldType.INTEGER).defaultValue("58964"))
-                .check();
-        new TableChecker(this, "trade")
-                .addColumn(new ColumnBuilder("id", FieldType.INTEGER).notNull().primaryKey())
-                .addColumn(new ColumnBuilder("user", FieldType.INTEGER).notNull())
-                .addColumn(new ColumnBuilder("date", FieldType.TEXT).notNull())
-                .addColumn(new ColumnBuilder("time", FieldType.TEXT).notNull())
-                .addColumn(new ColumnBuilder("amount", FieldType.INTEGER).notNull().defaultValue("0"))
-                .addColumn(new ColumnBuilder("state", FieldType.TEXT).defaultValue("unpaid"))
-                .check();
-        new TableChecker(this, "expenses")
-                .addColumn(new ColumnBuilder("user", FieldType.INTEGER).notNull())
-                .addColumn(new ColumnBuilder("date", FieldType.TEXT).notNull())
-                .addColumn(new ColumnBuilder("time", FieldType.TEXT).notNull())
-                .addColumn(new ColumnBuilder("amount", FieldType.INTEGER).notNull())
-                .addColumn(new ColumnBuilder("balance", FieldType.INTEGER).notNull())
-                .addColumn(new ColumnBuilder("desc", FieldType.TEXT).defaultValue("null"))
-                .check();
-        new TableChecker(this, "feature")
-                .addColumn(new ColumnBuilder("id", FieldType.TEXT).notNull().unique())
-                .addColumn(new ColumnBuilder("disable", FieldType.INTEGER).defaultValue("0"))
-                .addColumn(new ColumnBuilder("unavailable", FieldType.TEXT))
-                .check();
+        return getConn();
+    }
+
+    /**
+     * 借出一条只读连接执行操作。
+     *
+     * @param callback 要执行的操作
+     * @param <T>      操作结果的类型
+     * @return 操作结果
+     * @throws SQLException 执行操作时发生错误
+     * @see ConnectionPool#read(ConnectionCallback)
+     */
+    public <T> T read(ConnectionCallback<T> callback) throws SQLException {
+        return pool.read(callback);
+    }
+
+    /**
+     * 使用写连接执行操作。
+     *
+     * @param callback 要执行的操作
+     * @param <T>      操作结果的类型
+     * @return 操作结果
+     * @throws SQLException 执行操作时发生错误
+     * @see ConnectionPool#write(ConnectionCallback)
+     */
+    public <T> T write(ConnectionCallback<T> callback) throws SQLException {
+        return pool.write(callback);
+    }
+
+    /**
+     * 在一个事务中执行操作。操作正常返回时提交，抛出异常时回滚。
+     *
+     * @param callback 要执行的操作
+     * @param <T>      操作结果的类型
+     * @return 操作结果
+     * @throws SQLException 执行操作、提交或回滚时发生错误
+     * @see ConnectionPool#transaction(ConnectionCallback)
+     */
+    public <T> T transaction(ConnectionCallback<T> callback) throws SQLException {
+        return pool.transaction(callback);
+    }
+
+    /**
+     * 从连接的语句缓存中获取指定 SQL 的预编译语句。
+     *
+     * <p>返回的语句归缓存所有，使用方不应关闭它，只需关闭由它产生的 {@link ResultSet}。
+     *
+     * @param conn 通过 {@link #read(ConnectionCallback)} 等方法借出的连接
+     * @param sql  SQL 语句
+     * @return 预编译语句
+     * @throws SQLException 编译语句时发生错误
+     * @see ConnectionPool#prepare(Connection, String)
+     */
+    public PreparedStatement prepare(Connection conn, String sql) throws SQLException {
+        return pool.prepare(conn, sql);
+    }
+
+    /**
+     * 获取语句执行统计。通过 {@link #prepare(Connection, String)} 取得的语句都会被计时。
+     *
+     * @return 语句执行统计
+     */
+    public QueryMetrics getQueryMetrics() {
+        return queryMetrics;
+    }
+
+    /**
+     * @return 预编译语句缓存的命中次数
+     */
+    public long getStatementCacheHits() {
+        return pool.getStatementCacheHits();
+    }
+
+    /**
+     * @return 预编译语句缓存的未命中次数
+     */
+    public long getStatementCacheMisses() {
+        return pool.getStatementCacheMisses();
+    }
+
+    /**
+     * 打开一条不属于连接池的连接。
+     *
+     * @return 新的连接，使用完毕后由调用方关闭
+     * @throws SQLException 打开连接时发生错误
+     * @see ConnectionPool#openDedicated()
+     */
+    Connection openDedicatedConnection() throws SQLException {
+        return pool.openDedicated();
+    }
+
+    /**
+     * 关闭数据库的所有连接。
+     */
+    public void close() {
+        writeBehindQueue.close();
+        pool.close();
+    }
+
+    /**
+     * 执行数据库结构迁移。
+     *
+     * <p>已发布的迁移不应再修改，结构变更请在末尾追加新的 {@link Migration}。
+     *
+     * @throws SQLException 执行迁移时发生错误
+     * @see MigrationEngine
+     */
+    private void migrate() throws SQLException {
+        new MigrationEngine(this)
+                .add(new Migration(1, "baseline")
+                        .table(new TableChecker(this, "user")
+                                .addColumn(new ColumnBuilder("id", FieldType.INTEGER).notNull().primaryKey())
+                                .addColumn(new ColumnBuilder("smf_coin", FieldType.INTEGER).defaultValue("0"))
+                                .addColumn(new ColumnBuilder("permission", FieldType.INTEGER).defaultValue("1"))
+                                .addColumn(new ColumnBuilder("sign", FieldType.TEXT).defaultValue("从未签到过"))
+                                .addColumn(new ColumnBuilder("premium", FieldType.INTEGER).defaultValue("0"))
+                                .addColumn(new ColumnBuilder("star_coin", FieldType.INTEGER).defaultValue("0")))
+                        .table(new TableChecker(this, "valorant_user")
+                                .addColumn(new ColumnBuilder("id", FieldType.INTEGER).notNull().primaryKey())
+                                .addColumn(new ColumnBuilder("username", FieldType.TEXT).defaultValue("null"))
+                                .addColumn(new ColumnBuilder("password", FieldType.TEXT).defaultValue("null"))
+                                .addColumn(new ColumnBuilder("access_token", FieldType.TEXT).defaultValue("null"))
+                                .addColumn(new ColumnBuilder("entitlements", FieldType.TEXT).defaultValue("null"))
+                                .addColumn(new ColumnBuilder("uuid", FieldType.TEXT).defaultValue("null"))
+                                .addColumn(new ColumnBuilder("name", FieldType.TEXT).defaultValue("null"))
+                                .addColumn(new ColumnBuilder("tag", FieldType.TEXT).defaultValue("null"))
+                                .addColumn(new ColumnBuilder("create_data", FieldType.TEXT).defaultValue("null"))
+                                .addColumn(new ColumnBuilder("ban_type", FieldType.TEXT).defaultValue("null"))
+                                .addColumn(new ColumnBuilder("region", FieldType.TEXT).defaultValue("null")))
+                        .table(new TableChecker(this, "mcs")
+                                .addColumn(new ColumnBuilder("group_id", FieldType.INTEGER).notNull().primaryKey())
+                                .addColumn(new ColumnBuilder("host", FieldType.TEXT).defaultValue("null"))
+                                .addColumn(new ColumnBuilder("port", FieldType.INTEGER).defaultValue("58964")))
+                        .table(new TableChecker(this, "trade")
+                                .addColumn(new ColumnBuilder("id", FieldType.INTEGER).notNull().primaryKey())
+                                .addColumn(new ColumnBuilder("user", FieldType.INTEGER).notNull())
+                                .addColumn(new ColumnBuilder("date", FieldType.TEXT).notNull())
+                                .addColumn(new ColumnBuilder("time", FieldType.TEXT).notNull())
+                                .addColumn(new ColumnBuilder("amount", FieldType.INTEGER).notNull().defaultValue("0"))
+                                .addColumn(new ColumnBuilder("state", FieldType.TEXT).defaultValue("unpaid")))
+                        .table(new TableChecker(this, "expenses")
+                                .addColumn(new ColumnBuilder("user", FieldType.INTEGER).notNull())
+                                .addColumn(new ColumnBuilder("date", FieldType.TEXT).notNull())
+                                .addColumn(new ColumnBuilder("time", FieldType.TEXT).notNull())
+                                .addColumn(new ColumnBuilder("amount", FieldType.INTEGER).notNull())
+                                .addColumn(new ColumnBuilder("balance", FieldType.INTEGER).notNull())
+                                .addColumn(new ColumnBuilder("desc", FieldType.TEXT).defaultValue("null")))
+                        .table(new TableChecker(this, "feature")
+                                .addColumn(new ColumnBuilder("id", FieldType.TEXT).notNull().unique())
+                                .addColumn(new ColumnBuilder("disable", FieldType.INTEGER).defaultValue("0"))
+                                .addColumn(new ColumnBuilder("unavailable", FieldType.TEXT))))
+                // 订单号含有非数字字符，无法存入 INTEGER PRIMARY KEY
+                .add(new Migration(2, "secondary indexes and text trade numbers")
+                        .rebuild(new TableChecker(this, "trade")
+                                .addColumn(new ColumnBuilder("id", FieldType.TEXT).notNull().primaryKey())
+                                .addColumn(new ColumnBuilder("user", FieldType.INTEGER).notNull().index())
+                                .addColumn(new ColumnBuilder("date", FieldType.TEXT).notNull())
+                                .addColumn(new ColumnBuilder("time", FieldType.TEXT).notNull())
+                                .addColumn(new ColumnBuilder("amount", FieldType.INTEGER).notNull().defaultValue("0"))
+                                .addColumn(new ColumnBuilder("state", FieldType.TEXT).defaultValue("unpaid")))
+                        .indexes(new TableChecker(this, "expenses").addIndex("user", "time"))
+                        .indexes(new TableChecker(this, "user").addIndex("premium", "sign")))
+                .add(new Migration(3, "auto sign log")
+                        .table(new TableChecker(this, "auto_sign_log")
+                                .addColumn(new ColumnBuilder("date", FieldType.TEXT).notNull())
+                                .addColumn(new ColumnBuilder("user", FieldType.INTEGER).notNull())
+                                .addColumn(new ColumnBuilder("reward", FieldType.INTEGER).notNull())
+                                .addIndex("date", "user")))
+                .add(new Migration(4, "balance indexes")
+                        .indexes(new TableChecker(this, "user").addIndex("smf_coin").addIndex("star_coin")))
+                // 签到历史从此版本开始记录，之前的签到只保留在 user.sign 中
+                .add(new Migration(5, "sign history")
+                        .table(new TableChecker(this, "sign_history")
+                                .addColumn(new ColumnBuilder("user", FieldType.INTEGER).notNull().primaryKey())
+                                .addColumn(new ColumnBuilder("days", FieldType.BLOB).notNull()))
+                        .table(new TableChecker(this, "sign_daily")
+                                .addColumn(new ColumnBuilder("day", FieldType.INTEGER).notNull().primaryKey())
+                                .addColumn(new ColumnBuilder("count", FieldType.INTEGER).notNull().defaultValue("0"))))
+                // 功能不可用的对象从逗号分隔的 feature.unavailable 移入单独的表，此后不再读写 feature.unavailable
+                .add(new Migration(6, "feature unavailable table")
+                        .table(new TableChecker(this, "feature_unavailable")
+                                .addColumn(new ColumnBuilder("feature", FieldType.TEXT).notNull())
+                                .addColumn(new ColumnBuilder("target", FieldType.INTEGER).notNull()))
+                        .sql("CREATE UNIQUE INDEX IF NOT EXISTS idx_feature_unavailable_feature_target ON feature_unavailable (feature, target)")
+                        .sql(SPLIT_FEATURE_UNAVAILABLE_SQL))
+                // feature.unavailable 自迁移6起不再被读取，删除该列以免被误认为有效数据
+                .add(new Migration(7, "drop feature.unavailable")
+                        .rebuild(new TableChecker(this, "feature")
+                                .addColumn(new ColumnBuilder("id", FieldType.TEXT).notNull().unique())
+                                .addColumn(new ColumnBuilder("disable", FieldType.INTEGER).defaultValue("0"))))
+                .migrate();
+    }
+
+    /**
+     * 对 {@link #HOT_QUERIES} 中的语句执行 {@code EXPLAIN QUERY PLAN}，找出需要全表扫描的语句。
+     *
+     * @return 需要全表扫描的语句及其查询计划，所有语句都能使用索引时返回空列表
+     * @throws SQLException 获取查询计划时发生错误
+     */
+    public List<String> checkQueryPlans() throws SQLException {
+        List<String> warnings = new ArrayList<>();
+        for (String sql : HOT_QUERIES) {
+            // 占位符未绑定时按 NULL 处理，不影响查询计划的选择
+            forEach("EXPLAIN QUERY PLAN " + sql, rs -> {
+                String detail = rs.getString("detail");
+                // 按索引顺序扫描（SCAN ... USING INDEX）不算全表扫描
+                if (detail.startsWith("SCAN ") && !detail.contains(" USING ")) {
+                    warnings.add(sql + " -> " + detail);
+                }
+            });
+        }
+        return warnings;
     }
 
     /**
@@ -139,16 +365,19 @@ public class DataBase {
      * @throws SQLException 如果执行 SQL 查询时发生错误
      */
     public String selectString(String tableName, String columnName, String primaryKeyColumnName, Object primaryKeyValue) throws SQLException {
-        String sql = "SELECT " + columnName + " FROM " + tableName + " WHERE " + primaryKeyColumnName + " = ?";
-        try (PreparedStatement pstmt = getConn().prepareStatement(sql)) {
-            pstmt.setObject(1, primaryKeyValue);
-            ResultSet rs = pstmt.executeQuery();
-
-            if (rs.next()) {
-                return rs.getString(columnName);
-            } else {
-                return null;
-            }
+        String sql = selectSql(tableName, columnName, primaryKeyColumnName);
+        try {
+            return read(conn -> {
+                PreparedStatement pstmt = prepare(conn, sql);
+                pstmt.setObject(1, primaryKeyValue);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        return rs.getString(1);
+                    } else {
+                        return null;
+                    }
+                }
+            });
         } catch (SQLException e) {
             throw new SQLException("Error executing SQL query: " + e.getMessage());
         }
@@ -165,16 +394,19 @@ public class DataBase {
      * @throws SQLException 如果执行 SQL 查询时发生错误
      */
     public Integer selectInt(String tableName, String columnName, String primaryKeyColumnName, Object primaryKeyValue) throws SQLException {
-        String sql = "SELECT " + columnName + " FROM " + tableName + " WHERE " + primaryKeyColumnName + " = ?";
-        try (PreparedStatement pstmt = getConn().prepareStatement(sql)) {
-            pstmt.setObject(1, primaryKeyValue);
-            ResultSet rs = pstmt.executeQuery();
-
-            if (rs.next()) {
-                return rs.getInt(columnName);
-            } else {
-                return null;
-            }
+        String sql = selectSql(tableName, columnName, primaryKeyColumnName);
+        try {
+            return read(conn -> {
+                PreparedStatement pstmt = prepare(conn, sql);
+                pstmt.setObject(1, primaryKeyValue);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        return rs.getInt(1);
+                    } else {
+                        return null;
+                    }
+                }
+            });
         } catch (SQLException e) {
             throw new SQLException("Error executing SQL query: " + e.getMessage());
         }
@@ -191,21 +423,36 @@ public class DataBase {
      * @throws SQLException 如果执行 SQL 查询时发生错误
      */
     public Long selectLong(String tableName, String columnName, String primaryKeyColumnName, Object primaryKeyValue) throws SQLException {
-        String sql = "SELECT " + columnName + " FROM " + tableName + " WHERE " + primaryKeyColumnName + " = ?";
-        try (PreparedStatement pstmt = getConn().prepareStatement(sql)) {
-            pstmt.setObject(1, primaryKeyValue);
-            ResultSet rs = pstmt.executeQuery();
-
-            if (rs.next()) {
-                return rs.getLong(columnName);
-            } else {
-                return null;
-            }
+        String sql = selectSql(tableName, columnName, primaryKeyColumnName);
+        try {
+            return read(conn -> {
+                PreparedStatement pstmt = prepare(conn, sql);
+                pstmt.setObject(1, primaryKeyValue);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        return rs.getLong(1);
+                    } else {
+                        return null;
+                    }
+                }
+            });
         } catch (SQLException e) {
             throw new SQLException("Error executing SQL query: " + e.getMessage());
         }
     }
 
+    private String selectSql(String tableName, String columnName, String primaryKeyColumnName) {
+        ConcurrentHashMap<String, String> byPrimaryKey = selectSqlCache
+                .computeIfAbsent(tableName, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(columnName, k -> new ConcurrentHashMap<>());
+        String sql = byPrimaryKey.get(primaryKeyColumnName);
+        if (sql == null) {
+            sql = "SELECT " + columnName + " FROM " + tableName + " WHERE " + primaryKeyColumnName + " = ?";
+            byPrimaryKey.putIfAbsent(primaryKeyColumnName, sql);
+        }
+        return sql;
+    }
+
     /**
      * 从数据库表中查询符合指定条件的数据，并返回结果中的某个字段的值。只有一个占位符！！！
      *
@@ -219,33 +466,136 @@ public class DataBase {
      */
     @Deprecated
     public String select(String table, String columns, String whereClause, Object whereValues) throws SQLException {
-        try (ResultSet rs = select(table, new String[]{columns}, whereClause + " = ?", new Object[]{whereValues})) {
-            if (rs.next()) {
-                return rs.getString(columns);
-            } else {
-                return null;
+        return selectString(table, columns, whereClause, whereValues);
+    }
+
+    /**
+     * 执行查询，并将结果集的每一行映射为一个对象。
+     *
+     * <p>语句和结果集在方法返回前关闭。
+     *
+     * @param sql    SQL语句
+     * @param mapper 行映射器
+     * @param params 参数数组
+     * @param <T>    映射结果的类型
+     * @return 映射结果的列表，没有结果时返回空列表
+     * @throws SQLException 执行查询或映射时发生错误
+     */
+    public <T> List<T> query(String sql, RowMapper<T> mapper, Object... params) throws SQLException {
+        return read(conn -> {
+            PreparedStatement pstmt = prepare(conn, sql);
+            setParameters(pstmt, params);
+            List<T> result = new ArrayList<>();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    result.add(mapper.map(rs));
+                }
             }
-        }
+            return result;
+        });
     }
 
-    @Deprecated
-    public ResultSet select(String table, String[] columns, String whereClause, Object[] whereValues) throws SQLException {
-        StringBuilder sql = new StringBuilder("SELECT ");
-        for (int i = 0; i < columns.length; i++) {
-            sql.append(columns[i]);
-            if (i != columns.length - 1) {
-                sql.append(",");
+    /**
+     * 执行查询，并将结果集的第一行映射为一个对象。
+     *
+     * @param sql    SQL语句
+     * @param mapper 行映射器
+     * @param params 参数数组
+     * @param <T>    映射结果的类型
+     * @return 第一行的映射结果，没有结果时返回 {@code null}
+     * @throws SQLException 执行查询或映射时发生错误
+     */
+    public <T> T queryFirst(String sql, RowMapper<T> mapper, Object... params) throws SQLException {
+        return read(conn -> {
+            PreparedStatement pstmt = prepare(conn, sql);
+            setParameters(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? mapper.map(rs) : null;
             }
-        }
-        sql.append(" FROM ").append(table).append(" WHERE ").append(whereClause);
-        try (PreparedStatement pstmt = getConn().prepareStatement(sql.toString())) {
-            for (int i = 0; i < whereValues.length; i++) {
-                pstmt.setObject(i + 1, whereValues[i]);
+        });
+    }
+
+    /**
+     * 执行查询，并逐行处理结果集，不保留中间结果。
+     *
+     * <p>处理期间占用一条连接，回调中不应执行耗时操作。语句和结果集在方法返回前关闭。
+     *
+     * @param sql      SQL语句
+     * @param callback 逐行处理的回调
+     * @param params   参数数组
+     * @throws SQLException 执行查询或处理时发生错误
+     */
+    public void forEach(String sql, RowCallback callback, Object... params) throws SQLException {
+        read(conn -> {
+            PreparedStatement pstmt = prepare(conn, sql);
+            setParameters(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    callback.accept(rs);
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 执行查询，并返回结果集第一行第一列的 {@code long} 值。
+     *
+     * @param sql          SQL语句
+     * @param defaultValue 没有结果或值为 {@code NULL} 时返回的值
+     * @param params       参数数组
+     * @return 第一行第一列的值
+     * @throws SQLException 执行查询时发生错误
+     */
+    public long queryLong(String sql, long defaultValue, Object... params) throws SQLException {
+        // 不经过回调，以免结果被装箱
+        Connection conn = pool.acquireReader();
+        try {
+            PreparedStatement pstmt = prepare(conn, sql);
+            setParameters(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return defaultValue;
+                }
+                long value = rs.getLong(1);
+                return rs.wasNull() ? defaultValue : value;
             }
-            return pstmt.executeQuery();
+        } finally {
+            pool.releaseReader(conn);
         }
     }
 
+    /**
+     * 执行查询，并返回结果集第一行第一列的 {@code int} 值。
+     *
+     * @param sql          SQL语句
+     * @param defaultValue 没有结果或值为 {@code NULL} 时返回的值
+     * @param params       参数数组
+     * @return 第一行第一列的值
+     * @throws SQLException 执行查询时发生错误
+     */
+    public int queryInt(String sql, int defaultValue, Object... params) throws SQLException {
+        return Math.toIntExact(queryLong(sql, defaultValue, params));
+    }
+
+    /**
+     * 检查查询是否有结果。
+     *
+     * @param sql    SQL语句
+     * @param params 参数数组
+     * @return 结果集至少有一行时返回 {@code true}
+     * @throws SQLException 执行查询时发生错误
+     */
+    public boolean exists(String sql, Object... params) throws SQLException {
+        return read(conn -> {
+            PreparedStatement pstmt = prepare(conn, sql);
+            setParameters(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        });
+    }
+
     /**
      * 更新数据
      *
@@ -254,10 +604,71 @@ public class DataBase {
      * @return 影响行数
      */
     public int update(String sql, Object... params) throws SQLException {
-        try (PreparedStatement pstmt = getConn().prepareStatement(sql)) {
+        return write(conn -> {
+            PreparedStatement pstmt = prepare(conn, sql);
             setParameters(pstmt, params);
             return pstmt.executeUpdate();
-        }
+        });
+    }
+
+    /**
+     * 将更新语句提交至写后队列，与其他待写入的语句合并在同一个事务中执行。
+     *
+     * @param sql    SQL语句
+     * @param params 参数数组
+     * @return 在语句所在的事务提交后以影响行数完成的 {@link CompletableFuture}
+     * @see WriteBehindQueue
+     */
+    public CompletableFuture<Integer> updateAsync(String sql, Object... params) {
+        return writeBehindQueue.submit(sql, params);
+    }
+
+    /**
+     * 执行带有 {@code RETURNING} 子句的写语句。
+     *
+     * @param sql    SQL语句
+     * @param mapper 将返回的第一行映射为结果的函数
+     * @param params 参数数组
+     * @param <T>    结果的类型
+     * @return 映射后的第一行，语句未返回任何行时返回 {@code null}
+     * @throws SQLException 执行语句时发生错误
+     */
+    public <T> T updateReturning(String sql, RowMapper<T> mapper, Object... params) throws SQLException {
+        return write(conn -> {
+            PreparedStatement pstmt = prepare(conn, sql);
+            setParameters(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? mapper.map(rs) : null;
+            }
+        });
+    }
+
+    /**
+     * 将带有 {@code RETURNING} 子句的写语句提交至写后队列，与其他待写入的语句合并在同一个事务中执行。
+     *
+     * @param sql    SQL语句
+     * @param mapper 将返回的第一行映射为结果的函数
+     * @param params 参数数组
+     * @param <T>    结果的类型
+     * @return 在语句所在的事务提交后完成的 {@link CompletableFuture}，其值为映射后的第一行，语句未返回任何行时为 {@code null}
+     * @see WriteBehindQueue
+     */
+    public <T> CompletableFuture<T> updateReturningAsync(String sql, RowMapper<T> mapper, Object... params) {
+        return writeBehindQueue.submitReturning(sql, mapper, params);
+    }
+
+    /**
+     * 将一组写操作提交至写后队列，与其他待写入的语句合并在同一个事务中执行。
+     *
+     * <p>用于需要与其他写入一同提交、但无法写成单条语句的写操作。
+     *
+     * @param callback 要执行的操作
+     * @param <T>      操作结果的类型
+     * @return 在操作所在的事务提交后以操作结果完成的 {@link CompletableFuture}
+     * @see WriteBehindQueue#submit(ConnectionCallback)
+     */
+    public <T> CompletableFuture<T> writeAsync(ConnectionCallback<T> callback) {
+        return writeBehindQueue.submit(callback);
     }
 
     /**
@@ -282,16 +693,18 @@ public class DataBase {
      * @return 如果列存在则返回 true，否则返回 false
      */
     public boolean columnExistsInTable(String tableName, String columnName) throws SQLException {
-        try (Statement stmt = getConn().createStatement();
-             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + tableName + ");")) {
+        return read(conn -> {
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + tableName + ");")) {
 
-            while (rs.next()) {
-                if (columnName.equals(rs.getString("name"))) {
-                    return true;
+                while (rs.next()) {
+                    if (columnName.equals(rs.getString("name"))) {
+                        return true;
+                    }
                 }
+                return false;
             }
-            return false;
-        }
+        });
     }
 
     /**
@@ -302,34 +715,31 @@ public class DataBase {
      * @return 包含字段值的列表
      */
     public List<Long> getLongFieldValues(String fieldName, String tableName) throws SQLException {
-        if (conn == null || conn.isClosed()) {
-            openConn();
-        }
-        List<Long> fieldValues = new ArrayList<>();
         // 创建查询语句
         String sql = "SELECT " + fieldName + " FROM " + tableName;
-        // 执行查询
-        Statement statement = this.conn.createStatement();
-        ResultSet resultSet = statement.executeQuery(sql);
-        // 处理结果
-        while (resultSet.next()) {
-            Long fieldValue = resultSet.getLong(fieldName);
-            fieldValues.add(fieldValue);
-        }
-        resultSet.close();
-        statement.close();
-
-        return fieldValues;
+        return read(conn -> {
+            List<Long> fieldValues = new ArrayList<>();
+            // 执行查询
+            try (ResultSet resultSet = prepare(conn, sql).executeQuery()) {
+                // 处理结果
+                while (resultSet.next()) {
+                    Long fieldValue = resultSet.getLong(fieldName);
+                    fieldValues.add(fieldValue);
+                }
+            }
+            return fieldValues;
+        });
     }
 
     public void insertData(String sql, Object... params) throws SQLException {
-        try (PreparedStatement pstmt = getConn().prepareStatement(sql)) {
-            // 设置参数
-            for (int i = 0; i < params.length; i++) {
-                pstmt.setObject(i + 1, params[i]);
-            }
-            // 执行插入操作
-            pstmt.executeUpdate();
+        try {
+            write(conn -> {
+                PreparedStatement pstmt = prepare(conn, sql);
+                // 设置参数
+                setParameters(pstmt, params);
+                // 执行插入操作
+                return pstmt.executeUpdate();
+            });
         } catch (Exception e) {
             SpCoBot.LOGGER.error(e);
         }
@@ -343,24 +753,29 @@ public class DataBase {
      * @param dataType   要添加的字段的数据类型
      */
     public void addColumn(String tableName, String columnName, String dataType) throws SQLException {
-        Statement statement = getConn().createStatement();
-
         String sql = "ALTER TABLE " + tableName + " ADD COLUMN " + columnName + " " + dataType;
-
-        statement.executeUpdate(sql);
+        write(conn -> {
+            try (Statement statement = conn.createStatement()) {
+                return statement.executeUpdate(sql);
+            }
+        });
     }
 
     public boolean isTableExists(String tableName) throws SQLException {
-        DatabaseMetaData metaData = getConn().getMetaData();
-        try (ResultSet rs = metaData.getTables(null, null, tableName, null)) {
-            return rs.next();
-        }
+        return read(conn -> {
+            DatabaseMetaData metaData = conn.getMetaData();
+            try (ResultSet rs = metaData.getTables(null, null, tableName, null)) {
+                return rs.next();
+            }
+        });
     }
 
     public boolean isColumnExists(String tableName, String columnName) throws SQLException {
-        DatabaseMetaData metaData = getConn().getMetaData();
-        try (ResultSet rs = metaData.getColumns(null, null, tableName, columnName)) {
-            return rs.next();
-        }
+        return read(conn -> {
+            DatabaseMetaData metaData = conn.getMetaData();
+            try (ResultSet rs = metaData.getColumns(null, null, tableName, columnName)) {
+                return rs.next();
+            }
+        });
     }
 }
\ No newline at end of file
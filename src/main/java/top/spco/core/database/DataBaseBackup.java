@@ -0,0 +1,270 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.database;
+
+import top.spco.SpCoBot;
+import top.spco.util.NamedThreadFactory;
+import top.spco.util.TimeUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 数据库在线备份。
+ *
+ * <p>备份在一条独占的连接上进行：先将备份文件附加为 {@code backup} 库，然后在同一个读事务中逐表、分批地复制数据，
+ * 每复制一批暂停一段时间，最后创建索引并提交。由于数据库处于 WAL 模式，备份期间的读事务不会阻塞写入，
+ * 备份得到的是开始复制时的一致快照。分批和暂停使备份不会长时间占满磁盘，从而不影响消息处理。
+ *
+ * <p>备份先写入临时文件，完成后再重命名为 {@code spcobot-yyyyMMdd-HHmmss.db}，并删除超出保留数量的旧备份。
+ * 自动备份和手动备份在同一个线程中排队执行，不会同时进行。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+public class DataBaseBackup {
+    private static final String FILE_PREFIX = "spcobot-";
+    private static final String FILE_SUFFIX = ".db";
+    private static final DateTimeFormatter FILE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final Pattern CREATE_PATTERN = Pattern.compile("^CREATE (UNIQUE )?(TABLE|INDEX|VIEW|TRIGGER) (IF NOT EXISTS )?", Pattern.CASE_INSENSITIVE);
+    private final DataBase dataBase;
+    private final File directory;
+    private final int keep;
+    private final int chunkRows;
+    private final long stepPauseMillis;
+    private final ScheduledExecutorService executor;
+
+    /**
+     * 创建备份服务。
+     *
+     * @param dataBase        要备份的数据库
+     * @param directory       存放备份的目录
+     * @param intervalHours   自动备份的间隔（小时），为0时不自动备份
+     * @param keep            保留的备份数量
+     * @param chunkRows       每一步复制的行数
+     * @param stepPauseMillis 每一步之间暂停的毫秒数
+     */
+    public DataBaseBackup(DataBase dataBase, File directory, int intervalHours, int keep, int chunkRows, long stepPauseMillis) {
+        if (keep < 1 || chunkRows < 1 || stepPauseMillis < 0 || intervalHours < 0) {
+            throw new IllegalArgumentException("Invalid backup parameters.");
+        }
+        this.dataBase = dataBase;
+        this.directory = directory;
+        this.keep = keep;
+        this.chunkRows = chunkRows;
+        this.stepPauseMillis = stepPauseMillis;
+        this.executor = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new NamedThreadFactory("DataBaseBackup").newThread(r);
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        if (intervalHours > 0) {
+            long initialDelay = TimeUtil.calculateMillisecondToMidnight() + TimeUnit.HOURS.toMillis(4);
+            executor.scheduleAtFixedRate(() -> {
+                try {
+                    Path path = backup();
+                    SpCoBot.LOGGER.info("已自动备份数据库至 {}", path);
+                } catch (Exception e) {
+                    SpCoBot.LOGGER.error("自动备份数据库失败。", e);
+                }
+            }, initialDelay, TimeUnit.HOURS.toMillis(intervalHours), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 立即进行一次备份。若已有备份正在进行，则在其完成后进行。
+     *
+     * @return 以备份文件的路径完成的 {@link CompletableFuture}
+     */
+    public CompletableFuture<Path> backupNow() {
+        CompletableFuture<Path> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                future.complete(backup());
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 列出现有的备份，按从旧到新的顺序排列。
+     *
+     * @return 备份文件
+     */
+    public List<File> listBackups() {
+        File[] files = directory.listFiles((dir, name) -> name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX));
+        if (files == null) {
+            return new ArrayList<>();
+        }
+        // 文件名中的时间可以按字典序比较
+        Arrays.sort(files);
+        return new ArrayList<>(Arrays.asList(files));
+    }
+
+    private Path backup() throws SQLException, IOException, InterruptedException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("无法创建备份目录: " + directory);
+        }
+        String name = FILE_PREFIX + LocalDateTime.now().format(FILE_TIME_FORMAT) + FILE_SUFFIX;
+        Path target = directory.toPath().resolve(name);
+        Path temp = directory.toPath().resolve(name + ".tmp");
+        Files.deleteIfExists(temp);
+        try (Connection conn = dataBase.openDedicatedConnection()) {
+            try (PreparedStatement attach = conn.prepareStatement("ATTACH DATABASE ? AS backup")) {
+                attach.setString(1, temp.toAbsolutePath().toString());
+                attach.execute();
+            }
+            try {
+                copy(conn);
+            } finally {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute("DETACH DATABASE backup");
+                }
+            }
+        } catch (SQLException | InterruptedException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        rotate();
+        return target;
+    }
+
+    private void copy(Connection conn) throws SQLException, InterruptedException {
+        conn.setAutoCommit(false);
+        try {
+            List<String[]> tables = new ArrayList<>();
+            List<String> others = new ArrayList<>();
+            // 第一条读取主库的语句开启读事务，之后读到的都是同一个快照
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT type, name, sql FROM main.sqlite_master WHERE sql IS NOT NULL AND name NOT LIKE 'sqlite_%'")) {
+                while (rs.next()) {
+                    String sql = qualify(rs.getString("sql"));
+                    if ("table".equals(rs.getString("type"))) {
+                        tables.add(new String[]{rs.getString("name"), sql});
+                    } else {
+                        others.add(sql);
+                    }
+                }
+            }
+            for (String[] table : tables) {
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute(table[1]);
+                }
+                copyRows(conn, table[0]);
+            }
+            // 索引在数据复制完成后再创建，比逐行维护索引更快
+            try (Statement stmt = conn.createStatement()) {
+                for (String sql : others) {
+                    stmt.execute(sql);
+                }
+            }
+            conn.commit();
+        } catch (SQLException | InterruptedException | RuntimeException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private void copyRows(Connection conn, String table) throws SQLException, InterruptedException {
+        String quoted = "\"" + table.replace("\"", "\"\"") + "\"";
+        String nextSql = "SELECT MAX(rowid) FROM (SELECT rowid FROM main." + quoted + " WHERE rowid > ? ORDER BY rowid LIMIT ?)";
+        String copySql = "INSERT INTO backup." + quoted + " SELECT * FROM main." + quoted + " WHERE rowid > ? AND rowid <= ?";
+        try (PreparedStatement next = conn.prepareStatement(nextSql);
+             PreparedStatement copy = conn.prepareStatement(copySql)) {
+            long last = Long.MIN_VALUE;
+            while (true) {
+                next.setLong(1, last);
+                next.setInt(2, chunkRows);
+                long upper;
+                try (ResultSet rs = next.executeQuery()) {
+                    rs.next();
+                    upper = rs.getLong(1);
+                    if (rs.wasNull()) {
+                        return;
+                    }
+                }
+                copy.setLong(1, last);
+                copy.setLong(2, upper);
+                copy.executeUpdate();
+                last = upper;
+                if (stepPauseMillis > 0) {
+                    Thread.sleep(stepPauseMillis);
+                }
+            }
+        }
+    }
+
+    /**
+     * 在建表、建索引等语句的对象名前加上 {@code backup.} 前缀。
+     */
+    private static String qualify(String sql) {
+        Matcher matcher = CREATE_PATTERN.matcher(sql);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Unexpected schema statement: " + sql);
+        }
+        return sql.substring(0, matcher.end()) + "backup." + sql.substring(matcher.end());
+    }
+
+    private void rotate() {
+        List<File> backups = listBackups();
+        for (int i = 0; i < backups.size() - keep; i++) {
+            File old = backups.get(i);
+            if (!old.delete()) {
+                SpCoBot.LOGGER.warn("无法删除旧的数据库备份 {}", old);
+            }
+        }
+    }
+
+    /**
+     * 停止自动备份。正在进行的备份会被中断，此方法会等待其退出，之后可以安全地关闭数据库。
+     */
+    public void close() {
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                SpCoBot.LOGGER.warn("数据库备份未能在10秒内停止。");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
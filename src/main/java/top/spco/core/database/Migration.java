@@ -0,0 +1,153 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.database;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * 一次带编号的数据库结构迁移。
+ *
+ * <p>迁移由若干按顺序执行的步骤组成：
+ * <ul>
+ * <li>{@link #table(TableChecker)}：创建表或补齐缺失的列。</li>
+ * <li>{@link #rebuild(TableChecker)}：按新的结构重建表。</li>
+ * <li>{@link #indexes(TableChecker)}：创建表上声明的索引，不检查列。</li>
+ * <li>{@link #sql(String)}：执行任意语句。</li>
+ * </ul>
+ * 迁移的校验和由所有步骤生成的语句计算得出。迁移一经发布就不应再修改，需要变更结构时应添加新的迁移，
+ * 否则 {@link MigrationEngine} 会在启动时因校验和不一致而拒绝继续。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @see MigrationEngine
+ * @since 4.0.0
+ */
+public class Migration {
+    private final int version;
+    private final String description;
+    private final List<Step> steps = new ArrayList<>();
+    private final CRC32 checksum = new CRC32();
+
+    /**
+     * 创建一次迁移。
+     *
+     * @param version     迁移的版本号，必须为正数且在所有迁移中唯一
+     * @param description 迁移的描述
+     */
+    public Migration(int version, String description) {
+        if (version < 1) {
+            throw new IllegalArgumentException("Migration version must be positive.");
+        }
+        this.version = version;
+        this.description = description;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * 添加一个步骤：表不存在时创建，存在时补齐缺失的列。
+     *
+     * @param table 表的结构
+     * @return 此迁移
+     */
+    public Migration table(TableChecker table) {
+        update("table:" + table.buildCreateSql(table.getTableName()));
+        table.buildIndexSql().forEach(this::update);
+        steps.add(dataBase -> table.check());
+        return this;
+    }
+
+    /**
+     * 添加一个步骤：按新的结构重建表，保留新旧结构共有的列中的数据。
+     *
+     * @param table 表的新结构
+     * @return 此迁移
+     */
+    public Migration rebuild(TableChecker table) {
+        update("rebuild:" + table.buildCreateSql(table.getTableName()));
+        table.buildIndexSql().forEach(this::update);
+        steps.add(dataBase -> table.rebuild());
+        return this;
+    }
+
+    /**
+     * 添加一个步骤：创建表上声明的索引。只需声明索引，无需声明列。
+     *
+     * @param table 声明了索引的表
+     * @return 此迁移
+     */
+    public Migration indexes(TableChecker table) {
+        table.buildIndexSql().forEach(this::update);
+        steps.add(dataBase -> table.checkIndexes());
+        return this;
+    }
+
+    /**
+     * 添加一个步骤：执行一条语句。
+     *
+     * @param sql SQL语句
+     * @return 此迁移
+     */
+    public Migration sql(String sql) {
+        update("sql:" + sql);
+        steps.add(dataBase -> dataBase.write(conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                return stmt.execute(sql);
+            }
+        }));
+        return this;
+    }
+
+    private void update(String step) {
+        checksum.update(step.getBytes(StandardCharsets.UTF_8));
+        checksum.update('\n');
+    }
+
+    /**
+     * @return 迁移的校验和
+     */
+    public long getChecksum() {
+        return checksum.getValue();
+    }
+
+    /**
+     * 按顺序执行所有步骤。调用方负责将其置于事务中。
+     *
+     * @param dataBase 数据库
+     * @throws SQLException 执行步骤时发生错误
+     */
+    void apply(DataBase dataBase) throws SQLException {
+        for (Step step : steps) {
+            step.apply(dataBase);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        void apply(DataBase dataBase) throws SQLException;
+    }
+}
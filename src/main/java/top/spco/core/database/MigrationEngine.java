@@ -0,0 +1,101 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.database;
+
+import top.spco.SpCoBot;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 数据库结构迁移引擎。
+ *
+ * <p>已执行的迁移记录在 {@code schema_version} 表中，包括版本号、描述、校验和与执行时间。启动时：
+ * <ol>
+ * <li>一次性读取 {@code schema_version} 中的所有记录，并与已注册的迁移比对校验和。</li>
+ * <li>若所有迁移均已执行，直接返回，不再探测任何表结构。</li>
+ * <li>否则按版本号从小到大执行尚未执行的迁移，每次迁移及其记录在同一个事务中提交。</li>
+ * </ol>
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @see Migration
+ * @since 4.0.0
+ */
+public class MigrationEngine {
+    private final DataBase dataBase;
+    private final TreeMap<Integer, Migration> migrations = new TreeMap<>();
+
+    public MigrationEngine(DataBase dataBase) {
+        this.dataBase = dataBase;
+    }
+
+    /**
+     * 注册一次迁移。
+     *
+     * @param migration 迁移
+     * @return 此引擎
+     * @throws IllegalArgumentException 版本号重复时抛出
+     */
+    public MigrationEngine add(Migration migration) {
+        if (migrations.putIfAbsent(migration.getVersion(), migration) != null) {
+            throw new IllegalArgumentException("Duplicate migration version: " + migration.getVersion());
+        }
+        return this;
+    }
+
+    /**
+     * 执行所有尚未执行的迁移。
+     *
+     * @return 本次执行的迁移数
+     * @throws SQLException          执行迁移时发生错误
+     * @throws IllegalStateException 已执行的迁移与注册的迁移校验和不一致，或数据库的版本高于已注册的迁移时抛出
+     */
+    public int migrate() throws SQLException {
+        dataBase.update("CREATE TABLE IF NOT EXISTS schema_version (version INTEGER PRIMARY KEY, description TEXT NOT NULL, checksum INTEGER NOT NULL, applied_at TEXT NOT NULL)");
+        Map<Integer, Long> applied = new HashMap<>();
+        dataBase.forEach("SELECT version, checksum FROM schema_version", rs -> applied.put(rs.getInt(1), rs.getLong(2)));
+        for (Map.Entry<Integer, Long> entry : applied.entrySet()) {
+            Migration migration = migrations.get(entry.getKey());
+            if (migration == null) {
+                throw new IllegalStateException("Database schema version " + entry.getKey() + " is unknown to this build.");
+            }
+            if (migration.getChecksum() != entry.getValue()) {
+                throw new IllegalStateException("Checksum mismatch for applied migration " + entry.getKey() + " (" + migration.getDescription() + ").");
+            }
+        }
+        if (applied.size() == migrations.size()) {
+            return 0;
+        }
+        int count = 0;
+        for (Migration migration : migrations.values()) {
+            if (applied.containsKey(migration.getVersion())) {
+                continue;
+            }
+            dataBase.transaction(conn -> {
+                migration.apply(dataBase);
+                dataBase.update("INSERT INTO schema_version (version, description, checksum, applied_at) VALUES (?, ?, ?, datetime('now'))",
+                        migration.getVersion(), migration.getDescription(), migration.getChecksum());
+                return null;
+            });
+            SpCoBot.LOGGER.info("已执行数据库迁移 {}: {}", migration.getVersion(), migration.getDescription());
+            count++;
+        }
+        return count;
+    }
+}
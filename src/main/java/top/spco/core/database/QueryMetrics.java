@@ -0,0 +1,157 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.database;
+
+import top.spco.SpCoBot;
+import top.spco.statistics.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按 SQL 模板（即带占位符的 SQL 文本）统计语句的执行次数、耗时分布和影响行数，并记录慢查询。
+ *
+ * <p>记录由 {@link InstrumentedStatement} 在语句执行时自动进行，所有计数均为无锁结构。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @see InstrumentedStatement
+ * @since 4.0.0
+ */
+public class QueryMetrics {
+    /**
+     * 保留的最近慢查询条数
+     */
+    private static final int RECENT_SLOW_QUERY_LIMIT = 20;
+    private final ConcurrentHashMap<String, SqlStats> stats = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedDeque<SlowQuery> recentSlowQueries = new ConcurrentLinkedDeque<>();
+    private final LatencyHistogram overall = new LatencyHistogram();
+    private final LongAdder slowQueryCount = new LongAdder();
+    private volatile long slowQueryThresholdNanos = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * 设置慢查询的阈值。耗时超过阈值的语句会被记录在日志中。
+     *
+     * @param millis 阈值（毫秒）
+     */
+    public void setSlowQueryThresholdMillis(long millis) {
+        this.slowQueryThresholdNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    /**
+     * 记录一次语句执行。
+     *
+     * @param sql   SQL 模板
+     * @param nanos 耗时（纳秒）
+     * @param rows  影响的行数，查询语句为 0
+     */
+    void record(String sql, long nanos, long rows) {
+        SqlStats s = stats.get(sql);
+        if (s == null) {
+            s = stats.computeIfAbsent(sql, k -> new SqlStats());
+        }
+        s.latency.record(nanos);
+        s.rows.add(rows);
+        overall.record(nanos);
+        if (nanos > slowQueryThresholdNanos) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+            slowQueryCount.increment();
+            SpCoBot.LOGGER.warn("慢查询（{}ms，{}行）: {}", millis, rows, sql);
+            recentSlowQueries.addFirst(new SlowQuery(sql, millis, rows, System.currentTimeMillis()));
+            while (recentSlowQueries.size() > RECENT_SLOW_QUERY_LIMIT) {
+                recentSlowQueries.pollLast();
+            }
+        }
+    }
+
+    /**
+     * @return 所有语句的耗时分布
+     */
+    public LatencyHistogram getOverall() {
+        return overall;
+    }
+
+    /**
+     * @return 慢查询的次数
+     */
+    public long getSlowQueryCount() {
+        return slowQueryCount.sum();
+    }
+
+    /**
+     * @return 最近的慢查询，从新到旧排列
+     */
+    public List<SlowQuery> getRecentSlowQueries() {
+        return new ArrayList<>(recentSlowQueries);
+    }
+
+    /**
+     * 按总耗时从高到低返回各 SQL 模板的统计。
+     *
+     * @param limit 最多返回的条数
+     * @return SQL 模板及其统计
+     */
+    public List<Map.Entry<String, SqlStats>> top(int limit) {
+        return stats.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, SqlStats> e) -> e.getValue().latency.totalMicros()).reversed())
+                .limit(limit)
+                .map(e -> Map.entry(e.getKey(), e.getValue()))
+                .toList();
+    }
+
+    /**
+     * 清空所有统计。
+     */
+    public void reset() {
+        stats.clear();
+        recentSlowQueries.clear();
+        overall.reset();
+        slowQueryCount.reset();
+    }
+
+    /**
+     * 一个 SQL 模板的统计。
+     */
+    public static class SqlStats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder rows = new LongAdder();
+
+        public LatencyHistogram getLatency() {
+            return latency;
+        }
+
+        public long getRows() {
+            return rows.sum();
+        }
+    }
+
+    /**
+     * 一条慢查询记录。
+     *
+     * @param sql      SQL 模板
+     * @param millis   耗时（毫秒）
+     * @param rows     影响的行数，查询语句为 0
+     * @param recorded 记录时间
+     */
+    public record SlowQuery(String sql, long millis, long rows, long recorded) {
+    }
+}
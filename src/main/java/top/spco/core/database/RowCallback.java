@@ -0,0 +1,42 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.database;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 逐行处理结果集。
+ *
+ * <p>这是一个<a href="package-summary.html">函数式接口</a>，其功能方法是 {@link #accept(ResultSet)}。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @see DataBase#forEach(String, RowCallback, Object...)
+ * @since 4.0.0
+ */
+@FunctionalInterface
+public interface RowCallback {
+    /**
+     * 处理结果集的当前行。
+     *
+     * <p>实现方只应读取当前行，不应移动游标或关闭结果集。
+     *
+     * @param rs 指向当前行的结果集
+     * @throws SQLException 读取字段时发生错误
+     */
+    void accept(ResultSet rs) throws SQLException;
+}
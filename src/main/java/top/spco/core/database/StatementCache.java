@@ -0,0 +1,111 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.database;
+
+import top.spco.SpCoBot;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单条连接的预编译语句缓存。
+ *
+ * <p>缓存以 SQL 文本为键，按最近最少使用的顺序淘汰，被淘汰的语句会被关闭。
+ * 每条连接同一时刻只会被一个线程使用（只读连接被借出，写连接受写锁保护），因此缓存本身不做同步。
+ *
+ * <p>从缓存中取得的语句归缓存所有，使用方不应关闭它，只需关闭由它产生的 {@link java.sql.ResultSet}。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @see ConnectionPool
+ * @since 4.0.0
+ */
+class StatementCache {
+    private final Connection conn;
+    private final LinkedHashMap<String, PreparedStatement> statements;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final QueryMetrics metrics;
+
+    /**
+     * 创建一个语句缓存。
+     *
+     * @param conn     缓存所属的连接
+     * @param capacity 最多缓存的语句数
+     * @param hits     命中计数器，由连接池中所有缓存共享
+     * @param misses   未命中计数器，由连接池中所有缓存共享
+     * @param metrics  记录语句执行统计的对象
+     */
+    StatementCache(Connection conn, int capacity, LongAdder hits, LongAdder misses, QueryMetrics metrics) {
+        this.conn = conn;
+        this.hits = hits;
+        this.misses = misses;
+        this.metrics = metrics;
+        this.statements = new LinkedHashMap<>(capacity * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > capacity) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * 获取指定 SQL 的预编译语句，缓存中没有或已被关闭时重新编译。
+     *
+     * @param sql SQL 语句
+     * @return 带计时的预编译语句，参数已被清除
+     * @throws SQLException 编译语句时发生错误
+     * @see InstrumentedStatement
+     */
+    PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement stmt = statements.get(sql);
+        if (stmt != null && !stmt.isClosed()) {
+            hits.increment();
+            stmt.clearParameters();
+            return stmt;
+        }
+        misses.increment();
+        stmt = InstrumentedStatement.wrap(conn.prepareStatement(sql), sql, metrics);
+        statements.put(sql, stmt);
+        return stmt;
+    }
+
+    /**
+     * 关闭并移除所有缓存的语句。
+     */
+    void clear() {
+        for (PreparedStatement stmt : statements.values()) {
+            closeQuietly(stmt);
+        }
+        statements.clear();
+    }
+
+    private static void closeQuietly(PreparedStatement stmt) {
+        try {
+            stmt.close();
+        } catch (SQLException e) {
+            SpCoBot.LOGGER.error("关闭预编译语句时发生错误。", e);
+        }
+    }
+}
@@ -17,20 +17,34 @@ package top.spco.core.database;
 
 import top.spco.SpCoBot;
 
-import java.sql.PreparedStatement;
+import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
 
 /**
+ * 检查数据表的结构，创建缺失的表和列。
+ *
+ * <p>数据表的结构变更应通过 {@link Migration} 进行，此类作为迁移的一个步骤使用。
+ *
+ * <p>除列以外，还可以声明二级索引：通过 {@link ColumnBuilder#index()} 声明单列索引，
+ * 通过 {@link #addIndex(String...)} 声明组合索引。索引名为 {@code idx_表名_列名...}。
+ *
  * @author SpCo
- * @version 0.1.0
+ * @version 4.0.0
+ * @see Migration#table(TableChecker)
  * @since 0.1.0
  */
 public class TableChecker {
     private final DataBase database;
     private final String tableName;
-    private final HashMap<String, ColumnBuilder> columns = new HashMap<>();
+    private final LinkedHashMap<String, ColumnBuilder> columns = new LinkedHashMap<>();
+    private final List<String[]> indexes = new ArrayList<>();
 
     public TableChecker(DataBase database, String tableName) {
         this.database = database;
@@ -42,41 +56,165 @@ public class TableChecker {
         return this;
     }
 
-    public void check() throws SQLException {
+    /**
+     * 声明一个组合索引。列的顺序即索引中的顺序，等值条件的列应排在前面。
+     *
+     * @param columnNames 索引包含的列
+     */
+    public TableChecker addIndex(String... columnNames) {
+        if (columnNames.length == 0) {
+            throw new IllegalArgumentException("Index must have at least one column.");
+        }
+        indexes.add(columnNames);
+        return this;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * 生成创建此表的语句。
+     *
+     * @param name 表名
+     * @return {@code CREATE TABLE} 语句
+     */
+    String buildCreateSql(String name) {
         if (columns.isEmpty()) {
             throw new IllegalStateException("Table cannot be without columns.");
         }
-        try {
-            if (!database.isTableExists(tableName)) {
-                StringBuilder sqlBuilder = new StringBuilder();
-                sqlBuilder.append("CREATE TABLE IF NOT EXISTS ").append(tableName).append(" (");
-                for (ColumnBuilder column : columns.values()) {
-                    sqlBuilder.append(column.build()).append(", ");
+        StringBuilder sqlBuilder = new StringBuilder();
+        sqlBuilder.append("CREATE TABLE IF NOT EXISTS ").append(name).append(" (");
+        for (ColumnBuilder column : columns.values()) {
+            sqlBuilder.append(column.build()).append(", ");
+        }
+        sqlBuilder.setLength(sqlBuilder.length() - 2);
+        sqlBuilder.append(")");
+        return sqlBuilder.toString();
+    }
+
+    /**
+     * 生成创建所有已声明索引的语句。
+     *
+     * @return {@code CREATE INDEX} 语句，没有声明索引时为空列表
+     */
+    List<String> buildIndexSql() {
+        List<String> result = new ArrayList<>();
+        for (ColumnBuilder column : columns.values()) {
+            if (column.isIndexed()) {
+                result.add(indexSql(new String[]{column.getName()}));
+            }
+        }
+        for (String[] index : indexes) {
+            result.add(indexSql(index));
+        }
+        return result;
+    }
+
+    private String indexSql(String[] columnNames) {
+        String joined = String.join(", ", columnNames);
+        return "CREATE INDEX IF NOT EXISTS idx_" + tableName + "_" + String.join("_", columnNames) + " ON " + tableName + " (" + joined + ")";
+    }
+
+    /**
+     * 创建所有已声明但尚不存在的索引。
+     *
+     * @throws SQLException 创建索引时发生错误
+     */
+    public void checkIndexes() throws SQLException {
+        List<String> indexSql = buildIndexSql();
+        if (indexSql.isEmpty()) {
+            return;
+        }
+        database.write(conn -> {
+            try (Statement stmt = conn.createStatement()) {
+                for (String sql : indexSql) {
+                    stmt.execute(sql);
                 }
-                sqlBuilder.setLength(sqlBuilder.length() - 2);
-                sqlBuilder.append(")");
+            }
+            return null;
+        });
+    }
 
-                try (PreparedStatement stmt = database.getConn().prepareStatement(sqlBuilder.toString())) {
-                    stmt.execute();
+    /**
+     * 检查表是否存在，不存在时创建；存在时补齐缺失的列。最后创建已声明的索引。
+     *
+     * <p>现有的列通过一次 {@code PRAGMA table_info} 读取，而不是逐列查询。
+     *
+     * @throws SQLException 检查或修改表结构时发生错误
+     */
+    public void check() throws SQLException {
+        String createSql = buildCreateSql(tableName);
+        database.transaction(conn -> {
+            Set<String> existing = existingColumns(conn);
+            try (Statement stmt = conn.createStatement()) {
+                if (existing.isEmpty()) {
+                    stmt.execute(createSql);
+                    SpCoBot.LOGGER.info("{}表不存在，已成功创建。", tableName);
+                } else {
+                    for (ColumnBuilder column : columns.values()) {
+                        if (existing.contains(column.getName())) {
+                            continue;
+                        }
+                        stmt.execute("ALTER TABLE " + tableName + " ADD COLUMN " + column.build());
+                        SpCoBot.LOGGER.info("{}列不存在，已成功创建。", column.getName());
+                    }
                 }
-                SpCoBot.LOGGER.info("{}表不存在，已成功创建。", tableName);
-                return;
             }
-            for (ColumnBuilder column : columns.values()) {
-                if (database.isColumnExists(tableName, column.getName())) {
-                    continue;
+            checkIndexes();
+            return null;
+        });
+    }
+
+    /**
+     * 按当前声明的结构重建此表，保留新旧结构共有的列中的数据。
+     *
+     * <p>用于 {@code ALTER TABLE ADD COLUMN} 无法表达的变更，如修改列的类型或约束、删除列。
+     * 表不存在时直接创建。旧表上的索引会随旧表一同删除，重建后创建已声明的索引。
+     *
+     * @throws SQLException 重建表时发生错误
+     */
+    public void rebuild() throws SQLException {
+        String tempName = tableName + "_rebuild";
+        String createSql = buildCreateSql(tempName);
+        database.transaction(conn -> {
+            Set<String> existing = existingColumns(conn);
+            try (Statement stmt = conn.createStatement()) {
+                if (existing.isEmpty()) {
+                    stmt.execute(buildCreateSql(tableName));
+                    SpCoBot.LOGGER.info("{}表不存在，已成功创建。", tableName);
+                    checkIndexes();
+                    return null;
                 }
-                String alterSql = "ALTER TABLE " + tableName + " ADD COLUMN " + column.build();
-                try (Statement stmt = database.getConn().createStatement()) {
-                    stmt.execute(alterSql);
-                    SpCoBot.LOGGER.info("{}列不存在，已成功创建。", column.getName());
+                StringBuilder common = new StringBuilder();
+                for (String name : columns.keySet()) {
+                    if (existing.contains(name)) {
+                        common.append(name).append(", ");
+                    }
                 }
+                stmt.execute("DROP TABLE IF EXISTS " + tempName);
+                stmt.execute(createSql);
+                if (!common.isEmpty()) {
+                    common.setLength(common.length() - 2);
+                    stmt.execute("INSERT INTO " + tempName + " (" + common + ") SELECT " + common + " FROM " + tableName);
+                }
+                stmt.execute("DROP TABLE " + tableName);
+                stmt.execute("ALTER TABLE " + tempName + " RENAME TO " + tableName);
+                SpCoBot.LOGGER.info("已重建{}表。", tableName);
             }
-        } catch (SQLException e) {
-            if (!database.getConn().getAutoCommit()) {
-                database.getConn().rollback();
+            checkIndexes();
+            return null;
+        });
+    }
+
+    private Set<String> existingColumns(Connection conn) throws SQLException {
+        Set<String> existing = new HashSet<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + tableName + ")")) {
+            while (rs.next()) {
+                existing.add(rs.getString("name"));
             }
-            throw e;
         }
+        return existing;
     }
-}
\ No newline at end of file
+}
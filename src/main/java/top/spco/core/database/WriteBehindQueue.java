@@ -0,0 +1,222 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.database;
+
+import top.spco.SpCoBot;
+import top.spco.util.NamedThreadFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 写后队列。
+ *
+ * <p>提交的写语句（或一组需要在同一事务中完成的写操作）由单独的写线程按提交顺序分批执行：写线程取到第一条语句后，
+ * 最多再等待 {@code flushIntervalMillis} 毫秒或凑满 {@code maxBatchSize} 条语句，然后在同一个事务中执行整批语句并提交。
+ * 这样高峰期的大量小写入只需要少数几次提交。
+ *
+ * <p>每条语句对应一个 {@link CompletableFuture}，在所在的事务提交后以影响行数或 {@code RETURNING} 子句返回的值完成。
+ * 若整批执行失败，事务会被回滚，随后在各自的事务中逐条重新执行，只有本身出错的语句以异常完成。
+ *
+ * <p>写连接使用 {@code synchronous = FULL}，因此 {@link CompletableFuture} 完成时数据已持久化，
+ * 即使随后发生断电也不会丢失。整批语句只在提交时同步一次磁盘。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @see DataBase#updateAsync(String, Object...)
+ * @since 4.0.0
+ */
+public class WriteBehindQueue {
+    private final DataBase dataBase;
+    private final long flushIntervalMillis;
+    private final int maxBatchSize;
+    private final BlockingQueue<PendingWrite<?>> queue = new LinkedBlockingQueue<>();
+    private final Thread writerThread;
+    private volatile boolean closed = false;
+
+    /**
+     * 创建并启动一个写后队列。
+     *
+     * @param dataBase            执行语句的数据库
+     * @param flushIntervalMillis 一批语句最多等待的毫秒数
+     * @param maxBatchSize        一批语句的最大条数
+     */
+    public WriteBehindQueue(DataBase dataBase, long flushIntervalMillis, int maxBatchSize) {
+        if (flushIntervalMillis < 0 || maxBatchSize < 1) {
+            throw new IllegalArgumentException("Invalid write-behind parameters.");
+        }
+        this.dataBase = dataBase;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.writerThread = new NamedThreadFactory("WriteBehind").newThread(this::run);
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * 提交一条写语句。
+     *
+     * @param sql    SQL语句
+     * @param params 参数数组
+     * @return 在语句所在的事务提交后以影响行数完成的 {@link CompletableFuture}
+     */
+    public CompletableFuture<Integer> submit(String sql, Object... params) {
+        return enqueue(conn -> {
+            PreparedStatement pstmt = dataBase.prepare(conn, sql);
+            dataBase.setParameters(pstmt, params);
+            return pstmt.executeUpdate();
+        });
+    }
+
+    /**
+     * 提交一条带有 {@code RETURNING} 子句的写语句。
+     *
+     * @param sql    SQL语句
+     * @param mapper 将返回的第一行映射为结果的函数
+     * @param params 参数数组
+     * @param <T>    结果的类型
+     * @return 在语句所在的事务提交后完成的 {@link CompletableFuture}，其值为映射后的第一行，语句未返回任何行时为 {@code null}
+     */
+    public <T> CompletableFuture<T> submitReturning(String sql, RowMapper<T> mapper, Object... params) {
+        return enqueue(conn -> {
+            PreparedStatement pstmt = dataBase.prepare(conn, sql);
+            dataBase.setParameters(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? mapper.map(rs) : null;
+            }
+        });
+    }
+
+    /**
+     * 提交一组写操作。操作与同一批的其他语句在同一个事务中执行，其中的多条语句要么全部提交，要么全部回滚。
+     *
+     * <p>操作在写线程中执行，应尽快完成，不应等待其他写操作。
+     *
+     * @param callback 要执行的操作，只能通过 {@link DataBase#prepare(Connection, String)} 使用得到的连接
+     * @param <T>      操作结果的类型
+     * @return 在操作所在的事务提交后以操作结果完成的 {@link CompletableFuture}
+     */
+    public <T> CompletableFuture<T> submit(ConnectionCallback<T> callback) {
+        return enqueue(callback);
+    }
+
+    private <T> CompletableFuture<T> enqueue(ConnectionCallback<T> callback) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (closed) {
+            future.completeExceptionally(new SQLException("The write-behind queue has been closed."));
+            return future;
+        }
+        PendingWrite<T> write = new PendingWrite<>(callback, future);
+        queue.add(write);
+        if (closed && queue.remove(write)) {
+            // 与 close 并发时写线程可能已经退出，语句不会再被执行
+            future.completeExceptionally(new SQLException("The write-behind queue has been closed."));
+        }
+        return future;
+    }
+
+    /**
+     * @return 尚未执行的语句数
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    private void run() {
+        List<PendingWrite<?>> batch = new ArrayList<>(maxBatchSize);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                PendingWrite<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingWrite<?> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // 关闭时被中断，继续执行剩余的语句
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingWrite<?>> batch) {
+        Object[] results = new Object[batch.size()];
+        try {
+            dataBase.transaction(conn -> {
+                for (int i = 0; i < batch.size(); i++) {
+                    results[i] = batch.get(i).callback.apply(conn);
+                }
+                return null;
+            });
+        } catch (SQLException | RuntimeException e) {
+            SpCoBot.LOGGER.warn("批量写入失败，正在逐条重试。", e);
+            for (PendingWrite<?> write : batch) {
+                try {
+                    write.complete(dataBase.transaction(write.callback));
+                } catch (SQLException | RuntimeException ex) {
+                    write.future.completeExceptionally(ex);
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).complete(results[i]);
+        }
+    }
+
+    /**
+     * 停止接受新的语句，等待已提交的语句全部执行完毕。写线程退出后仍留在队列中的语句以异常完成。
+     */
+    public void close() {
+        closed = true;
+        writerThread.interrupt();
+        try {
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        PendingWrite<?> write;
+        while ((write = queue.poll()) != null) {
+            write.future.completeExceptionally(new SQLException("The write-behind queue has been closed."));
+        }
+    }
+
+    private record PendingWrite<T>(ConnectionCallback<T> callback, CompletableFuture<T> future) {
+        @SuppressWarnings("unchecked")
+        void complete(Object result) {
+            future.complete((T) result);
+        }
+    }
+}
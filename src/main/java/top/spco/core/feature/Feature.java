@@ -15,12 +15,8 @@
  */
 package top.spco.core.feature;
 
-import top.spco.SpCoBot;
 import top.spco.api.Interactive;
-import top.spco.util.SerializationUtil;
 
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -58,120 +54,50 @@ public abstract class Feature {
         return manager().get().getFeatureType() + "." + getFeatureName();
     }
 
+    /**
+     * 查询功能在某个对象中是否可用。查询只读取 {@link FeatureRegistry} 中的快照，不访问存储。
+     */
     public static boolean isAvailable(Feature feature, Interactive<?> where) throws SQLException {
-        String featureId = feature.getFeatureId();
-        String sql = "SELECT disable, unavailable FROM feature WHERE id = ?";
-        try (PreparedStatement stmt = SpCoBot.getInstance().getDataBase().getConn().prepareStatement(sql)) {
-            stmt.setString(1, featureId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    boolean disable = rs.getInt("disable") == 1;
-                    if (disable) {
-                        return false;
-                    }
-                    String unavailable = rs.getString("unavailable");
-                    Set<Long> unavailableIds = SerializationUtil.deserializeLongSet(unavailable);
-                    return !unavailableIds.contains(where.getId());
-                }
-                return true;
-            }
-        }
+        return FeatureRegistry.getInstance().isAvailable(feature.getFeatureId(), where.getId());
     }
 
     public static boolean isDisabled(Feature feature) throws SQLException {
-        String featureId = feature.getFeatureId();
-        String sql = "SELECT disable FROM feature WHERE id = ?";
-        try (PreparedStatement stmt = SpCoBot.getInstance().getDataBase().getConn().prepareStatement(sql)) {
-            stmt.setString(1, featureId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt("disable") == 1;
-                }
-                return false;
-            }
-        }
+        FeatureRegistry.Snapshot snapshot = FeatureRegistry.getInstance().get(feature.getFeatureId());
+        return snapshot != null && snapshot.disabled();
     }
 
     public static Set<Long> getUnavailableIds(Feature feature) throws SQLException {
-        String featureId = feature.getFeatureId();
-        String sql = "SELECT unavailable FROM feature WHERE id = ?";
-        try (PreparedStatement stmt = SpCoBot.getInstance().getDataBase().getConn().prepareStatement(sql)) {
-            stmt.setString(1, featureId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return SerializationUtil.deserializeLongSet(rs.getString("unavailable"));
-                }
-                return new HashSet<>();
-            }
-        }
+        FeatureRegistry.Snapshot snapshot = FeatureRegistry.getInstance().get(feature.getFeatureId());
+        return snapshot == null ? new HashSet<>() : snapshot.unavailable().toSet();
     }
 
     public static void addUnavailable(Feature feature, Interactive<?> where) throws SQLException {
-        Set<Long> unavailableIds = getUnavailableIds(feature);
-        unavailableIds.add(where.getId());
-        setUnavailable(feature, unavailableIds);
+        checkAvailableIdOrThrow(feature);
+        FeatureRegistry.getInstance().addUnavailable(feature.getFeatureId(), where.getId());
     }
 
     public static void removeUnavailable(Feature feature, Interactive<?> where) throws SQLException {
-        Set<Long> unavailableIds = getUnavailableIds(feature);
-        unavailableIds.remove(where.getId());
-        setUnavailable(feature, unavailableIds);
+        checkAvailableIdOrThrow(feature);
+        FeatureRegistry.getInstance().removeUnavailable(feature.getFeatureId(), where.getId());
     }
 
     public static void setDisabled(Feature feature, boolean disable) throws SQLException {
         checkAvailableIdOrThrow(feature);
-        String featureId = feature.getFeatureId();
-        if (isFeatureExistsInDatabase(feature)) {
-            // 更新记录
-            String updateQuery = "UPDATE feature SET disable = ? WHERE id = ?";
-            try (PreparedStatement updateStmt = SpCoBot.getInstance().getDataBase().getConn().prepareStatement(updateQuery)) {
-                updateStmt.setInt(1, disable ? 1 : 0);
-                updateStmt.setString(2, featureId);
-                updateStmt.executeUpdate();
-            }
-        } else {
-            insertFeature(feature, disable, null);
-        }
+        FeatureRegistry.getInstance().setDisabled(feature.getFeatureId(), disable);
     }
 
     public static void setUnavailable(Feature feature, Set<Long> unavailable) throws SQLException {
         checkAvailableIdOrThrow(feature);
-        String featureId = feature.getFeatureId();
-        if (isFeatureExistsInDatabase(feature)) {
-            // 更新记录
-            String updateQuery = "UPDATE feature SET unavailable = ? WHERE id = ?";
-            try (PreparedStatement updateStmt = SpCoBot.getInstance().getDataBase().getConn().prepareStatement(updateQuery)) {
-                updateStmt.setString(1, SerializationUtil.serializeLongSet(unavailable));
-                updateStmt.setString(2, featureId);
-                updateStmt.executeUpdate();
-            }
-        } else {
-            insertFeature(feature, false, unavailable);
-        }
+        FeatureRegistry.getInstance().setUnavailable(feature.getFeatureId(), unavailable);
     }
 
     public static void insertFeature(Feature feature, boolean disable, Set<Long> unavailable) throws SQLException {
-        if (!isFeatureExistsInDatabase(feature)) {
-            checkAvailableIdOrThrow(feature);
-            String insertQuery = "INSERT INTO feature (id, disable, unavailable) VALUES (?, ?, ?)";
-            try (PreparedStatement insertStmt = SpCoBot.getInstance().getDataBase().getConn().prepareStatement(insertQuery)) {
-                insertStmt.setString(1, feature.getFeatureId());
-                insertStmt.setInt(2, disable ? 1 : 0);
-                insertStmt.setString(3, SerializationUtil.serializeLongSet(unavailable));
-                insertStmt.executeUpdate();
-            }
-        }
+        checkAvailableIdOrThrow(feature);
+        FeatureRegistry.getInstance().insert(feature.getFeatureId(), disable, unavailable);
     }
 
     public static boolean isFeatureExistsInDatabase(Feature feature) throws SQLException {
-        String checkQuery = "SELECT COUNT(*) FROM feature WHERE id = ?";
-        try (PreparedStatement checkStmt = SpCoBot.getInstance().getDataBase().getConn().prepareStatement(checkQuery)) {
-            checkStmt.setString(1, feature.getFeatureId());
-            try (ResultSet rs = checkStmt.executeQuery()) {
-                rs.next();
-                return rs.getInt(1) > 0;
-            }
-        }
+        return FeatureRegistry.getInstance().get(feature.getFeatureId()) != null;
     }
 
     public static void checkAvailableIdOrThrow(Feature feature) {
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.feature;
+
+import top.spco.SpCoBot;
+import top.spco.core.storage.FeatureRecord;
+import top.spco.core.storage.FeatureRepository;
+import top.spco.util.ImmutableLongSet;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 功能开关的内存快照。
+ *
+ * <p>功能表在第一次查询时整体读入内存，每个功能对应一个不可变的 {@link Snapshot}，所有快照存放在一张不可变的表中。
+ * 查询功能是否可用只需读取这张表并在 {@link ImmutableLongSet} 中查找一次，不访问存储，也不加锁。
+ *
+ * <p>修改功能开关时先写入存储，成功后复制出一张新表替换旧表，因此读取方总是看到某一时刻完整的状态。
+ * 修改操作之间是串行的。所有对功能表的修改都应通过此类进行，否则快照会过期，此时可调用 {@link #reload()}。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @see Feature
+ * @since 4.0.0
+ */
+public class FeatureRegistry {
+    private static final FeatureRegistry INSTANCE = new FeatureRegistry();
+    /**
+     * 功能Id到快照的不可变表，尚未读取时为 {@code null}
+     */
+    private volatile Map<String, Snapshot> snapshots;
+
+    private FeatureRegistry() {
+    }
+
+    /**
+     * 获取 {@code FeatureRegistry} 的单例实例。
+     *
+     * @return {@code FeatureRegistry} 的单例实例
+     */
+    public static FeatureRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    private Map<String, Snapshot> snapshots() throws SQLException {
+        Map<String, Snapshot> map = snapshots;
+        if (map == null) {
+            synchronized (this) {
+                map = snapshots;
+                if (map == null) {
+                    map = load();
+                    snapshots = map;
+                }
+            }
+        }
+        return map;
+    }
+
+    private static Map<String, Snapshot> load() throws SQLException {
+        Map<String, Snapshot> map = new HashMap<>();
+        for (FeatureRecord record : repository().findAll()) {
+            map.put(record.id(), new Snapshot(record.disabled(), ImmutableLongSet.copyOf(record.unavailable())));
+        }
+        return Map.copyOf(map);
+    }
+
+    private static FeatureRepository repository() {
+        return SpCoBot.getInstance().getStorage().features();
+    }
+
+    /**
+     * @param id 功能的Id
+     * @return 功能的快照，功能表中没有该功能时返回 {@code null}
+     * @throws SQLException 第一次读取功能表时发生错误
+     */
+    public Snapshot get(String id) throws SQLException {
+        return snapshots().get(id);
+    }
+
+    /**
+     * 查询功能在某个对象中是否可用。
+     *
+     * @param id    功能的Id
+     * @param where 对象的Id
+     * @return 功能未被全局禁用，且未在该对象中被禁用时返回 {@code true}
+     * @throws SQLException 第一次读取功能表时发生错误
+     */
+    public boolean isAvailable(String id, long where) throws SQLException {
+        Snapshot snapshot = snapshots().get(id);
+        return snapshot == null || (!snapshot.disabled() && !snapshot.unavailable().contains(where));
+    }
+
+    /**
+     * 功能表中没有该功能时插入一条记录。
+     *
+     * @param id          功能的Id
+     * @param disabled    是否禁用
+     * @param unavailable 功能不可用的对象的Id，可以为 {@code null}
+     * @throws SQLException 写入存储时发生错误
+     */
+    public synchronized void insert(String id, boolean disabled, Set<Long> unavailable) throws SQLException {
+        if (get(id) == null) {
+            repository().insert(id, disabled, unavailable);
+            swap(id, new Snapshot(disabled, ImmutableLongSet.copyOf(unavailable)));
+        }
+    }
+
+    /**
+     * 设置功能是否被全局禁用。
+     *
+     * @param id       功能的Id
+     * @param disabled 是否禁用
+     * @throws SQLException 写入存储时发生错误
+     */
+    public synchronized void setDisabled(String id, boolean disabled) throws SQLException {
+        Snapshot old = get(id);
+        if (old == null) {
+            insert(id, disabled, null);
+        } else if (old.disabled() != disabled) {
+            repository().setDisabled(id, disabled);
+            swap(id, new Snapshot(disabled, old.unavailable()));
+        }
+    }
+
+    /**
+     * 设置功能不可用的对象。
+     *
+     * @param id          功能的Id
+     * @param unavailable 功能不可用的对象的Id
+     * @throws SQLException 写入存储时发生错误
+     */
+    public synchronized void setUnavailable(String id, Set<Long> unavailable) throws SQLException {
+        Snapshot old = get(id);
+        if (old == null) {
+            insert(id, false, unavailable);
+        } else {
+            repository().setUnavailable(id, unavailable);
+            swap(id, new Snapshot(old.disabled(), ImmutableLongSet.copyOf(unavailable)));
+        }
+    }
+
+    /**
+     * 使功能在某个对象中不可用。
+     *
+     * @param id    功能的Id
+     * @param where 对象的Id
+     * @throws SQLException 写入存储时发生错误
+     */
+    public synchronized void addUnavailable(String id, long where) throws SQLException {
+        Snapshot old = get(id);
+        if (old == null) {
+            insert(id, false, Set.of(where));
+        } else if (!old.unavailable().contains(where)) {
+            repository().addUnavailable(id, where);
+            swap(id, new Snapshot(old.disabled(), old.unavailable().with(where)));
+        }
+    }
+
+    /**
+     * 使功能在某个对象中重新可用。
+     *
+     * @param id    功能的Id
+     * @param where 对象的Id
+     * @throws SQLException 写入存储时发生错误
+     */
+    public synchronized void removeUnavailable(String id, long where) throws SQLException {
+        Snapshot old = get(id);
+        if (old == null) {
+            // 与原先的行为一致：没有记录时也插入一条
+            insert(id, false, null);
+        } else if (old.unavailable().contains(where)) {
+            repository().removeUnavailable(id, where);
+            swap(id, new Snapshot(old.disabled(), old.unavailable().without(where)));
+        }
+    }
+
+    private void swap(String id, Snapshot snapshot) {
+        Map<String, Snapshot> copy = new HashMap<>(snapshots);
+        copy.put(id, snapshot);
+        snapshots = Map.copyOf(copy);
+    }
+
+    /**
+     * 丢弃快照，下次查询时重新读取功能表。
+     */
+    public synchronized void reload() {
+        snapshots = null;
+    }
+
+    /**
+     * 某一时刻功能的开关状态。
+     *
+     * @param disabled    功能是否被全局禁用
+     * @param unavailable 功能不可用的对象的Id
+     */
+    public record Snapshot(boolean disabled, ImmutableLongSet unavailable) {
+    }
+}
@@ -15,14 +15,12 @@
  */
 package top.spco.core.module;
 
-import top.spco.SpCoBot;
 import top.spco.api.Interactive;
 import top.spco.core.feature.Feature;
 import top.spco.core.feature.FeatureManager;
+import top.spco.core.feature.FeatureRegistry;
 import top.spco.service.RegistrationException;
 
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -155,25 +153,14 @@ public class ModuleManager extends FeatureManager<Class<? extends AbstractModule
     public void register(AbstractModule module, boolean active) {
         register(module);
         try {
-            String featureId = module.getFeatureId();
-            String sql = "SELECT disable FROM feature WHERE id = ?";
-            try (PreparedStatement stmt = SpCoBot.getInstance().getDataBase().getConn().prepareStatement(sql)) {
-                stmt.setString(1, featureId);
-                try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        boolean disabled = rs.getInt("disable") == 1;
-                        if (disabled) {
-                            module.toggle();
-                        }
-                    } else {
-                        if (active) {
-                            try {
-                                module.toggle();
-                            } catch (SQLException e) {
-                                throw new RuntimeException(e);
-                            }
-                        }
-                    }
+            FeatureRegistry.Snapshot snapshot = FeatureRegistry.getInstance().get(module.getFeatureId());
+            if (snapshot != null) {
+                if (snapshot.disabled()) {
+                    module.toggle();
+                }
+            } else {
+                if (active) {
+                    module.toggle();
                 }
             }
         } catch (SQLException e) {
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.storage;
+
+/**
+ * 一条自动签到记录。
+ *
+ * @param date   签到日期
+ * @param user   用户的QQ号
+ * @param reward 奖励的海绵山币数量
+ * @author SpCo
+ * @version 4.0.0
+ * @see UserRepository#signAllPremium(String, java.util.function.LongToIntFunction)
+ * @since 4.0.0
+ */
+public record AutoSignRecord(String date, long user, int reward) {
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.storage;
+
+/**
+ * 一条星币变动记录。
+ *
+ * @param user    用户的QQ号
+ * @param date    变动日期
+ * @param time    变动时间戳
+ * @param amount  变动数量
+ * @param balance 变动后的余额
+ * @param desc    说明
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+public record ExpenseRecord(long user, String date, long time, int amount, int balance, String desc) {
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.storage;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * 星币变动记录的仓库。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+public interface ExpenseRepository {
+    void insert(ExpenseRecord expense) throws SQLException;
+
+    /**
+     * @param user 用户的QQ号
+     * @return 用户的变动记录，按时间先后排列
+     */
+    List<ExpenseRecord> findByUser(long user) throws SQLException;
+}
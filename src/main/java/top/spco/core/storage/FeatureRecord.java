@@ -0,0 +1,31 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.storage;
+
+import java.util.Set;
+
+/**
+ * 功能表中的一行。
+ *
+ * @param id          功能的Id
+ * @param disabled    功能是否被全局禁用
+ * @param unavailable 功能不可用的对象
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+public record FeatureRecord(String id, boolean disabled, Set<Long> unavailable) {
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.storage;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 功能开关的仓库。
+ *
+ * <p>功能在哪些对象中不可用按 (功能, 对象) 逐条保存，增删一个对象只需写入一条记录。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @see top.spco.core.feature.Feature
+ * @see top.spco.core.feature.FeatureRegistry
+ * @since 4.0.0
+ */
+public interface FeatureRepository {
+    /**
+     * @param id 功能的Id
+     * @return 功能的记录，没有记录时返回 {@code null}
+     */
+    FeatureRecord find(String id) throws SQLException;
+
+    /**
+     * @return 所有功能的记录
+     */
+    List<FeatureRecord> findAll() throws SQLException;
+
+    boolean exists(String id) throws SQLException;
+
+    void insert(String id, boolean disabled, Set<Long> unavailable) throws SQLException;
+
+    void setDisabled(String id, boolean disabled) throws SQLException;
+
+    /**
+     * 以给定的集合替换功能不可用的对象。
+     */
+    void setUnavailable(String id, Set<Long> unavailable) throws SQLException;
+
+    /**
+     * @param id     功能的Id
+     * @param target 对象的Id
+     * @return 功能是否在该对象中不可用
+     */
+    boolean isUnavailable(String id, long target) throws SQLException;
+
+    /**
+     * 使功能在某个对象中不可用。已不可用时不做任何事。
+     *
+     * @param id     功能的Id
+     * @param target 对象的Id
+     */
+    void addUnavailable(String id, long target) throws SQLException;
+
+    /**
+     * 使功能在某个对象中重新可用。本就可用时不做任何事。
+     *
+     * @param id     功能的Id
+     * @param target 对象的Id
+     */
+    void removeUnavailable(String id, long target) throws SQLException;
+}
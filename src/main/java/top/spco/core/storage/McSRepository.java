@@ -0,0 +1,50 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.storage;
+
+import top.spco.util.tuple.Pair;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * 群与McS服务器绑定关系的仓库。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @see top.spco.service.mcs.McSManager
+ * @since 4.0.0
+ */
+public interface McSRepository {
+    void bind(long groupId, String host, int port) throws SQLException;
+
+    /**
+     * @return 被删除的绑定数
+     */
+    int unbind(long groupId) throws SQLException;
+
+    /**
+     * @return 群绑定的服务器地址和端口，未绑定时返回 {@code null}
+     */
+    Pair<String, Integer> find(long groupId) throws SQLException;
+
+    boolean isBound(long groupId) throws SQLException;
+
+    /**
+     * @return 所有绑定了服务器的群
+     */
+    List<Long> getBoundGroups() throws SQLException;
+}
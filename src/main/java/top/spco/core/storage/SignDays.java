@@ -0,0 +1,279 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * 一名用户签到过的日期的集合，日期以 {@link java.time.LocalDate#toEpochDay()} 表示。
+ *
+ * <p>集合以有序的连续区间（run）保存，与 Roaring Bitmap 的 run 容器相同：连续签到的若干天只占一个区间，
+ * 因此签到越规律，占用的空间越小。连续签到天数、最长连续签到天数和某段时间内的签到天数都可以在区间上直接算出，
+ * 无需逐日检查。
+ *
+ * <p>序列化时依次写入区间数和各区间相对于前一个区间的间隔与长度，均为变长整数，常见的签到历史只需几十个字节。
+ *
+ * <p>此类的对象不可变，{@link #with(int)} 返回新的对象，可以在线程之间共享。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @see SignHistoryRepository
+ * @since 4.0.0
+ */
+public final class SignDays {
+    /**
+     * 空集合
+     */
+    public static final SignDays EMPTY = new SignDays(new int[0], new int[0]);
+    /**
+     * 序列化格式的版本
+     */
+    private static final int FORMAT_VERSION = 1;
+    /**
+     * 各区间的第一天，升序排列
+     */
+    private final int[] starts;
+    /**
+     * 各区间的最后一天（含）
+     */
+    private final int[] ends;
+    private final int cardinality;
+    private final int longestStreak;
+
+    private SignDays(int[] starts, int[] ends) {
+        this.starts = starts;
+        this.ends = ends;
+        int total = 0;
+        int longest = 0;
+        for (int i = 0; i < starts.length; i++) {
+            int length = ends[i] - starts[i] + 1;
+            total += length;
+            longest = Math.max(longest, length);
+        }
+        this.cardinality = total;
+        this.longestStreak = longest;
+    }
+
+    /**
+     * 返回加入指定日期后的集合。
+     *
+     * @param day 日期
+     * @return 加入后的集合，已包含该日期时返回此对象
+     */
+    public SignDays with(int day) {
+        int i = find(day);
+        if (i >= 0 && day <= ends[i]) {
+            return this;
+        }
+        // i 为最后一个起始日期不晚于 day 的区间
+        boolean joinsPrevious = i >= 0 && ends[i] == day - 1;
+        boolean joinsNext = i + 1 < starts.length && starts[i + 1] == day + 1;
+        int[] newStarts;
+        int[] newEnds;
+        if (joinsPrevious && joinsNext) {
+            // 两个区间合并为一个
+            newStarts = new int[starts.length - 1];
+            newEnds = new int[ends.length - 1];
+            System.arraycopy(starts, 0, newStarts, 0, i + 1);
+            System.arraycopy(starts, i + 2, newStarts, i + 1, starts.length - i - 2);
+            System.arraycopy(ends, 0, newEnds, 0, i);
+            System.arraycopy(ends, i + 1, newEnds, i, ends.length - i - 1);
+        } else if (joinsPrevious) {
+            newStarts = starts;
+            newEnds = ends.clone();
+            newEnds[i] = day;
+        } else if (joinsNext) {
+            newStarts = starts.clone();
+            newStarts[i + 1] = day;
+            newEnds = ends;
+        } else {
+            newStarts = new int[starts.length + 1];
+            newEnds = new int[ends.length + 1];
+            System.arraycopy(starts, 0, newStarts, 0, i + 1);
+            System.arraycopy(ends, 0, newEnds, 0, i + 1);
+            newStarts[i + 1] = day;
+            newEnds[i + 1] = day;
+            System.arraycopy(starts, i + 1, newStarts, i + 2, starts.length - i - 1);
+            System.arraycopy(ends, i + 1, newEnds, i + 2, ends.length - i - 1);
+        }
+        return new SignDays(newStarts, newEnds);
+    }
+
+    /**
+     * @return 最后一个起始日期不晚于 {@code day} 的区间的下标，没有这样的区间时返回 {@code -1}
+     */
+    private int find(int day) {
+        int i = Arrays.binarySearch(starts, day);
+        return i >= 0 ? i : -i - 2;
+    }
+
+    /**
+     * @param day 日期
+     * @return 是否在该日期签到过
+     */
+    public boolean contains(int day) {
+        int i = find(day);
+        return i >= 0 && day <= ends[i];
+    }
+
+    /**
+     * @return 签到过的总天数
+     */
+    public int cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * @return 是否从未签到过
+     */
+    public boolean isEmpty() {
+        return starts.length == 0;
+    }
+
+    /**
+     * 计算截至指定日期的连续签到天数。
+     *
+     * <p>当天尚未签到时，截至前一天的连续签到仍然有效。
+     *
+     * @param today 当天的日期
+     * @return 连续签到的天数，前一天和当天都未签到时为 {@code 0}
+     */
+    public int currentStreak(int today) {
+        int i = find(today);
+        if (i < 0) {
+            return 0;
+        }
+        if (today <= ends[i]) {
+            return today - starts[i] + 1;
+        }
+        return ends[i] == today - 1 ? ends[i] - starts[i] + 1 : 0;
+    }
+
+    /**
+     * @return 最长的连续签到天数
+     */
+    public int longestStreak() {
+        return longestStreak;
+    }
+
+    /**
+     * 计算一段时间内签到的天数。
+     *
+     * @param from 起始日期（含）
+     * @param to   结束日期（含）
+     * @return 签到的天数
+     */
+    public int countBetween(int from, int to) {
+        if (from > to) {
+            return 0;
+        }
+        int count = 0;
+        for (int i = Math.max(find(from), 0); i < starts.length && starts[i] <= to; i++) {
+            int lo = Math.max(starts[i], from);
+            int hi = Math.min(ends[i], to);
+            if (lo <= hi) {
+                count += hi - lo + 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return 序列化后的字节
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(2 + starts.length * 4);
+        out.write(FORMAT_VERSION);
+        writeVarInt(out, starts.length);
+        // 第一个区间的起点直接写入，之后写入与前一个区间终点的间隔，二者都不小于0
+        int previous = 0;
+        for (int i = 0; i < starts.length; i++) {
+            writeVarInt(out, i == 0 ? starts[i] : starts[i] - previous - 2);
+            writeVarInt(out, ends[i] - starts[i]);
+            previous = ends[i];
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 从 {@link #toBytes()} 的结果还原集合。
+     *
+     * @param bytes 序列化后的字节，为 {@code null} 或空时返回空集合
+     * @return 还原的集合
+     * @throws IllegalArgumentException 字节不是有效的序列化结果
+     */
+    public static SignDays fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return EMPTY;
+        }
+        if (bytes[0] != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported sign days format: " + bytes[0]);
+        }
+        int[] position = {1};
+        int count = readVarInt(bytes, position);
+        int[] starts = new int[count];
+        int[] ends = new int[count];
+        int previous = 0;
+        for (int i = 0; i < count; i++) {
+            int gap = readVarInt(bytes, position);
+            starts[i] = i == 0 ? gap : previous + gap + 2;
+            ends[i] = starts[i] + readVarInt(bytes, position);
+            previous = ends[i];
+        }
+        return count == 0 ? EMPTY : new SignDays(starts, ends);
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarInt(byte[] bytes, int[] position) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (position[0] >= bytes.length) {
+                throw new IllegalArgumentException("Truncated sign days.");
+            }
+            byte b = bytes[position[0]++];
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed sign days.");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SignDays other)) return false;
+        return Arrays.equals(starts, other.starts) && Arrays.equals(ends, other.ends);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(starts) + Arrays.hashCode(ends);
+    }
+
+    @Override
+    public String toString() {
+        return "SignDays{runs=" + starts.length + ", days=" + cardinality + "}";
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.storage;
+
+import java.sql.SQLException;
+
+/**
+ * 签到历史的仓库。
+ *
+ * <p>每名用户的签到日期保存为一个 {@link SignDays}，另按日期记录当天签到的人数。
+ * 日期均以 {@link java.time.LocalDate#toEpochDay()} 表示。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+public interface SignHistoryRepository {
+    /**
+     * @param user 用户的QQ号
+     * @return 用户的签到历史，从未签到过时为 {@link SignDays#EMPTY}
+     */
+    SignDays find(long user) throws SQLException;
+
+    /**
+     * 记录用户在指定日期签到。同一天重复记录不会改变签到历史和当天的签到人数。
+     *
+     * @param user 用户的QQ号
+     * @param day  签到日期
+     * @return 记录后的签到历史
+     */
+    SignDays record(long user, int day) throws SQLException;
+
+    /**
+     * 在一个事务中记录多名用户在同一天签到。
+     *
+     * @param day   签到日期
+     * @param users 用户的QQ号
+     */
+    void recordAll(int day, long[] users) throws SQLException;
+
+    /**
+     * @param day 日期
+     * @return 当天签到的人数
+     */
+    int countOn(int day) throws SQLException;
+
+    /**
+     * @param from 起始日期（含）
+     * @param to   结束日期（含）
+     * @return 这段时间内每天签到人数的总和
+     */
+    int countBetween(int from, int to) throws SQLException;
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.storage;
+
+import java.sql.SQLException;
+
+/**
+ * 机器人数据的存储后端。
+ *
+ * <p>业务代码通过此接口提供的各个仓库读写数据，而不直接编写 SQL。默认的实现是基于 SQLite 的
+ * {@link top.spco.core.storage.sqlite.SqliteStorage}；{@link top.spco.core.storage.memory.MemoryStorage}
+ * 将数据保存在内存中，供测试和压力测试在没有磁盘读写的情况下运行整个消息处理流程。
+ *
+ * <p>为与现有代码保持一致，仓库的方法在存储出错时抛出 {@link SQLException}。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @see top.spco.SpCoBot#getStorage()
+ * @since 4.0.0
+ */
+public interface Storage {
+    UserRepository users();
+
+    FeatureRepository features();
+
+    TradeRepository trades();
+
+    ExpenseRepository expenses();
+
+    McSRepository mcs();
+
+    ValorantRepository valorant();
+
+    SignHistoryRepository signHistory();
+
+    /**
+     * 在一个事务中执行操作。操作正常返回时提交，抛出异常时回滚。
+     *
+     * <p>事务可以嵌套，嵌套的事务会并入最外层的事务。
+     *
+     * @param callback 要执行的操作
+     * @param <T>      操作结果的类型
+     * @return 操作结果
+     * @throws SQLException 执行操作时发生错误
+     */
+    <T> T transaction(StorageCallback<T> callback) throws SQLException;
+
+    /**
+     * 关闭存储后端。
+     */
+    void close();
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.storage;
+
+import java.sql.SQLException;
+
+/**
+ * 表示一个在存储事务中执行的操作。
+ *
+ * <p>这是一个<a href="package-summary.html">函数式接口</a>，其功能方法是 {@link #run()}。
+ *
+ * @param <T> 操作结果的类型
+ * @author SpCo
+ * @version 4.0.0
+ * @see Storage#transaction(StorageCallback)
+ * @since 4.0.0
+ */
+@FunctionalInterface
+public interface StorageCallback<T> {
+    T run() throws SQLException;
+}
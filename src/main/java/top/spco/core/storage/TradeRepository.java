@@ -0,0 +1,51 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.storage;
+
+import java.sql.SQLException;
+
+/**
+ * 充值订单的仓库。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @see top.spco.trade.RechargeSystem
+ * @since 4.0.0
+ */
+public interface TradeRepository {
+    /**
+     * 创建一个未支付的订单。
+     *
+     * @param id     订单号
+     * @param user   下单用户的QQ号
+     * @param date   下单日期
+     * @param time   下单时间戳
+     * @param amount 金额
+     */
+    void insert(String id, long user, String date, long time, int amount) throws SQLException;
+
+    /**
+     * @return 订单的状态，订单不存在时返回 {@code null}
+     */
+    String getState(String id) throws SQLException;
+
+    /**
+     * @return 下单用户的QQ号，订单不存在时返回 {@code null}
+     */
+    Long getUser(String id) throws SQLException;
+
+    void setState(String id, String state) throws SQLException;
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.storage;
+
+/**
+ * 用户表中的一行。
+ *
+ * @param id         用户的QQ号
+ * @param permission 权限等级
+ * @param smfCoin    海绵山币数量
+ * @param starCoin   星币数量
+ * @param sign       最后一次签到的日期
+ * @param premium    是否为Premium会员，是为 {@code 1}
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+public record UserRecord(long id, int permission, int smfCoin, int starCoin, String sign, int premium) {
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.storage;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongToIntFunction;
+
+/**
+ * 用户数据的仓库。
+ *
+ * <p>余额的修改均为单条语句完成的原子操作，并返回修改后的余额，调用方不应根据自己读到的余额计算新值后写回。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @see top.spco.user.BotUsers
+ * @since 4.0.0
+ */
+public interface UserRepository {
+    /**
+     * 新用户的签到日期
+     */
+    String NEVER_SIGNED = "从未签到过";
+
+    /**
+     * @param id 用户的QQ号
+     * @return 用户数据，用户不存在时返回 {@code null}
+     */
+    UserRecord find(long id) throws SQLException;
+
+    boolean exists(long id) throws SQLException;
+
+    /**
+     * 创建一个用户，其余属性取默认值。
+     *
+     * @param id         用户的QQ号
+     * @param permission 权限等级
+     */
+    void insert(long id, int permission) throws SQLException;
+
+    void setPermission(long id, int permission) throws SQLException;
+
+    /**
+     * @return 用户最后一次签到的日期，用户不存在时返回 {@code null}
+     */
+    String getSignDate(long id) throws SQLException;
+
+    /**
+     * 若用户在指定日期尚未签到，则记录签到、增加海绵山币并记入签到历史。
+     *
+     * <p>签到日期和奖励在同一条语句中写入，同一用户的并发签到只有一次会成功。
+     * 签到历史和当天的签到人数与之在同一个事务中写入，不会出现签到成功而历史缺失的情况。
+     * 写入可能被延迟并与其他签到合并提交。
+     *
+     * @param id     用户的QQ号
+     * @param date   签到日期
+     * @param day    签到日期的 {@link java.time.LocalDate#toEpochDay()}
+     * @param reward 奖励的海绵山币数量
+     * @return 在签到写入后完成的 {@link CompletableFuture}，已签到或用户不存在时其值为 {@code null}
+     * @see SignHistoryRepository#record(long, int)
+     */
+    CompletableFuture<SignResult> sign(long id, String date, int day, int reward);
+
+    /**
+     * 增加用户的余额。
+     *
+     * @param id     用户的QQ号
+     * @param type   货币种类
+     * @param amount 增加的数量，必须为正数
+     * @return 增加后的余额，用户不存在时返回 {@code null}
+     * @throws IllegalArgumentException 数量不为正数时抛出
+     */
+    Integer credit(long id, CoinType type, int amount) throws SQLException;
+
+    /**
+     * 在余额足够时扣除用户的余额。
+     *
+     * @param id     用户的QQ号
+     * @param type   货币种类
+     * @param amount 扣除的数量，必须为正数
+     * @return 扣除后的余额，余额不足或用户不存在时返回 {@code null}，此时余额不变
+     * @throws IllegalArgumentException 数量不为正数时抛出
+     */
+    Integer debit(long id, CoinType type, int amount) throws SQLException;
+
+    /**
+     * @param date 日期
+     * @return 在指定日期尚未签到的Premium会员
+     */
+    List<Long> findUnsignedPremium(String date) throws SQLException;
+
+    /**
+     * 为所有在指定日期尚未签到的Premium会员签到，并为每个签到的用户写入一条自动签到记录。
+     *
+     * <p>所有用户的签到和记录在同一个事务中完成。
+     *
+     * @param date    签到日期
+     * @param rewards 根据QQ号计算奖励的函数
+     * @return 本次签到的用户及其奖励
+     */
+    List<AutoSignRecord> signAllPremium(String date, LongToIntFunction rewards) throws SQLException;
+
+    /**
+     * @param date 签到日期
+     * @return 指定日期的自动签到记录
+     */
+    List<AutoSignRecord> findAutoSignRecords(String date) throws SQLException;
+
+    /**
+     * 按余额从多到少的顺序列出用户。余额相同时QQ号较大的用户在前。
+     *
+     * @param type   货币种类
+     * @param offset 跳过的用户数
+     * @param limit  最多列出的用户数
+     * @return 用户及其余额
+     */
+    List<BalanceEntry> findTopBalances(CoinType type, int offset, int limit) throws SQLException;
+
+    /**
+     * 统计按 {@link #findTopBalances(CoinType, int, int)} 的顺序排在指定用户之前的用户数。
+     *
+     * @param type    货币种类
+     * @param id      用户的QQ号
+     * @param balance 用户的余额
+     * @return 排在该用户之前的用户数
+     */
+    long countAhead(CoinType type, long id, int balance) throws SQLException;
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.storage;
+
+import java.sql.SQLException;
+
+/**
+ * 瓦罗兰特登录信息的仓库。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @see top.spco.service.command.commands.valorant.ValorantCommand
+ * @since 4.0.0
+ */
+public interface ValorantRepository {
+    /**
+     * @param id 用户的QQ号
+     * @return 用户的登录信息，没有记录时返回 {@code null}
+     */
+    ValorantCredential find(long id) throws SQLException;
+
+    /**
+     * 保存登录信息，已有记录时覆盖。
+     */
+    void save(ValorantCredential credential) throws SQLException;
+}
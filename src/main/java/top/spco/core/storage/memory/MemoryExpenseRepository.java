@@ -0,0 +1,76 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.storage.memory;
+
+import top.spco.core.storage.ExpenseRecord;
+import top.spco.core.storage.ExpenseRepository;
+import top.spco.util.LongObjectHashMap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link ExpenseRepository} 的内存实现。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+class MemoryExpenseRepository implements ExpenseRepository {
+    private final ReentrantLock lock;
+    private final LongObjectHashMap<List<ExpenseRecord>> byUser = new LongObjectHashMap<>();
+
+    MemoryExpenseRepository(ReentrantLock lock) {
+        this.lock = lock;
+    }
+
+    @Override
+    public void insert(ExpenseRecord expense) {
+        lock.lock();
+        try {
+            List<ExpenseRecord> list = byUser.get(expense.user());
+            if (list == null) {
+                list = new ArrayList<>();
+                byUser.put(expense.user(), list);
+            }
+            list.add(expense);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<ExpenseRecord> findByUser(long user) {
+        lock.lock();
+        try {
+            List<ExpenseRecord> list = byUser.get(user);
+            if (list == null) {
+                return new ArrayList<>();
+            }
+            List<ExpenseRecord> result = new ArrayList<>(list);
+            result.sort(Comparator.comparingLong(ExpenseRecord::time));
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void clear() {
+        byUser.clear();
+    }
+}
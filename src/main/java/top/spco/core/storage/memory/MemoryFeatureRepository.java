@@ -0,0 +1,158 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.storage.memory;
+
+import top.spco.core.storage.FeatureRecord;
+import top.spco.core.storage.FeatureRepository;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link FeatureRepository} 的内存实现。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+class MemoryFeatureRepository implements FeatureRepository {
+    private final ReentrantLock lock;
+    private final Map<String, FeatureRecord> records = new HashMap<>();
+
+    MemoryFeatureRepository(ReentrantLock lock) {
+        this.lock = lock;
+    }
+
+    @Override
+    public FeatureRecord find(String id) {
+        lock.lock();
+        try {
+            FeatureRecord record = records.get(id);
+            // 返回副本，调用方修改集合不会影响存储的数据
+            return record == null ? null : new FeatureRecord(id, record.disabled(), new HashSet<>(record.unavailable()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<FeatureRecord> findAll() {
+        lock.lock();
+        try {
+            List<FeatureRecord> result = new ArrayList<>(records.size());
+            for (FeatureRecord record : records.values()) {
+                result.add(new FeatureRecord(record.id(), record.disabled(), new HashSet<>(record.unavailable())));
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean exists(String id) {
+        lock.lock();
+        try {
+            return records.containsKey(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void insert(String id, boolean disabled, Set<Long> unavailable) throws SQLException {
+        lock.lock();
+        try {
+            if (records.containsKey(id)) {
+                throw new SQLException("UNIQUE constraint failed: feature.id");
+            }
+            records.put(id, new FeatureRecord(id, disabled, copyOf(unavailable)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void setDisabled(String id, boolean disabled) {
+        lock.lock();
+        try {
+            records.computeIfPresent(id, (key, record) -> new FeatureRecord(id, disabled, record.unavailable()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void setUnavailable(String id, Set<Long> unavailable) {
+        lock.lock();
+        try {
+            records.computeIfPresent(id, (key, record) -> new FeatureRecord(id, record.disabled(), copyOf(unavailable)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isUnavailable(String id, long target) {
+        lock.lock();
+        try {
+            FeatureRecord record = records.get(id);
+            return record != null && record.unavailable().contains(target);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void addUnavailable(String id, long target) {
+        lock.lock();
+        try {
+            FeatureRecord record = records.get(id);
+            if (record != null) {
+                record.unavailable().add(target);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void removeUnavailable(String id, long target) {
+        lock.lock();
+        try {
+            FeatureRecord record = records.get(id);
+            if (record != null) {
+                record.unavailable().remove(target);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void clear() {
+        records.clear();
+    }
+
+    private static Set<Long> copyOf(Set<Long> set) {
+        return set == null ? new HashSet<>() : new HashSet<>(set);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.storage.memory;
+
+import top.spco.core.storage.McSRepository;
+import top.spco.util.LongObjectHashMap;
+import top.spco.util.tuple.ImmutablePair;
+import top.spco.util.tuple.Pair;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link McSRepository} 的内存实现。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+class MemoryMcSRepository implements McSRepository {
+    private final ReentrantLock lock;
+    private final LongObjectHashMap<Pair<String, Integer>> servers = new LongObjectHashMap<>();
+
+    MemoryMcSRepository(ReentrantLock lock) {
+        this.lock = lock;
+    }
+
+    @Override
+    public void bind(long groupId, String host, int port) throws SQLException {
+        lock.lock();
+        try {
+            if (servers.containsKey(groupId)) {
+                throw new SQLException("UNIQUE constraint failed: mcs.group_id");
+            }
+            servers.put(groupId, new ImmutablePair<>(host, port));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int unbind(long groupId) {
+        lock.lock();
+        try {
+            return servers.remove(groupId) == null ? 0 : 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Pair<String, Integer> find(long groupId) {
+        lock.lock();
+        try {
+            return servers.get(groupId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isBound(long groupId) {
+        lock.lock();
+        try {
+            return servers.containsKey(groupId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Long> getBoundGroups() {
+        lock.lock();
+        try {
+            List<Long> groups = new ArrayList<>(servers.size());
+            servers.forEach((groupId, server) -> groups.add(groupId));
+            return groups;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void clear() {
+        servers.clear();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.storage.memory;
+
+import top.spco.core.storage.SignDays;
+import top.spco.core.storage.SignHistoryRepository;
+import top.spco.util.LongObjectHashMap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link SignHistoryRepository} 的内存实现。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+class MemorySignHistoryRepository implements SignHistoryRepository {
+    private final ReentrantLock lock;
+    private final LongObjectHashMap<SignDays> byUser = new LongObjectHashMap<>();
+    private final Map<Integer, Integer> dailyCounts = new HashMap<>();
+
+    MemorySignHistoryRepository(ReentrantLock lock) {
+        this.lock = lock;
+    }
+
+    @Override
+    public SignDays find(long user) {
+        lock.lock();
+        try {
+            SignDays days = byUser.get(user);
+            return days == null ? SignDays.EMPTY : days;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public SignDays record(long user, int day) {
+        lock.lock();
+        try {
+            return add(user, day);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void recordAll(int day, long[] users) {
+        lock.lock();
+        try {
+            for (long user : users) {
+                add(user, day);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private SignDays add(long user, int day) {
+        SignDays before = byUser.get(user);
+        if (before == null) {
+            before = SignDays.EMPTY;
+        }
+        SignDays after = before.with(day);
+        if (after != before) {
+            byUser.put(user, after);
+            dailyCounts.merge(day, 1, Integer::sum);
+        }
+        return after;
+    }
+
+    @Override
+    public int countOn(int day) {
+        lock.lock();
+        try {
+            return dailyCounts.getOrDefault(day, 0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int countBetween(int from, int to) {
+        lock.lock();
+        try {
+            int total = 0;
+            for (int day = from; day <= to; day++) {
+                total += dailyCounts.getOrDefault(day, 0);
+            }
+            return total;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void clear() {
+        byUser.clear();
+        dailyCounts.clear();
+    }
+}
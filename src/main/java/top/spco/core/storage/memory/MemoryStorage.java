@@ -0,0 +1,109 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.storage.memory;
+
+import top.spco.core.storage.*;
+
+import java.sql.SQLException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 将数据保存在内存中的存储后端。
+ *
+ * <p>以QQ号为键的数据存放在 {@link top.spco.util.LongObjectHashMap} 中，读写时不会装箱。
+ * 所有仓库共用一把可重入锁，事务即为在持有这把锁的情况下执行操作，因此事务之间是串行的。
+ * 与 SQLite 实现不同，事务中途抛出异常时已做的修改<b>不会</b>被撤销。
+ *
+ * <p>数据在关闭后即丢失，此实现仅供测试和压力测试使用，以便在没有磁盘读写的情况下衡量存储层以外的开销。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+public class MemoryStorage implements Storage {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final MemorySignHistoryRepository signHistory = new MemorySignHistoryRepository(lock);
+    private final MemoryUserRepository users = new MemoryUserRepository(lock, signHistory);
+    private final MemoryFeatureRepository features = new MemoryFeatureRepository(lock);
+    private final MemoryTradeRepository trades = new MemoryTradeRepository(lock);
+    private final MemoryExpenseRepository expenses = new MemoryExpenseRepository(lock);
+    private final MemoryMcSRepository mcs = new MemoryMcSRepository(lock);
+    private final MemoryValorantRepository valorant = new MemoryValorantRepository(lock);
+
+    @Override
+    public UserRepository users() {
+        return users;
+    }
+
+    @Override
+    public FeatureRepository features() {
+        return features;
+    }
+
+    @Override
+    public TradeRepository trades() {
+        return trades;
+    }
+
+    @Override
+    public ExpenseRepository expenses() {
+        return expenses;
+    }
+
+    @Override
+    public McSRepository mcs() {
+        return mcs;
+    }
+
+    @Override
+    public ValorantRepository valorant() {
+        return valorant;
+    }
+
+    @Override
+    public SignHistoryRepository signHistory() {
+        return signHistory;
+    }
+
+    @Override
+    public <T> T transaction(StorageCallback<T> callback) throws SQLException {
+        lock.lock();
+        try {
+            return callback.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 清空所有数据。
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            users.clear();
+            features.clear();
+            trades.clear();
+            expenses.clear();
+            mcs.clear();
+            valorant.clear();
+            signHistory.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.storage.memory;
+
+import top.spco.core.storage.TradeRepository;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link TradeRepository} 的内存实现。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+class MemoryTradeRepository implements TradeRepository {
+    private final ReentrantLock lock;
+    private final Map<String, Trade> trades = new HashMap<>();
+
+    MemoryTradeRepository(ReentrantLock lock) {
+        this.lock = lock;
+    }
+
+    @Override
+    public void insert(String id, long user, String date, long time, int amount) throws SQLException {
+        lock.lock();
+        try {
+            if (trades.containsKey(id)) {
+                throw new SQLException("UNIQUE constraint failed: trade.id");
+            }
+            trades.put(id, new Trade(user, "unpaid"));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String getState(String id) {
+        lock.lock();
+        try {
+            Trade trade = trades.get(id);
+            return trade == null ? null : trade.state;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Long getUser(String id) {
+        lock.lock();
+        try {
+            Trade trade = trades.get(id);
+            return trade == null ? null : trade.user;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void setState(String id, String state) {
+        lock.lock();
+        try {
+            Trade trade = trades.get(id);
+            if (trade != null) {
+                trade.state = state;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void clear() {
+        trades.clear();
+    }
+
+    private static class Trade {
+        final long user;
+        String state;
+
+        Trade(long user, String state) {
+            this.user = user;
+            this.state = state;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.storage.memory;
+
+import top.spco.core.storage.AutoSignRecord;
+import top.spco.core.storage.BalanceEntry;
+import top.spco.core.storage.CoinType;
+import top.spco.core.storage.SignResult;
+import top.spco.core.storage.UserRecord;
+import top.spco.core.storage.UserRepository;
+import top.spco.util.LongObjectHashMap;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongToIntFunction;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link UserRepository} 的内存实现。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+class MemoryUserRepository implements UserRepository {
+    private final ReentrantLock lock;
+    private final MemorySignHistoryRepository signHistory;
+    private final LongObjectHashMap<Row> rows = new LongObjectHashMap<>(1024);
+    private final List<AutoSignRecord> autoSignRecords = new ArrayList<>();
+
+    MemoryUserRepository(ReentrantLock lock, MemorySignHistoryRepository signHistory) {
+        this.lock = lock;
+        this.signHistory = signHistory;
+    }
+
+    @Override
+    public UserRecord find(long id) {
+        lock.lock();
+        try {
+            Row row = rows.get(id);
+            return row == null ? null : new UserRecord(id, row.permission, row.smfCoin, row.starCoin, row.sign, row.premium);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean exists(long id) {
+        lock.lock();
+        try {
+            return rows.containsKey(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void insert(long id, int permission) throws SQLException {
+        lock.lock();
+        try {
+            if (rows.containsKey(id)) {
+                throw new SQLException("UNIQUE constraint failed: user.id");
+            }
+            Row row = new Row();
+            row.permission = permission;
+            rows.put(id, row);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void setPermission(long id, int permission) {
+        lock.lock();
+        try {
+            Row row = rows.get(id);
+            if (row != null) {
+                row.permission = permission;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String getSignDate(long id) {
+        lock.lock();
+        try {
+            Row row = rows.get(id);
+            return row == null ? null : row.sign;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public CompletableFuture<SignResult> sign(long id, String date, int day, int reward) {
+        lock.lock();
+        try {
+            Row row = rows.get(id);
+            if (row == null || row.sign.equals(date)) {
+                return CompletableFuture.completedFuture(null);
+            }
+            row.sign = date;
+            row.smfCoin += reward;
+            // 与签到历史共用同一把锁，两者的修改对其他线程同时可见
+            return CompletableFuture.completedFuture(new SignResult(row.smfCoin, signHistory.record(id, day)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Integer credit(long id, CoinType type, int amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Amount must be positive.");
+        }
+        lock.lock();
+        try {
+            Row row = rows.get(id);
+            if (row == null) {
+                return null;
+            }
+            return row.add(type, amount);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Integer debit(long id, CoinType type, int amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Amount must be positive.");
+        }
+        lock.lock();
+        try {
+            Row row = rows.get(id);
+            if (row == null || row.balance(type) < amount) {
+                return null;
+            }
+            return row.add(type, -amount);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Long> findUnsignedPremium(String date) {
+        List<Long> result = new ArrayList<>();
+        lock.lock();
+        try {
+            rows.forEach((id, row) -> {
+                if (row.premium == 1 && !row.sign.equals(date)) {
+                    result.add(id);
+                }
+            });
+        } finally {
+            lock.unlock();
+        }
+        return result;
+    }
+
+    @Override
+    public List<AutoSignRecord> signAllPremium(String date, LongToIntFunction rewards) {
+        List<AutoSignRecord> records = new ArrayList<>();
+        lock.lock();
+        try {
+            rows.forEach((id, row) -> {
+                if (row.premium == 1 && !row.sign.equals(date)) {
+                    int reward = rewards.applyAsInt(id);
+                    row.sign = date;
+                    row.smfCoin += reward;
+                    records.add(new AutoSignRecord(date, id, reward));
+                }
+            });
+            autoSignRecords.addAll(records);
+        } finally {
+            lock.unlock();
+        }
+        return records;
+    }
+
+    @Override
+    public List<AutoSignRecord> findAutoSignRecords(String date) {
+        List<AutoSignRecord> result = new ArrayList<>();
+        lock.lock();
+        try {
+            for (AutoSignRecord record : autoSignRecords) {
+                if (record.date().equals(date)) {
+                    result.add(record);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return result;
+    }
+
+    @Override
+    public List<BalanceEntry> findTopBalances(CoinType type, int offset, int limit) {
+        List<BalanceEntry> entries = new ArrayList<>();
+        lock.lock();
+        try {
+            rows.forEach((id, row) -> entries.add(new BalanceEntry(id, row.balance(type))));
+        } finally {
+            lock.unlock();
+        }
+        entries.sort(Comparator.comparingInt(BalanceEntry::balance).thenComparingLong(BalanceEntry::id).reversed());
+        if (offset >= entries.size()) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(entries.subList(offset, Math.min(entries.size(), offset + limit)));
+    }
+
+    @Override
+    public long countAhead(CoinType type, long id, int balance) {
+        long[] count = {0};
+        lock.lock();
+        try {
+            rows.forEach((otherId, row) -> {
+                int other = row.balance(type);
+                if (other > balance || (other == balance && otherId > id)) {
+                    count[0]++;
+                }
+            });
+        } finally {
+            lock.unlock();
+        }
+        return count[0];
+    }
+
+    void clear() {
+        rows.clear();
+        autoSignRecords.clear();
+    }
+
+    /**
+     * 用户表中的一行，字段的初始值与表的默认值相同。
+     */
+    private static class Row {
+        int permission = 1;
+        int smfCoin = 0;
+        int starCoin = 0;
+        String sign = NEVER_SIGNED;
+        int premium = 0;
+
+        int balance(CoinType type) {
+            return type == CoinType.SMF_COIN ? smfCoin : starCoin;
+        }
+
+        int add(CoinType type, int amount) {
+            if (type == CoinType.SMF_COIN) {
+                return smfCoin += amount;
+            }
+            return starCoin += amount;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.storage.memory;
+
+import top.spco.core.storage.ValorantCredential;
+import top.spco.core.storage.ValorantRepository;
+import top.spco.util.LongObjectHashMap;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link ValorantRepository} 的内存实现。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+class MemoryValorantRepository implements ValorantRepository {
+    private final ReentrantLock lock;
+    private final LongObjectHashMap<ValorantCredential> credentials = new LongObjectHashMap<>();
+
+    MemoryValorantRepository(ReentrantLock lock) {
+        this.lock = lock;
+    }
+
+    @Override
+    public ValorantCredential find(long id) {
+        lock.lock();
+        try {
+            return credentials.get(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void save(ValorantCredential credential) {
+        lock.lock();
+        try {
+            credentials.put(credential.id(), credential);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void clear() {
+        credentials.clear();
+    }
+}
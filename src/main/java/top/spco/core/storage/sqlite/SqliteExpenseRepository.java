@@ -0,0 +1,51 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.storage.sqlite;
+
+import top.spco.core.database.DataBase;
+import top.spco.core.storage.ExpenseRecord;
+import top.spco.core.storage.ExpenseRepository;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * {@link ExpenseRepository} 的 SQLite 实现。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+class SqliteExpenseRepository implements ExpenseRepository {
+    private final DataBase dataBase;
+
+    SqliteExpenseRepository(DataBase dataBase) {
+        this.dataBase = dataBase;
+    }
+
+    @Override
+    public void insert(ExpenseRecord expense) throws SQLException {
+        dataBase.update("INSERT INTO expenses(user, date, time, amount, balance, desc) VALUES (?, ?, ?, ?, ?, ?)",
+                expense.user(), expense.date(), expense.time(), expense.amount(), expense.balance(), expense.desc());
+    }
+
+    @Override
+    public List<ExpenseRecord> findByUser(long user) throws SQLException {
+        String sql = "SELECT date, time, amount, balance, desc FROM expenses WHERE user = ? ORDER BY time";
+        return dataBase.query(sql, rs -> new ExpenseRecord(user,
+                rs.getString(1), rs.getLong(2), rs.getInt(3), rs.getInt(4), rs.getString(5)), user);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.storage.sqlite;
+
+import top.spco.core.database.DataBase;
+import top.spco.core.storage.FeatureRecord;
+import top.spco.core.storage.FeatureRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link FeatureRepository} 的 SQLite 实现。
+ *
+ * <p>功能的开关保存在 {@code feature} 表中，功能不可用的对象保存在 {@code feature_unavailable} 表中，
+ * 该表在 (feature, target) 上有唯一索引，单个对象的查询和增删都是索引上的点操作。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+class SqliteFeatureRepository implements FeatureRepository {
+    private static final String INSERT_TARGET_SQL = "INSERT OR IGNORE INTO feature_unavailable (feature, target) VALUES (?, ?)";
+    private final DataBase dataBase;
+
+    SqliteFeatureRepository(DataBase dataBase) {
+        this.dataBase = dataBase;
+    }
+
+    @Override
+    public FeatureRecord find(String id) throws SQLException {
+        Boolean disabled = dataBase.queryFirst("SELECT disable FROM feature WHERE id = ?", rs -> rs.getInt(1) == 1, id);
+        if (disabled == null) {
+            return null;
+        }
+        Set<Long> unavailable = new HashSet<>(dataBase.query("SELECT target FROM feature_unavailable WHERE feature = ?", rs -> rs.getLong(1), id));
+        return new FeatureRecord(id, disabled, unavailable);
+    }
+
+    @Override
+    public List<FeatureRecord> findAll() throws SQLException {
+        Map<String, Set<Long>> unavailable = new HashMap<>();
+        dataBase.forEach("SELECT feature, target FROM feature_unavailable",
+                rs -> unavailable.computeIfAbsent(rs.getString(1), key -> new HashSet<>()).add(rs.getLong(2)));
+        List<FeatureRecord> result = new ArrayList<>();
+        dataBase.forEach("SELECT id, disable FROM feature", rs -> {
+            String id = rs.getString(1);
+            result.add(new FeatureRecord(id, rs.getInt(2) == 1, unavailable.getOrDefault(id, new HashSet<>())));
+        });
+        return result;
+    }
+
+    @Override
+    public boolean exists(String id) throws SQLException {
+        return dataBase.exists("SELECT 1 FROM feature WHERE id = ?", id);
+    }
+
+    @Override
+    public void insert(String id, boolean disabled, Set<Long> unavailable) throws SQLException {
+        dataBase.transaction(conn -> {
+            dataBase.update("INSERT INTO feature (id, disable) VALUES (?, ?)", id, disabled ? 1 : 0);
+            insertTargets(id, unavailable);
+            return null;
+        });
+    }
+
+    @Override
+    public void setDisabled(String id, boolean disabled) throws SQLException {
+        dataBase.update("UPDATE feature SET disable = ? WHERE id = ?", disabled ? 1 : 0, id);
+    }
+
+    @Override
+    public void setUnavailable(String id, Set<Long> unavailable) throws SQLException {
+        dataBase.transaction(conn -> {
+            dataBase.update("DELETE FROM feature_unavailable WHERE feature = ?", id);
+            insertTargets(id, unavailable);
+            return null;
+        });
+    }
+
+    private void insertTargets(String id, Set<Long> targets) throws SQLException {
+        if (targets == null || targets.isEmpty()) {
+            return;
+        }
+        dataBase.write(conn -> {
+            PreparedStatement pstmt = dataBase.prepare(conn, INSERT_TARGET_SQL);
+            for (long target : targets) {
+                pstmt.setString(1, id);
+                pstmt.setLong(2, target);
+                pstmt.addBatch();
+            }
+            return pstmt.executeBatch();
+        });
+    }
+
+    @Override
+    public boolean isUnavailable(String id, long target) throws SQLException {
+        return dataBase.exists("SELECT 1 FROM feature_unavailable WHERE feature = ? AND target = ?", id, target);
+    }
+
+    @Override
+    public void addUnavailable(String id, long target) throws SQLException {
+        dataBase.update(INSERT_TARGET_SQL, id, target);
+    }
+
+    @Override
+    public void removeUnavailable(String id, long target) throws SQLException {
+        dataBase.update("DELETE FROM feature_unavailable WHERE feature = ? AND target = ?", id, target);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.storage.sqlite;
+
+import top.spco.core.database.DataBase;
+import top.spco.core.storage.McSRepository;
+import top.spco.util.tuple.ImmutablePair;
+import top.spco.util.tuple.Pair;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * {@link McSRepository} 的 SQLite 实现。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+class SqliteMcSRepository implements McSRepository {
+    private final DataBase dataBase;
+
+    SqliteMcSRepository(DataBase dataBase) {
+        this.dataBase = dataBase;
+    }
+
+    @Override
+    public void bind(long groupId, String host, int port) throws SQLException {
+        dataBase.update("INSERT INTO mcs(group_id, host, port) VALUES (?, ?, ?)", groupId, host, port);
+    }
+
+    @Override
+    public int unbind(long groupId) throws SQLException {
+        return dataBase.update("DELETE FROM mcs WHERE group_id = ?", groupId);
+    }
+
+    @Override
+    public Pair<String, Integer> find(long groupId) throws SQLException {
+        return dataBase.queryFirst("SELECT host, port FROM mcs WHERE group_id = ?",
+                rs -> new ImmutablePair<>(rs.getString(1), rs.getInt(2)), groupId);
+    }
+
+    @Override
+    public boolean isBound(long groupId) throws SQLException {
+        return dataBase.exists("SELECT 1 FROM mcs WHERE group_id = ?", groupId);
+    }
+
+    @Override
+    public List<Long> getBoundGroups() throws SQLException {
+        return dataBase.query("SELECT group_id FROM mcs", rs -> rs.getLong(1));
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.storage.sqlite;
+
+import top.spco.core.database.DataBase;
+import top.spco.core.storage.SignDays;
+import top.spco.core.storage.SignHistoryRepository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * {@link SignHistoryRepository} 的 SQLite 实现。
+ *
+ * <p>签到历史以 BLOB 保存在 {@code sign_history} 表中，每天的签到人数保存在 {@code sign_daily} 表中。
+ * 记录签到需要读出、修改并写回 BLOB，这些步骤和人数的更新在同一个事务中完成。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+class SqliteSignHistoryRepository implements SignHistoryRepository {
+    private static final String SELECT_SQL = "SELECT days FROM sign_history WHERE user = ?";
+    private static final String UPSERT_SQL = "INSERT INTO sign_history(user, days) VALUES (?, ?) ON CONFLICT(user) DO UPDATE SET days = excluded.days";
+    private static final String COUNT_SQL = "INSERT INTO sign_daily(day, count) VALUES (?, ?) ON CONFLICT(day) DO UPDATE SET count = count + excluded.count";
+    private final DataBase dataBase;
+
+    SqliteSignHistoryRepository(DataBase dataBase) {
+        this.dataBase = dataBase;
+    }
+
+    @Override
+    public SignDays find(long user) throws SQLException {
+        SignDays days = dataBase.queryFirst(SELECT_SQL, rs -> SignDays.fromBytes(rs.getBytes(1)), user);
+        return days == null ? SignDays.EMPTY : days;
+    }
+
+    @Override
+    public SignDays record(long user, int day) throws SQLException {
+        return dataBase.transaction(conn -> record(conn, user, day));
+    }
+
+    /**
+     * 在调用方的事务中记录用户在指定日期签到。
+     *
+     * @param conn 处于事务中的写连接
+     * @param user 用户的QQ号
+     * @param day  签到日期
+     * @return 记录后的签到历史
+     * @see SqliteUserRepository#sign(long, String, int, int)
+     */
+    SignDays record(Connection conn, long user, int day) throws SQLException {
+        SignDays before = load(conn, user);
+        SignDays after = before.with(day);
+        if (after != before) {
+            save(conn, user, after);
+            increment(conn, day, 1);
+        }
+        return after;
+    }
+
+    @Override
+    public void recordAll(int day, long[] users) throws SQLException {
+        if (users.length == 0) {
+            return;
+        }
+        dataBase.transaction(conn -> {
+            PreparedStatement upsert = dataBase.prepare(conn, UPSERT_SQL);
+            int added = 0;
+            for (long user : users) {
+                SignDays before = load(conn, user);
+                SignDays after = before.with(day);
+                if (after != before) {
+                    upsert.setLong(1, user);
+                    upsert.setBytes(2, after.toBytes());
+                    upsert.addBatch();
+                    added++;
+                }
+            }
+            if (added > 0) {
+                upsert.executeBatch();
+                increment(conn, day, added);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public int countOn(int day) throws SQLException {
+        return dataBase.queryInt("SELECT count FROM sign_daily WHERE day = ?", 0, day);
+    }
+
+    @Override
+    public int countBetween(int from, int to) throws SQLException {
+        return dataBase.queryInt("SELECT COALESCE(SUM(count), 0) FROM sign_daily WHERE day BETWEEN ? AND ?", 0, from, to);
+    }
+
+    private SignDays load(Connection conn, long user) throws SQLException {
+        PreparedStatement select = dataBase.prepare(conn, SELECT_SQL);
+        select.setLong(1, user);
+        try (ResultSet rs = select.executeQuery()) {
+            return rs.next() ? SignDays.fromBytes(rs.getBytes(1)) : SignDays.EMPTY;
+        }
+    }
+
+    private void save(Connection conn, long user, SignDays days) throws SQLException {
+        PreparedStatement upsert = dataBase.prepare(conn, UPSERT_SQL);
+        upsert.setLong(1, user);
+        upsert.setBytes(2, days.toBytes());
+        upsert.executeUpdate();
+    }
+
+    private void increment(Connection conn, int day, int count) throws SQLException {
+        PreparedStatement pstmt = dataBase.prepare(conn, COUNT_SQL);
+        pstmt.setInt(1, day);
+        pstmt.setInt(2, count);
+        pstmt.executeUpdate();
+    }
+}
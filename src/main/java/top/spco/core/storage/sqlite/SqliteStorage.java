@@ -0,0 +1,103 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.storage.sqlite;
+
+import top.spco.core.database.DataBase;
+import top.spco.core.storage.*;
+
+import java.sql.SQLException;
+
+/**
+ * 基于 SQLite 的存储后端，是机器人默认使用的实现。
+ *
+ * <p>各仓库通过 {@link DataBase} 读写数据，因此共享其连接池、语句缓存和写后队列。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+public class SqliteStorage implements Storage {
+    private final DataBase dataBase;
+    private final UserRepository users;
+    private final FeatureRepository features;
+    private final TradeRepository trades;
+    private final ExpenseRepository expenses;
+    private final McSRepository mcs;
+    private final ValorantRepository valorant;
+    private final SignHistoryRepository signHistory;
+
+    /**
+     * @param dataBase 已完成迁移的数据库
+     */
+    public SqliteStorage(DataBase dataBase) {
+        this.dataBase = dataBase;
+        SqliteSignHistoryRepository signHistory = new SqliteSignHistoryRepository(dataBase);
+        this.users = new SqliteUserRepository(dataBase, signHistory);
+        this.features = new SqliteFeatureRepository(dataBase);
+        this.trades = new SqliteTradeRepository(dataBase);
+        this.expenses = new SqliteExpenseRepository(dataBase);
+        this.mcs = new SqliteMcSRepository(dataBase);
+        this.valorant = new SqliteValorantRepository(dataBase);
+        this.signHistory = signHistory;
+    }
+
+    @Override
+    public UserRepository users() {
+        return users;
+    }
+
+    @Override
+    public FeatureRepository features() {
+        return features;
+    }
+
+    @Override
+    public TradeRepository trades() {
+        return trades;
+    }
+
+    @Override
+    public ExpenseRepository expenses() {
+        return expenses;
+    }
+
+    @Override
+    public McSRepository mcs() {
+        return mcs;
+    }
+
+    @Override
+    public ValorantRepository valorant() {
+        return valorant;
+    }
+
+    @Override
+    public SignHistoryRepository signHistory() {
+        return signHistory;
+    }
+
+    @Override
+    public <T> T transaction(StorageCallback<T> callback) throws SQLException {
+        return dataBase.transaction(conn -> callback.run());
+    }
+
+    /**
+     * 数据库由 {@link top.spco.SpCoBot} 统一关闭，此处不做任何事。
+     */
+    @Override
+    public void close() {
+    }
+}
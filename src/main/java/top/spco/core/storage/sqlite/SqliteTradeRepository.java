@@ -0,0 +1,56 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.storage.sqlite;
+
+import top.spco.core.database.DataBase;
+import top.spco.core.storage.TradeRepository;
+
+import java.sql.SQLException;
+
+/**
+ * {@link TradeRepository} 的 SQLite 实现。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+class SqliteTradeRepository implements TradeRepository {
+    private final DataBase dataBase;
+
+    SqliteTradeRepository(DataBase dataBase) {
+        this.dataBase = dataBase;
+    }
+
+    @Override
+    public void insert(String id, long user, String date, long time, int amount) throws SQLException {
+        dataBase.update("INSERT INTO trade(id, user, date, time, amount) VALUES (?, ?, ?, ?, ?)", id, user, date, time, amount);
+    }
+
+    @Override
+    public String getState(String id) throws SQLException {
+        return dataBase.selectString("trade", "state", "id", id);
+    }
+
+    @Override
+    public Long getUser(String id) throws SQLException {
+        return dataBase.selectLong("trade", "user", "id", id);
+    }
+
+    @Override
+    public void setState(String id, String state) throws SQLException {
+        dataBase.update("UPDATE trade SET state = ? WHERE id = ?", state, id);
+    }
+}
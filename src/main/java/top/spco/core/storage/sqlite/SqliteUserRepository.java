@@ -0,0 +1,188 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.storage.sqlite;
+
+import top.spco.core.database.DataBase;
+import top.spco.core.storage.AutoSignRecord;
+import top.spco.core.storage.BalanceEntry;
+import top.spco.core.storage.CoinType;
+import top.spco.core.storage.SignResult;
+import top.spco.core.storage.UserRecord;
+import top.spco.core.storage.UserRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.LongToIntFunction;
+
+/**
+ * {@link UserRepository} 的 SQLite 实现。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+class SqliteUserRepository implements UserRepository {
+    private static final String SIGN_SQL = "UPDATE user SET sign = ?, smf_coin = smf_coin + ? WHERE id = ? AND sign != ? RETURNING smf_coin";
+    private final DataBase dataBase;
+    private final SqliteSignHistoryRepository signHistory;
+
+    SqliteUserRepository(DataBase dataBase, SqliteSignHistoryRepository signHistory) {
+        this.dataBase = dataBase;
+        this.signHistory = signHistory;
+    }
+
+    @Override
+    public UserRecord find(long id) throws SQLException {
+        String sql = "SELECT permission, smf_coin, star_coin, sign, premium FROM user WHERE id = ?";
+        return dataBase.queryFirst(sql, rs -> new UserRecord(id,
+                rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getString(4), rs.getInt(5)), id);
+    }
+
+    @Override
+    public boolean exists(long id) throws SQLException {
+        return dataBase.exists("SELECT 1 FROM user WHERE id = ?", id);
+    }
+
+    @Override
+    public void insert(long id, int permission) throws SQLException {
+        dataBase.update("INSERT INTO user(id, permission) VALUES (?, ?)", id, permission);
+    }
+
+    @Override
+    public void setPermission(long id, int permission) throws SQLException {
+        dataBase.update("UPDATE user SET permission = ? WHERE id = ?", permission, id);
+    }
+
+    @Override
+    public String getSignDate(long id) throws SQLException {
+        return dataBase.selectString("user", "sign", "id", id);
+    }
+
+    @Override
+    public CompletableFuture<SignResult> sign(long id, String date, int day, int reward) {
+        return dataBase.writeAsync(conn -> {
+            PreparedStatement pstmt = dataBase.prepare(conn, SIGN_SQL);
+            dataBase.setParameters(pstmt, date, reward, id, date);
+            int smfCoin;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                smfCoin = rs.getInt(1);
+            }
+            return new SignResult(smfCoin, signHistory.record(conn, id, day));
+        });
+    }
+
+    @Override
+    public Integer credit(long id, CoinType type, int amount) throws SQLException {
+        checkAmount(amount);
+        String column = column(type);
+        return dataBase.updateReturning("UPDATE user SET " + column + " = " + column + " + ? WHERE id = ? RETURNING " + column,
+                rs -> rs.getInt(1), amount, id);
+    }
+
+    @Override
+    public Integer debit(long id, CoinType type, int amount) throws SQLException {
+        checkAmount(amount);
+        String column = column(type);
+        // 余额检查与扣除在同一条语句中完成，并发的扣除不会透支
+        return dataBase.updateReturning("UPDATE user SET " + column + " = " + column + " - ? WHERE id = ? AND " + column + " >= ? RETURNING " + column,
+                rs -> rs.getInt(1), amount, id, amount);
+    }
+
+    private static String column(CoinType type) {
+        return switch (type) {
+            case SMF_COIN -> "smf_coin";
+            case STAR_COIN -> "star_coin";
+        };
+    }
+
+    private static void checkAmount(int amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Amount must be positive.");
+        }
+    }
+
+    @Override
+    public List<Long> findUnsignedPremium(String date) throws SQLException {
+        return dataBase.query("SELECT id FROM user WHERE sign != ? AND premium = 1", rs -> rs.getLong(1), date);
+    }
+
+    @Override
+    public List<AutoSignRecord> signAllPremium(String date, LongToIntFunction rewards) throws SQLException {
+        return dataBase.transaction(conn -> {
+            // 在写锁内查询，查询到的用户在事务提交前不会被其他签到修改
+            List<Long> ids = findUnsignedPremium(date);
+            if (ids.isEmpty()) {
+                return new ArrayList<>();
+            }
+            PreparedStatement update = dataBase.prepare(conn, "UPDATE user SET sign = ?, smf_coin = smf_coin + ? WHERE id = ? AND sign != ?");
+            int[] rewardOf = new int[ids.size()];
+            for (int i = 0; i < ids.size(); i++) {
+                long id = ids.get(i);
+                rewardOf[i] = rewards.applyAsInt(id);
+                update.setString(1, date);
+                update.setInt(2, rewardOf[i]);
+                update.setLong(3, id);
+                update.setString(4, date);
+                update.addBatch();
+            }
+            int[] counts = update.executeBatch();
+            List<AutoSignRecord> records = new ArrayList<>(ids.size());
+            PreparedStatement log = dataBase.prepare(conn, "INSERT INTO auto_sign_log(date, user, reward) VALUES (?, ?, ?)");
+            for (int i = 0; i < ids.size(); i++) {
+                if (counts[i] == 0 || counts[i] == Statement.EXECUTE_FAILED) {
+                    continue;
+                }
+                records.add(new AutoSignRecord(date, ids.get(i), rewardOf[i]));
+                log.setString(1, date);
+                log.setLong(2, ids.get(i));
+                log.setInt(3, rewardOf[i]);
+                log.addBatch();
+            }
+            if (!records.isEmpty()) {
+                log.executeBatch();
+            }
+            return records;
+        });
+    }
+
+    @Override
+    public List<AutoSignRecord> findAutoSignRecords(String date) throws SQLException {
+        return dataBase.query("SELECT user, reward FROM auto_sign_log WHERE date = ?", rs -> new AutoSignRecord(date, rs.getLong(1), rs.getInt(2)), date);
+    }
+
+    @Override
+    public List<BalanceEntry> findTopBalances(CoinType type, int offset, int limit) throws SQLException {
+        String column = column(type);
+        // 倒序扫描余额上的索引即可得到此顺序，无需排序
+        return dataBase.query("SELECT id, " + column + " FROM user ORDER BY " + column + " DESC, id DESC LIMIT ? OFFSET ?",
+                rs -> new BalanceEntry(rs.getLong(1), rs.getInt(2)), limit, offset);
+    }
+
+    @Override
+    public long countAhead(CoinType type, long id, int balance) throws SQLException {
+        String column = column(type);
+        return dataBase.queryLong("SELECT (SELECT COUNT(*) FROM user WHERE " + column + " > ?) + (SELECT COUNT(*) FROM user WHERE " + column + " = ? AND id > ?)",
+                0, balance, balance, id);
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.storage.sqlite;
+
+import top.spco.core.database.DataBase;
+import top.spco.core.storage.ValorantCredential;
+import top.spco.core.storage.ValorantRepository;
+
+import java.sql.SQLException;
+
+/**
+ * {@link ValorantRepository} 的 SQLite 实现。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+class SqliteValorantRepository implements ValorantRepository {
+    private final DataBase dataBase;
+
+    SqliteValorantRepository(DataBase dataBase) {
+        this.dataBase = dataBase;
+    }
+
+    @Override
+    public ValorantCredential find(long id) throws SQLException {
+        String sql = "SELECT username, password, access_token, entitlements, uuid, name, tag, create_data, ban_type, region FROM valorant_user WHERE id = ?";
+        return dataBase.queryFirst(sql, rs -> new ValorantCredential(id, rs.getString(1), rs.getString(2), rs.getString(3),
+                rs.getString(4), rs.getString(5), rs.getString(6), rs.getString(7), rs.getString(8), rs.getString(9), rs.getString(10)), id);
+    }
+
+    @Override
+    public void save(ValorantCredential c) throws SQLException {
+        String sql = "INSERT INTO valorant_user (id, username, password, access_token, entitlements, uuid, name, tag, create_data, ban_type, region) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+                "ON CONFLICT(id) DO UPDATE SET username = excluded.username, password = excluded.password, access_token = excluded.access_token, entitlements = excluded.entitlements, " +
+                "uuid = excluded.uuid, name = excluded.name, tag = excluded.tag, create_data = excluded.create_data, ban_type = excluded.ban_type, region = excluded.region";
+        dataBase.update(sql, c.id(), c.username(), c.password(), c.accessToken(), c.entitlements(), c.uuid(),
+                c.name(), c.tag(), c.createData(), c.banType(), c.region());
+    }
+}
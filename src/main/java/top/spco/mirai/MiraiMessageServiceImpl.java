@@ -32,6 +32,7 @@ import top.spco.util.tuple.ImmutablePair;
 
 import java.io.File;
 import java.io.InputStream;
+import java.util.regex.Pattern;
 
 /**
  * @author SpCo
@@ -39,6 +40,8 @@ import java.io.InputStream;
  * @since 0.1.0
  */
 class MiraiMessageServiceImpl implements MessageService {
+    private static final Pattern AT_PATTERN = Pattern.compile("\\[mirai:at:(\\d+)\\]");
+
     @Override
     public Message<?> at(long id) {
         return new MiraiMessage(new MessageChainBuilder().append(new At(id)).build());
@@ -69,7 +72,12 @@ class MiraiMessageServiceImpl implements MessageService {
 
     @Override
     public String getAtRegex() {
-        return "\\[mirai:at:\\d+\\]";
+        return AT_PATTERN.pattern();
+    }
+
+    @Override
+    public Pattern getAtPattern() {
+        return AT_PATTERN;
     }
 
     @Override
@@ -18,18 +18,25 @@ package top.spco.modules;
 import top.spco.SpCoBot;
 import top.spco.api.Friend;
 import top.spco.core.module.AbstractModule;
+import top.spco.core.storage.AutoSignRecord;
+import top.spco.core.storage.CoinType;
 import top.spco.user.BotUsers;
+import top.spco.user.Leaderboard;
 import top.spco.util.TimeUtil;
 
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.util.Objects;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 每日零点自动签到
  *
+ * <p>所有尚未签到的Premium会员在同一个事务中批量签到，每个用户的奖励由 {@link #rewardOf(long, LocalDate)} 确定，
+ * 并记录在 {@code auto_sign_log} 表中以便核对。
+ *
  * @author SpCo
  * @version 2.0.5
  * @since 2.0.0
@@ -59,20 +66,29 @@ public class AutoSign extends AbstractModule {
                     return;
                 }
                 try {
-                    // 创建查询语句
-                    String sql = "SELECT id FROM user WHERE sign != ? AND premium = 1";
-                    try (PreparedStatement pstmt = SpCoBot.getInstance().getDataBase().getConn().prepareStatement(sql)) {
-                        SpCoBot.LOGGER.info("现在开始自动签到");
-                        pstmt.setString(1, TimeUtil.today().toString());
-                        SpCoBot.getInstance().getDataBase().setParameters(pstmt);
-                        try (ResultSet rs = pstmt.executeQuery()) {
-                            while (rs.next()) {
-                                long id = rs.getLong("id");
-                                Objects.requireNonNull(BotUsers.get(id)).sign();
-                                SpCoBot.LOGGER.info("已为用户 {} 自动签到", id);
-                            }
-                        }
+                    SpCoBot.LOGGER.info("现在开始自动签到");
+                    LocalDate today = TimeUtil.today();
+                    long start = System.nanoTime();
+                    List<AutoSignRecord> records = SpCoBot.getInstance().getStorage().users()
+                            .signAllPremium(today.toString(), id -> rewardOf(id, today));
+                    long[] signed = new long[records.size()];
+                    for (int i = 0; i < signed.length; i++) {
+                        signed[i] = records.get(i).user();
+                    }
+                    try {
+                        SpCoBot.getInstance().getStorage().signHistory().recordAll((int) today.toEpochDay(), signed);
+                    } catch (SQLException e) {
+                        // 签到本身已经提交，签到历史缺失不影响签到结果
+                        SpCoBot.LOGGER.warn("记录自动签到的签到历史失败。", e);
+                    }
+                    // 签到绕过了缓存的用户对象，须使其失效
+                    for (AutoSignRecord record : records) {
+                        BotUsers.getCache().invalidate(record.user());
                     }
+                    if (!records.isEmpty()) {
+                        Leaderboard.of(CoinType.SMF_COIN).invalidate();
+                    }
+                    SpCoBot.LOGGER.info("已为 {} 名用户自动签到，耗时 {}ms", records.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
                 } catch (Exception e) {
                     SpCoBot.LOGGER.error(e);
                     Friend<?> friend = SpCoBot.getInstance().getBot().getFriend(SpCoBot.getInstance().botOwnerId);
@@ -81,4 +97,22 @@ public class AutoSign extends AbstractModule {
             }
         }, TimeUtil.calculateMillisecondToMidnight(), 86400000L);
     }
+
+    /**
+     * 计算自动签到的奖励。
+     *
+     * <p>奖励在10到100之间，只取决于QQ号和日期：以二者为种子经过 SplitMix64 混合后对91取模再加10，
+     * 因此任何时候都可以根据签到记录重新计算并核对。
+     *
+     * @param id   用户的QQ号
+     * @param date 签到日期
+     * @return 奖励的海绵山币数量
+     */
+    public static int rewardOf(long id, LocalDate date) {
+        long z = id * 0x9E3779B97F4A7C15L + date.toEpochDay();
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return 10 + (int) Math.floorMod(z, 91L);
+    }
 }
\ No newline at end of file
@@ -24,6 +24,9 @@ import top.spco.api.Bot;
 import top.spco.api.Interactive;
 import top.spco.api.User;
 import top.spco.api.message.Message;
+import top.spco.core.config.CommandSettings;
+import top.spco.core.config.RateLimitSettings;
+import top.spco.core.config.Settings;
 import top.spco.core.feature.DummyFeature;
 import top.spco.core.feature.Feature;
 import top.spco.core.feature.SimpleFeatureManager;
@@ -41,12 +44,17 @@ import top.spco.statistics.GroupStatistics;
 import top.spco.user.BotUser;
 import top.spco.user.BotUsers;
 import top.spco.user.UserFetchException;
+import top.spco.user.UserPermission;
 import top.spco.util.ExceptionUtil;
 import top.spco.util.LoggedTimer;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.lang.reflect.InvocationTargetException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.util.*;
 
@@ -68,12 +76,37 @@ public class CommandDispatcher extends SimpleFeatureManager<Command> {
     public static final char USAGE_TARGET_USER_ID_OPEN = '{';
     public static final char USAGE_TARGET_USER_ID_CLOSE = '}';
     public static final char USAGE_OR = '|';
+    /**
+     * 构建时生成的命令索引
+     */
+    private static final String COMMAND_INDEX = "META-INF/services/top.spco.service.command.Command";
     private static CommandDispatcher instance;
     private static boolean registered = false;
     private boolean frozen = false;
     private final Map<String, Command> friendCommands = new HashMap<>();
     private final Map<String, Command> groupTempCommands = new HashMap<>();
     private final Map<String, Command> groupCommands = new HashMap<>();
+    /**
+     * 各命令的用法编译成的决策树，在注册时构建
+     */
+    private final Map<Command, UsageTree> usageTrees = new HashMap<>();
+    /**
+     * 用法与帮助信息表，在 {@link #freeze()} 时生成
+     */
+    private UsageRegistry usageRegistry;
+    /**
+     * 命令标签的索引，在 {@link #freeze()} 时生成
+     */
+    private volatile LabelIndex labelIndex;
+    /**
+     * 执行命令的执行器，关闭异步执行时为 {@code null}
+     */
+    private CommandExecutor executor;
+    /**
+     * 命令限流器，关闭限流时为 {@code null}
+     */
+    private RateLimiter rateLimiter;
+    private final CommandMetrics metrics = new CommandMetrics();
     private int commandCount;
 
     private CommandDispatcher() {
@@ -81,6 +114,13 @@ public class CommandDispatcher extends SimpleFeatureManager<Command> {
             return;
         }
         registered = true;
+        Settings settings = SpCoBot.getInstance().getSettings();
+        if (settings.getBooleanProperty(CommandSettings.ASYNC_EXECUTION)) {
+            this.executor = new CommandExecutor(settings.getIntegerProperty(CommandSettings.DEFAULT_CONCURRENCY), settings.getIntegerMapProperty(CommandSettings.CONCURRENCY_LIMITS));
+        }
+        if (settings.getBooleanProperty(RateLimitSettings.ENABLED)) {
+            this.rateLimiter = new RateLimiter(settings);
+        }
         LoggedTimer time = new LoggedTimer();
         time.start("初始化命令系统");
         GroupStatistics commandStatisticGroup = new GroupStatistics("命令");
@@ -93,8 +133,68 @@ public class CommandDispatcher extends SimpleFeatureManager<Command> {
     }
 
     private void registerCommands() {
-        Set<Command> toBeRegistered = new HashSet<>();
+        Set<Command> toBeRegistered = loadIndexedCommands();
+        if (toBeRegistered.isEmpty()) {
+            SpCoBot.LOGGER.warn("未找到命令索引，正在扫描插件中的命令类。");
+            toBeRegistered = scanCommands();
+        }
+
+        for (var command : toBeRegistered) {
+            try {
+                register(command);
+            } catch (Exception e) {
+                SpCoBot.LOGGER.error(e);
+            }
+        }
+        freeze();
+        SpCoBot.LOGGER.info("已注册{}个命令。", toBeRegistered.size());
+    }
+
+    /**
+     * 从构建时生成的命令索引 {@code META-INF/services/top.spco.service.command.Command} 中加载命令。
+     *
+     * <p>索引由 Gradle 任务 {@code generateCommandIndex} 根据源码中带有 {@link CommandMarker} 注解的类生成，
+     * 只加载被列出的命令类，不需要扫描插件中的所有类。索引按 {@link java.util.ServiceLoader} 的格式逐行列出类名，
+     * 每个类单独加载，某个类无法加载时只跳过该类。
+     *
+     * @return 索引中的命令，索引不存在或无法读取时为空集合
+     */
+    private Set<Command> loadIndexedCommands() {
+        Set<Command> commands = new HashSet<>();
+        ClassLoader loader = CommandDispatcher.class.getClassLoader();
+        try {
+            Enumeration<URL> indexes = loader.getResources(COMMAND_INDEX);
+            while (indexes.hasMoreElements()) {
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(indexes.nextElement().openStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        String name = line.strip();
+                        if (name.isEmpty() || name.startsWith("#")) {
+                            continue;
+                        }
+                        try {
+                            commands.add((Command) Class.forName(name, true, loader).getDeclaredConstructor().newInstance());
+                        } catch (ReflectiveOperationException | ClassCastException | LinkageError e) {
+                            SpCoBot.LOGGER.error("无法加载命令索引中的命令 {}。", name, e);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            SpCoBot.LOGGER.error("读取命令索引失败。", e);
+        }
+        return commands;
+    }
 
+    /**
+     * 扫描插件中所有带有 {@link CommandMarker} 注解的类并实例化。
+     *
+     * <p>仅在命令索引不存在时（如未经 Gradle 构建直接运行）使用。
+     *
+     * @return 扫描到的命令
+     */
+    private Set<Command> scanCommands() {
+        Set<Command> commands = new HashSet<>();
         try {
             URL url = SpCoBot.pluginFile.toURI().toURL();
             Reflections reflections = new Reflections(new ConfigurationBuilder()
@@ -103,23 +203,13 @@ public class CommandDispatcher extends SimpleFeatureManager<Command> {
             Set<Class<?>> annotatedClasses = reflections.getTypesAnnotatedWith(CommandMarker.class);
             for (Class<?> cls : annotatedClasses) {
                 Command command = (Command) cls.getDeclaredConstructor().newInstance();
-                toBeRegistered.add(command);
+                commands.add(command);
             }
-
         } catch (NoSuchMethodException | InstantiationException | IllegalAccessException |
                  InvocationTargetException | MalformedURLException e) {
             throw new RuntimeException(e);
         }
-
-        for (var command : toBeRegistered) {
-            try {
-                register(command);
-            } catch (Exception e) {
-                SpCoBot.LOGGER.error(e);
-            }
-        }
-        freeze();
-        SpCoBot.LOGGER.info("已注册{}个命令。", toBeRegistered.size());
+        return commands;
     }
 
     /**
@@ -134,29 +224,36 @@ public class CommandDispatcher extends SimpleFeatureManager<Command> {
             if (SpCoBot.getInstance().chatDispatcher.isInChat(interactor, ChatType.FRIEND)) {
                 return;
             }
-            callCommand(friendCommands, interactor, interactor, message, bot, time);
+            callCommand(CommandScope.ONLY_FRIEND, interactor, interactor, message, bot, time);
         });
         CommandEvents.GROUP_COMMAND.register((bot, from, sender, message, time) -> {
             if (SpCoBot.getInstance().chatDispatcher.isInChat(from, ChatType.GROUP)) {
                 return;
             }
-            callCommand(groupCommands, from, sender, message, bot, time);
+            callCommand(CommandScope.ONLY_GROUP, from, sender, message, bot, time);
         });
         CommandEvents.GROUP_TEMP_COMMAND.register((bot, interactor, message, time) -> {
             if (SpCoBot.getInstance().chatDispatcher.isInChat(interactor, ChatType.GROUP_TEMP)) {
                 return;
             }
-            callCommand(groupTempCommands, interactor, interactor, message, bot, time);
+            callCommand(CommandScope.ONLY_PRIVATE, interactor, interactor, message, bot, time);
         });
     }
 
-    private void callCommand(Map<String, Command> targetCommands, Interactive<?> from, User<?> sender, Message<?> message, Bot<?> bot, int time) {
+    private void callCommand(CommandScope scope, Interactive<?> from, User<?> sender, Message<?> message, Bot<?> bot, int time) {
+        LabelIndex index = labelIndex;
+        if (index == null) {
+            // 命令尚未注册完毕
+            return;
+        }
         Parser input = new Parser(message, message.toMessageContext().substring(1));
         while (input.canRead() && input.peek() != ' ') {
             input.skip();
         }
-        String label = input.getString().substring(0, input.getCursor());
-        if (!targetCommands.containsKey(label)) {
+        final int end = input.getCursor();
+        Command command = index.find(input.getString(), 0, end, scope);
+        if (command == null) {
+            suggest(index, scope, from, sender, message, input.getString(), end);
             return;
         }
         // 读完标签后光标位于标签后，光标之后还有一格空格，所以需要后移一位到达参数
@@ -164,82 +261,178 @@ public class CommandDispatcher extends SimpleFeatureManager<Command> {
             input.skip();
         }
         message.setCommandMessage();
-        callCommand(targetCommands, from, sender, message, bot, time, label, input);
+        BotUser user;
+        try {
+            // 获取发送者的用户实例
+            user = BotUsers.getOrCreate(sender.getId());
+        } catch (UserFetchException e) {
+            from.handleException(message, "SpCoBot获取用户时失败", e);
+            return;
+        }
+        // 在提交前限流，使被拒绝的调用不占用信箱和执行线程
+        if (rateLimiter != null) {
+            long wait = rateLimiter.tryAcquire(command, from, user);
+            if (wait > 0) {
+                metrics.recordRateLimited(command);
+                if (rateLimiter.shouldNotify(user.getId(), wait)) {
+                    from.quoteReply(message, "您的操作过于频繁，请" + (wait + 999) / 1000 + "秒后再试。");
+                }
+                return;
+            }
+        }
+        if (executor == null) {
+            callCommand(command, from, sender, user, message, bot, time, input);
+        } else {
+            executor.submit(command, from.getId(), sender.getId(),
+                    () -> callCommand(command, from, sender, user, message, bot, time, input));
+        }
     }
 
-    private void callCommand(Map<String, Command> targetCommands, Interactive<?> from, User<?> sender, Message<?> message, Bot<?> bot, int time, String label, Parser parser) {
+    /**
+     * 标签不存在时，提示发送者有权使用的最接近的标签。提示与命令调用共用发送者的限流额度，被限流时不提示。
+     */
+    private void suggest(LabelIndex index, CommandScope scope, Interactive<?> from, User<?> sender, Message<?> message, String text, int end) {
+        UserPermission permission;
+        try {
+            // 不为发送未知命令的用户创建记录
+            BotUser user = BotUsers.get(sender.getId());
+            permission = user == null ? UserPermission.NORMAL : user.getPermission();
+        } catch (UserFetchException e) {
+            return;
+        }
+        String suggestion = index.suggest(text, 0, end, scope, permission);
+        if (suggestion == null) {
+            return;
+        }
+        if (rateLimiter != null && rateLimiter.tryAcquire(from, sender.getId(), permission) > 0) {
+            return;
+        }
+        from.quoteReply(message, "未知的命令“" + COMMAND_START_SYMBOL + text.substring(0, end) + "”，您是不是想使用“" + COMMAND_START_SYMBOL + suggestion + "”？");
+    }
+
+    /**
+     * @return 命令的调用统计
+     */
+    public CommandMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return 命令限流器，关闭限流时为 {@code null}
+     */
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * @return 执行命令的执行器，关闭异步执行时为 {@code null}
+     */
+    public CommandExecutor getExecutor() {
+        return executor;
+    }
+
+    private void callCommand(Command object, Interactive<?> from, User<?> sender, BotUser user, Message<?> message, Bot<?> bot, int time, Parser parser) {
         try {
-            // 获取命令实例和发送者和发送者的用户实例
-            Command object = targetCommands.get(label);
-            BotUser user = BotUsers.getOrCreate(sender.getId());
             // 先检测发送者是否有权限
             try {
                 if (!object.hasPermission(user)) {
+                    metrics.recordPermissionDenied(object);
                     from.quoteReply(message, "您无权使用此命令。");
                     return;
                 }
             } catch (SQLException e) {
                 from.handleException(message, "获取用户权限失败", e);
             }
-            Potential potential = new Potential();
-            potential.setLast(BuiltInExceptions.dispatcherUnknownCommand(parser));
             CommandMeta meta = new CommandMeta(parser.getMessage().toMessageContext(), parser.getMessage(), parser);
             // 判断用户提交的参数是否符合命令的用法
             final int start = parser.getCursor();
-            for (Usage usage : object.getUsages()) {
-                meta.setUsage(usage);
-                meta.getParams().clear();
-                parser.setCursor(start);
-                // 判断用法的每个参数是否与用户提交的匹配
-                try {
-                    for (Parameter<?> param : usage.getParams()) {
-                        if (!param.isOptional()) {
+            UsageTree.Match match = usageTrees.get(object).match(parser);
+            if (match == null) {
+                // 用户提交的参数不符合命令的任何用法
+                metrics.recordParseFailure(object);
+                CommandSyntaxException e = diagnose(object, parser, start, meta);
+                from.handleException(message, e.getMessage());
+                SpCoBot.LOGGER.debug(ExceptionUtil.getStackTraceAsString(e));
+                return;
+            }
+            meta.setUsage(match.usage());
+            meta.getParams().putAll(match.params());
+            if (object.isAvailable(from)) {
+                from.quoteReply(message,"该命令被禁用");
+                return;
+            }
+            SpCoBot.getInstance().getRuntimeStatistic().group("命令").add("命令调用");
+            long begin = System.nanoTime();
+            boolean failed = true;
+            try {
+                object.onCommand(bot, from, sender, user, message, time, meta, match.usage().name);
+                failed = false;
+            } finally {
+                metrics.recordExecution(object, match.usage().name, System.nanoTime() - begin, failed);
+            }
+        } catch (UserFetchException e) {
+            from.handleException(message, "SpCoBot获取用户时失败", e);
+        } catch (Exception e) {
+            SpCoBot.LOGGER.error(ExceptionUtil.getStackTraceAsString(e));
+            from.handleException(message, e);
+        }
+    }
+
+    /**
+     * 在没有用法能匹配时，逐个用法重新解析输入，找出最合理的报错。
+     *
+     * <p>匹配成功时只需经过 {@link UsageTree}，而报错需要知道每个用法解析到了哪一步，因此只在失败时逐个尝试，
+     * 以保证给出的报错与 {@link Potential} 的规则一致。
+     *
+     * @param command 命令
+     * @param parser  解析器
+     * @param start   第一个参数的位置
+     * @param meta    命令的元数据
+     * @return 最合理的报错
+     */
+    private CommandSyntaxException diagnose(Command command, Parser parser, int start, CommandMeta meta) {
+        parser.setCursor(start);
+        Potential potential = new Potential();
+        potential.setLast(BuiltInExceptions.dispatcherUnknownCommand(parser));
+        for (Usage usage : usageTrees.get(command).getUsages()) {
+            meta.setUsage(usage);
+            meta.getParams().clear();
+            parser.setCursor(start);
+            // 判断用法的每个参数是否与用户提交的匹配
+            try {
+                for (Parameter<?> param : usage.getParams()) {
+                    if (!param.isOptional()) {
+                        meta.getParams().put(param.getName(), param.parse(parser));
+                        potential.further(usage);
+                    } else {
+                        if (parser.canRead()) {
                             meta.getParams().put(param.getName(), param.parse(parser));
                             potential.further(usage);
                         } else {
-                            if (parser.canRead()) {
-                                meta.getParams().put(param.getName(), param.parse(parser));
-                                potential.further(usage);
-                            } else {
-                                meta.getParams().put(param.getName(), param.getDefaultValue());
-                                potential.further(usage);
-                            }
-                        }
-                        if (parser.canRead()) {
-                            if (parser.peek() != PARAMETER_SEPARATOR_CHAR) {
-                                // 如果下一个字符不是参数分隔符
-                                throw BuiltInExceptions.dispatcherExpectedArgumentSeparator(parser);
-                            }
-                            // 跳过参数分隔符
-                            parser.skip();
+                            meta.getParams().put(param.getName(), param.getDefaultValue());
+                            potential.further(usage);
                         }
                     }
-                } catch (CommandSyntaxException e) {
-                    potential.add(usage, e);
-                    continue;
-                }
-                if (parser.canRead()) {
-                    potential.setLast(BuiltInExceptions.dispatcherExpectedArgumentSeparator(parser));
-                    potential.remove(usage);
-                } else {
-                    if (object.isAvailable(from)) {
-                        from.quoteReply(message,"该命令被禁用");
-                        return;
+                    if (parser.canRead()) {
+                        if (parser.peek() != PARAMETER_SEPARATOR_CHAR) {
+                            // 如果下一个字符不是参数分隔符
+                            throw BuiltInExceptions.dispatcherExpectedArgumentSeparator(parser);
+                        }
+                        // 跳过参数分隔符
+                        parser.skip();
                     }
-                    SpCoBot.getInstance().getRuntimeStatistic().group("命令").add("命令调用");
-                    object.onCommand(bot, from, sender, user, message, time, meta, usage.name);
-                    return;
                 }
+            } catch (CommandSyntaxException e) {
+                potential.add(usage, e);
+                continue;
+            }
+            // 决策树没有匹配到任何用法，所以参数全部解析成功时一定还有剩余的输入
+            if (parser.canRead()) {
+                potential.setLast(BuiltInExceptions.dispatcherExpectedArgumentSeparator(parser));
+                potential.remove(usage);
             }
-            // 用户提交的参数不符合命令的任何用法
-            from.handleException(message, potential.get().getMessage());
-            SpCoBot.LOGGER.debug(ExceptionUtil.getStackTraceAsString(potential.get()));
-        } catch (UserFetchException e) {
-            from.handleException(message, "SpCoBot获取用户时失败", e);
-        } catch (Exception e) {
-            SpCoBot.LOGGER.error(ExceptionUtil.getStackTraceAsString(e));
-            from.handleException(message, e);
         }
+        return potential.get();
     }
 
     public static boolean contains(final Object[] array, final Object objectToFind) {
@@ -339,6 +532,7 @@ public class CommandDispatcher extends SimpleFeatureManager<Command> {
                         throw new CommandRegistrationException("The command: " + command.getLabels()[0] + " registration failed.");
             }
         }
+        usageTrees.put(command, new UsageTree(command.getUsages()));
         commandCount++;
         getAllRegistered().put(command, SimpleFeatureManager.PRESENT);
         Feature.addAvailableFeatureId(command);
@@ -416,55 +610,64 @@ public class CommandDispatcher extends SimpleFeatureManager<Command> {
     /**
      * 获取命令帮助列表
      *
-     * @see HelpCommand
+     * @return 所有可见命令的帮助列表，不可修改
      */
     public List<String> getHelpList() {
-        List<String> helpList = new ArrayList<>(commandCount);
-        for (Command command : getAllRegistered().keySet()) {
-            if (command.isVisible()) {
-                int index = 0;
-                String mainLabel = "";
-                for (String label : command.getLabels()) {
-                    if (index == 0) {
-                        mainLabel = label;
-                        helpList.add(mainLabel + " - " + command.getDescriptions());
-                    } else {
-                        helpList.add(label + " -> " + mainLabel);
-                    }
-                    index += 1;
-                }
+        return usageRegistry.getHelpList();
+    }
+
+    /**
+     * 获取在指定来源中、对指定用户可见的帮助文本。
+     *
+     * @param from 消息来源
+     * @param user 用户
+     * @return 每行一条的帮助文本
+     * @see HelpCommand
+     */
+    public String getHelpText(Interactive<?> from, BotUser user) {
+        CommandScope scope = CommandScope.getCommandScope(from);
+        String text = scope == null ? null : usageRegistry.getHelpText(scope, user.getPermission());
+        if (text == null) {
+            StringBuilder sb = new StringBuilder();
+            for (String help : getHelpList()) {
+                sb.append(help).append("\n");
             }
+            return sb.toString();
         }
-        helpList.sort(String::compareToIgnoreCase);
-        return helpList;
+        return text;
     }
 
+    /**
+     * 获取命令在消息来源对应的作用域下的所有用法。
+     *
+     * @param label 命令标签
+     * @param from  消息来源
+     * @return 用法字符串列表，不可修改，命令不存在或作用域无法确定时为 {@code null}
+     */
     public List<String> getUsages(String label, Interactive<?> from) {
         CommandScope scope = CommandScope.getCommandScope(from);
-        if (scope == null) {
-            return null;
-        }
-        Map<String, Command> commands;
-        switch (scope) {
-            case ONLY_GROUP -> commands = groupCommands;
-            case ONLY_FRIEND -> commands = friendCommands;
-            case ONLY_PRIVATE -> commands = groupTempCommands;
-            default -> {
-                return null;
-            }
-        }
-        if (!commands.containsKey(label)) {
-            return null;
-        }
-        var ite = commands.get(label).getUsages().iterator();
-        List<String> usages = new ArrayList<>();
-        while (ite.hasNext()) {
-            usages.add(ite.next().toString());
-        }
-        return usages;
+        return scope == null ? null : usageRegistry.getUsages(scope, label);
+    }
+
+    /**
+     * 获取命令在消息来源对应的作用域下的用法文本。
+     *
+     * @param label 命令标签
+     * @param from  消息来源
+     * @return 每行一条的用法文本，命令不存在或作用域无法确定时为 {@code null}
+     */
+    public String getUsageText(String label, Interactive<?> from) {
+        CommandScope scope = CommandScope.getCommandScope(from);
+        return scope == null ? null : usageRegistry.getUsageText(scope, label);
     }
 
     private void freeze() {
+        Map<CommandScope, Map<String, Command>> scopeCommands = new EnumMap<>(CommandScope.class);
+        scopeCommands.put(CommandScope.ONLY_GROUP, groupCommands);
+        scopeCommands.put(CommandScope.ONLY_FRIEND, friendCommands);
+        scopeCommands.put(CommandScope.ONLY_PRIVATE, groupTempCommands);
+        this.usageRegistry = new UsageRegistry(scopeCommands, usageTrees);
+        this.labelIndex = new LabelIndex(scopeCommands);
         this.frozen = true;
     }
 
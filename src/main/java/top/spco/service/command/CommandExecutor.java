@@ -0,0 +1,279 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.service.command;
+
+import top.spco.SpCoBot;
+import top.spco.util.NamedThreadFactory;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 命令执行器。
+ *
+ * <p>命令不在收到消息的事件线程上执行，而是交给执行器，使调用外部接口等耗时的命令不会拖慢其他消息的处理：
+ * <ul>
+ * <li>运行环境支持虚拟线程（Java 21 及以上）时，每次命令调用使用一个虚拟线程；否则使用按需创建的守护线程池。
+ * 由于插件以 Java 17 为编译目标，虚拟线程通过反射创建。</li>
+ * <li>同一会话中同一用户的命令放入同一个信箱，按提交顺序逐个执行，前一条命令结束后才开始下一条。
+ * 不同会话或不同用户的命令互不等待。信箱在清空后被移除。</li>
+ * <li>每个命令有一个并发上限。达到上限时，后来的调用留在各自信箱的队首，执行它的线程随即退出，不会阻塞等待；
+ * 该命令有调用结束时，许可按等待顺序直接交给下一个信箱，并重新提交该信箱的执行。上限不影响其他命令。</li>
+ * </ul>
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @see CommandDispatcher
+ * @since 4.0.0
+ */
+public class CommandExecutor {
+    private final ExecutorService executor;
+    private final boolean virtual;
+    private final int defaultConcurrency;
+    private final Map<String, Integer> concurrencyLimits;
+    private final ConcurrentHashMap<MailboxKey, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Command, CommandGate> gates = new ConcurrentHashMap<>();
+    private final AtomicInteger running = new AtomicInteger();
+
+    /**
+     * 创建一个命令执行器。
+     *
+     * @param defaultConcurrency 每个命令默认的并发上限
+     * @param concurrencyLimits  以命令主标签为键的并发上限，优先于默认值
+     */
+    public CommandExecutor(int defaultConcurrency, Map<String, Integer> concurrencyLimits) {
+        if (defaultConcurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be positive.");
+        }
+        this.defaultConcurrency = defaultConcurrency;
+        this.concurrencyLimits = Map.copyOf(concurrencyLimits);
+        ExecutorService virtualExecutor = newVirtualThreadExecutor();
+        this.virtual = virtualExecutor != null;
+        this.executor = virtual ? virtualExecutor : Executors.newCachedThreadPool(r -> {
+            Thread thread = new NamedThreadFactory("Command").newThread(r);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 通过反射调用 {@code Executors.newVirtualThreadPerTaskExecutor()}。
+     *
+     * @return 每个任务一个虚拟线程的执行器，运行环境不支持虚拟线程时为 {@code null}
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 提交一次命令调用。
+     *
+     * @param command 被调用的命令
+     * @param chatId  会话的ID，即群号或好友的ID
+     * @param userId  发送者的ID
+     * @param task    执行命令的任务
+     */
+    public void submit(Command command, long chatId, long userId, Runnable task) {
+        MailboxKey key = new MailboxKey(chatId, userId);
+        Job job = new Job(command, task);
+        boolean[] schedule = new boolean[1];
+        mailboxes.compute(key, (k, box) -> {
+            if (box == null) {
+                box = new Mailbox();
+            }
+            box.queue.add(job);
+            if (!box.draining) {
+                box.draining = true;
+                schedule[0] = true;
+            }
+            return box;
+        });
+        if (schedule[0]) {
+            schedule(key, job, false);
+        }
+    }
+
+    /**
+     * 提交信箱的执行。
+     *
+     * @param key      信箱
+     * @param first    信箱队首的任务
+     * @param acquired 是否已经持有该任务所需的许可
+     */
+    private void schedule(MailboxKey key, Job first, boolean acquired) {
+        try {
+            executor.execute(() -> drain(key, first, acquired));
+        } catch (RejectedExecutionException e) {
+            mailboxes.remove(key);
+            SpCoBot.LOGGER.warn("命令执行器已关闭，已忽略命令 {}。", first.command.getLabels()[0]);
+        }
+    }
+
+    /**
+     * 依次执行信箱中的任务，直到信箱为空，或队首的任务需要等待许可。
+     */
+    private void drain(MailboxKey key, Job first, boolean acquired) {
+        Job job = first;
+        while (job != null) {
+            CommandGate gate = gates.computeIfAbsent(job.command, c -> new CommandGate(concurrencyLimits.getOrDefault(c.getLabels()[0], defaultConcurrency)));
+            if (!acquired && !gate.acquireOrWait(key, job)) {
+                // 任务留在队首，获得许可后由 CommandGate#release 重新提交
+                return;
+            }
+            acquired = false;
+            boolean finished = false;
+            running.incrementAndGet();
+            try {
+                job.task.run();
+                finished = true;
+            } catch (RuntimeException e) {
+                finished = true;
+                SpCoBot.LOGGER.error("执行命令时发生错误。", e);
+            } finally {
+                running.decrementAndGet();
+                gate.release();
+                job = advance(key);
+                if (!finished && job != null) {
+                    // 任务抛出了 Error，剩余的任务交给新的线程继续执行
+                    schedule(key, job, false);
+                }
+            }
+        }
+    }
+
+    /**
+     * 移除信箱队首刚执行完的任务。
+     *
+     * @return 下一个任务，信箱已空时为 {@code null}，此时信箱被移除
+     */
+    private Job advance(MailboxKey key) {
+        Job[] next = new Job[1];
+        mailboxes.computeIfPresent(key, (k, box) -> {
+            box.queue.poll();
+            next[0] = box.queue.peek();
+            if (next[0] == null) {
+                box.draining = false;
+                return null;
+            }
+            return box;
+        });
+        return next[0];
+    }
+
+    /**
+     * @return 是否使用虚拟线程执行命令
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * @return 正在执行的命令数
+     */
+    public int getRunningCount() {
+        return running.get();
+    }
+
+    /**
+     * @return 有待执行命令的信箱数
+     */
+    public int getMailboxCount() {
+        return mailboxes.size();
+    }
+
+    /**
+     * 停止接受新的命令，并等待正在执行的命令结束。
+     */
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record MailboxKey(long chatId, long userId) {
+    }
+
+    private record Job(Command command, Runnable task) {
+    }
+
+    private record Waiter(MailboxKey key, Job job) {
+    }
+
+    /**
+     * 一个会话中一个用户的命令队列。队首是正在执行或等待许可的任务，只在 {@link ConcurrentHashMap#compute} 中访问。
+     */
+    private static final class Mailbox {
+        private final ArrayDeque<Job> queue = new ArrayDeque<>();
+        private boolean draining = false;
+    }
+
+    /**
+     * 一个命令的并发许可。许可不足时记录等待的信箱，而不是阻塞线程。
+     */
+    private final class CommandGate {
+        private final ArrayDeque<Waiter> waiters = new ArrayDeque<>();
+        private int available;
+
+        private CommandGate(int permits) {
+            this.available = permits;
+        }
+
+        /**
+         * 获取一个许可，许可不足时将信箱加入等待队列。
+         *
+         * @return 是否获得了许可
+         */
+        private synchronized boolean acquireOrWait(MailboxKey key, Job job) {
+            if (available > 0) {
+                available--;
+                return true;
+            }
+            waiters.add(new Waiter(key, job));
+            return false;
+        }
+
+        /**
+         * 归还一个许可。有信箱在等待时，许可直接交给最早等待的信箱。
+         */
+        private void release() {
+            Waiter waiter;
+            synchronized (this) {
+                waiter = waiters.poll();
+                if (waiter == null) {
+                    available++;
+                    return;
+                }
+            }
+            schedule(waiter.key, waiter.job, true);
+        }
+    }
+}
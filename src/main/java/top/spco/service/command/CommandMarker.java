@@ -23,6 +23,8 @@ import java.lang.annotation.Target;
 /**
  * {@code CommandMarker} 注解用于标记一个类作为命令。
  * 使用此注解的类将被 {@code CommandDispatcher} 自动注册。
+ * <p>构建时，Gradle 任务 {@code generateCommandIndex} 会把使用此注解的类写入命令索引，
+ * 因此被注解的类必须是具有公共无参构造器的顶层公共类，且注解须写在行首，否则构建会失败。
  *
  * @apiNote 这个注解是为了简化命令类的标记和注册过程。
  * @author SpCo
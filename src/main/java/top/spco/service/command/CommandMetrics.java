@@ -0,0 +1,185 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.service.command;
+
+import top.spco.statistics.LatencyHistogram;
+import top.spco.statistics.RollingLatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按命令统计调用结果和耗时。
+ *
+ * <p>对每个命令记录参数错误、无权限和被限流的次数；对命令的每个用法记录调用次数、抛出异常的次数和执行耗时的分布。
+ * 耗时同时保留全部记录和最近一小时的记录。记录由 {@link CommandDispatcher} 在分派命令时进行，所有计数均为无锁结构。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @see CommandDispatcher
+ * @since 4.0.0
+ */
+public class CommandMetrics {
+    /**
+     * 最近耗时的时间窗口（分钟）
+     */
+    private static final int WINDOW_MINUTES = 60;
+    /**
+     * 时间窗口被等分的段数
+     */
+    private static final int WINDOW_SEGMENTS = 12;
+    private final ConcurrentHashMap<String, CommandStats> stats = new ConcurrentHashMap<>();
+
+    private CommandStats statsOf(Command command) {
+        String label = command.getLabels()[0];
+        CommandStats s = stats.get(label);
+        if (s == null) {
+            s = stats.computeIfAbsent(label, k -> new CommandStats());
+        }
+        return s;
+    }
+
+    /**
+     * 记录一次因参数不符合任何用法而失败的调用。
+     */
+    void recordParseFailure(Command command) {
+        statsOf(command).parseFailures.increment();
+    }
+
+    /**
+     * 记录一次因无权限而被拒绝的调用。
+     */
+    void recordPermissionDenied(Command command) {
+        statsOf(command).permissionDenials.increment();
+    }
+
+    /**
+     * 记录一次被限流的调用。
+     */
+    void recordRateLimited(Command command) {
+        statsOf(command).rateLimited.increment();
+    }
+
+    /**
+     * 记录一次执行。
+     *
+     * @param command   命令
+     * @param usageName 用法名
+     * @param nanos     执行耗时（纳秒）
+     * @param failed    执行时是否抛出了异常
+     */
+    void recordExecution(Command command, String usageName, long nanos, boolean failed) {
+        CommandStats s = statsOf(command);
+        UsageStats u = s.usages.get(usageName);
+        if (u == null) {
+            u = s.usages.computeIfAbsent(usageName, k -> new UsageStats());
+        }
+        u.latency.record(nanos);
+        if (failed) {
+            u.exceptions.increment();
+        }
+    }
+
+    /**
+     * 按 p99 耗时从高到低返回各用法的统计。
+     *
+     * <p>没有执行记录、只有参数错误、无权限或被限流记录的命令也会以一条不含用法的统计列出，排在有执行记录的用法之后，
+     * 按失败次数从多到少排列。失败次数不区分时间窗口。
+     *
+     * @param limit  最多返回的条数
+     * @param window 是否只统计最近一小时
+     * @return 各用法的统计
+     */
+    public List<Entry> top(int limit, boolean window) {
+        List<Entry> entries = new ArrayList<>();
+        for (Map.Entry<String, CommandStats> command : stats.entrySet()) {
+            CommandStats commandStats = command.getValue();
+            boolean executed = false;
+            for (Map.Entry<String, UsageStats> usage : commandStats.usages.entrySet()) {
+                LatencyHistogram latency = window ? usage.getValue().latency.getWindow() : usage.getValue().latency.getTotal();
+                if (latency.count() > 0) {
+                    executed = true;
+                    entries.add(new Entry(command.getKey(), usage.getKey(), latency, latency.percentileMicros(0.99), usage.getValue().exceptions.sum(), commandStats));
+                }
+            }
+            if (!executed && commandStats.getFailures() > 0) {
+                entries.add(new Entry(command.getKey(), null, null, 0, 0, commandStats));
+            }
+        }
+        entries.sort(Comparator.comparingLong(Entry::p99Micros).reversed()
+                .thenComparing(Comparator.comparingLong((Entry e) -> e.command().getFailures()).reversed()));
+        return entries.size() > limit ? entries.subList(0, limit) : entries;
+    }
+
+    /**
+     * 清空所有统计。
+     */
+    public void reset() {
+        stats.clear();
+    }
+
+    /**
+     * 一个命令的统计。
+     */
+    public static class CommandStats {
+        private final LongAdder parseFailures = new LongAdder();
+        private final LongAdder permissionDenials = new LongAdder();
+        private final LongAdder rateLimited = new LongAdder();
+        private final ConcurrentHashMap<String, UsageStats> usages = new ConcurrentHashMap<>();
+
+        public long getParseFailures() {
+            return parseFailures.sum();
+        }
+
+        public long getPermissionDenials() {
+            return permissionDenials.sum();
+        }
+
+        public long getRateLimited() {
+            return rateLimited.sum();
+        }
+
+        /**
+         * @return 参数错误、无权限和被限流的总次数
+         */
+        public long getFailures() {
+            return getParseFailures() + getPermissionDenials() + getRateLimited();
+        }
+    }
+
+    private static class UsageStats {
+        private final RollingLatencyHistogram latency = new RollingLatencyHistogram(WINDOW_MINUTES, WINDOW_SEGMENTS, TimeUnit.MINUTES);
+        private final LongAdder exceptions = new LongAdder();
+    }
+
+    /**
+     * 一个用法的统计。
+     *
+     * @param label      命令的主标签
+     * @param usageName  用法名，命令没有执行记录时为 {@code null}
+     * @param latency    执行耗时的分布，命令没有执行记录时为 {@code null}
+     * @param p99Micros  p99 耗时（微秒）
+     * @param exceptions 抛出异常的次数
+     * @param command    所属命令的统计
+     */
+    public record Entry(String label, String usageName, LatencyHistogram latency, long p99Micros, long exceptions, CommandStats command) {
+    }
+}
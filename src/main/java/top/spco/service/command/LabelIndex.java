@@ -0,0 +1,258 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.service.command;
+
+import top.spco.user.UserPermission;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 命令标签的索引，在命令注册结束时生成。
+ *
+ * <p>索引由两部分组成：
+ * <ul>
+ * <li>所有作用域共用的一棵字典树。树按广度优先的顺序展开成数组，每个节点的子节点连续存放并按字符排序，查找时二分。
+ * 节点上记录以其结尾的标签在各作用域中对应的命令，因此查找直接在输入文本上逐字符进行，不需要截取标签。</li>
+ * <li>一棵以编辑距离为度量的 BK 树，保存所有可见命令的标签及其在各作用域中对应的命令，用于在标签不存在时找出调用者有权使用的最接近的标签。</li>
+ * </ul>
+ * 索引生成后不再修改，可以被多个线程同时使用。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @see CommandDispatcher
+ * @since 4.0.0
+ */
+final class LabelIndex {
+    private static final int SCOPES = CommandScope.values().length;
+    /**
+     * 到达各节点的字符
+     */
+    private final char[] chars;
+    /**
+     * 各节点第一个子节点的序号
+     */
+    private final int[] childStart;
+    private final int[] childCount;
+    /**
+     * 以节点序号 × 作用域数 + 作用域序号为下标，以该节点结尾的标签在该作用域中对应的命令
+     */
+    private final Command[] commands;
+    private final BkNode suggestions;
+
+    /**
+     * 生成标签索引。
+     *
+     * @param scopeCommands 各作用域下以标签为键的命令表
+     */
+    LabelIndex(Map<CommandScope, Map<String, Command>> scopeCommands) {
+        TrieBuilder root = new TrieBuilder();
+        Map<String, Command[]> visibleCommands = new TreeMap<>();
+        int count = 1;
+        for (var scope : scopeCommands.entrySet()) {
+            for (var entry : scope.getValue().entrySet()) {
+                TrieBuilder node = root;
+                for (char c : entry.getKey().toCharArray()) {
+                    TrieBuilder child = node.children.get(c);
+                    if (child == null) {
+                        child = new TrieBuilder();
+                        node.children.put(c, child);
+                        count++;
+                    }
+                    node = child;
+                }
+                node.commands[scope.getKey().ordinal()] = entry.getValue();
+                if (entry.getValue().isVisible()) {
+                    visibleCommands.computeIfAbsent(entry.getKey(), k -> new Command[SCOPES])[scope.getKey().ordinal()] = entry.getValue();
+                }
+            }
+        }
+        this.chars = new char[count];
+        this.childStart = new int[count];
+        this.childCount = new int[count];
+        this.commands = new Command[count * SCOPES];
+        ArrayDeque<TrieBuilder> queue = new ArrayDeque<>();
+        queue.add(root);
+        int index = 0;
+        int next = 1;
+        while (!queue.isEmpty()) {
+            TrieBuilder node = queue.poll();
+            System.arraycopy(node.commands, 0, commands, index * SCOPES, SCOPES);
+            childStart[index] = next;
+            childCount[index] = node.children.size();
+            for (var child : node.children.entrySet()) {
+                chars[next++] = child.getKey();
+                queue.add(child.getValue());
+            }
+            index++;
+        }
+        BkNode bkRoot = null;
+        for (var entry : visibleCommands.entrySet()) {
+            if (bkRoot == null) {
+                bkRoot = new BkNode(entry.getKey(), entry.getValue());
+            } else {
+                bkRoot.add(entry.getKey(), entry.getValue());
+            }
+        }
+        this.suggestions = bkRoot;
+    }
+
+    /**
+     * 查找输入文本的 {@code [start, end)} 区间对应的命令。
+     *
+     * @param text  输入文本
+     * @param start 标签的开始
+     * @param end   标签的结束
+     * @param scope 命令作用域
+     * @return 命令，标签在该作用域中不存在时为 {@code null}
+     */
+    Command find(CharSequence text, int start, int end, CommandScope scope) {
+        int node = 0;
+        for (int i = start; i < end; i++) {
+            node = child(node, text.charAt(i));
+            if (node < 0) {
+                return null;
+            }
+        }
+        return commands[node * SCOPES + scope.ordinal()];
+    }
+
+    private int child(int node, char c) {
+        int low = childStart[node];
+        int high = low + childCount[node] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char m = chars[mid];
+            if (m < c) {
+                low = mid + 1;
+            } else if (m > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 找出与输入文本的 {@code [start, end)} 区间编辑距离最小的、具有指定权限的用户可以使用的可见标签。
+     *
+     * <p>标签长度不超过3时最多允许1处差异，否则最多允许2处。距离相同时取字典序最小的标签。
+     *
+     * @param text       输入文本
+     * @param start      标签的开始
+     * @param end        标签的结束
+     * @param scope      命令作用域
+     * @param permission 调用者的权限
+     * @return 最接近的标签，没有足够接近的标签时为 {@code null}
+     */
+    String suggest(CharSequence text, int start, int end, CommandScope scope, UserPermission permission) {
+        if (suggestions == null || end <= start) {
+            return null;
+        }
+        int maxDistance = end - start <= 3 ? 1 : 2;
+        int ordinal = scope.ordinal();
+        String best = null;
+        int bestDistance = maxDistance + 1;
+        int[] rows = new int[2 * (end - start + 1)];
+        ArrayDeque<BkNode> stack = new ArrayDeque<>();
+        stack.push(suggestions);
+        while (!stack.isEmpty()) {
+            BkNode node = stack.pop();
+            int d = distance(text, start, end, node.label, rows);
+            Command command = node.commands[ordinal];
+            if (command != null && command.needPermission().getLevel() <= permission.getLevel() && (d < bestDistance || d == bestDistance && best != null && node.label.compareTo(best) < 0)) {
+                best = node.label;
+                bestDistance = d;
+            }
+            // 三角不等式：只有与当前节点距离在 [d - 阈值, d + 阈值] 内的子树中才可能有足够接近的标签
+            for (var child : node.children.entrySet()) {
+                if (Math.abs(child.getKey() - d) <= maxDistance) {
+                    stack.push(child.getValue());
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 计算输入文本的区间与标签之间的编辑距离（Levenshtein 距离）。
+     *
+     * @param rows 长度至少为 {@code 2 × (区间长度 + 1)} 的工作数组
+     */
+    private static int distance(CharSequence text, int start, int end, String label, int[] rows) {
+        int n = end - start;
+        int width = n + 1;
+        for (int i = 0; i <= n; i++) {
+            rows[i] = i;
+        }
+        int prev = 0;
+        int cur = width;
+        for (int j = 1; j <= label.length(); j++) {
+            rows[cur] = j;
+            char c = label.charAt(j - 1);
+            for (int i = 1; i <= n; i++) {
+                int cost = text.charAt(start + i - 1) == c ? 0 : 1;
+                rows[cur + i] = Math.min(Math.min(rows[cur + i - 1], rows[prev + i]) + 1, rows[prev + i - 1] + cost);
+            }
+            int t = prev;
+            prev = cur;
+            cur = t;
+        }
+        return rows[prev + n];
+    }
+
+    private static int distance(String a, String b) {
+        return distance(a, 0, a.length(), b, new int[2 * (a.length() + 1)]);
+    }
+
+    private static final class TrieBuilder {
+        final TreeMap<Character, TrieBuilder> children = new TreeMap<>();
+        final Command[] commands = new Command[SCOPES];
+    }
+
+    private static final class BkNode {
+        final String label;
+        /**
+         * 以作用域序号为下标，标签在该作用域中对应的命令
+         */
+        final Command[] commands;
+        /**
+         * 以与此节点的编辑距离为键的子节点
+         */
+        final Map<Integer, BkNode> children = new HashMap<>();
+
+        BkNode(String label, Command[] commands) {
+            this.label = label;
+            this.commands = commands;
+        }
+
+        void add(String label, Command[] commands) {
+            BkNode node = this;
+            while (true) {
+                int d = distance(label, node.label);
+                BkNode child = node.children.get(d);
+                if (child == null) {
+                    node.children.put(d, new BkNode(label, commands));
+                    return;
+                }
+                node = child;
+            }
+        }
+    }
+}
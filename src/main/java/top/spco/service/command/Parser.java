@@ -19,9 +19,14 @@ import top.spco.api.message.Message;
 import top.spco.service.command.exceptions.BuiltInExceptions;
 import top.spco.service.command.exceptions.CommandSyntaxException;
 
+import java.nio.CharBuffer;
+
 /**
  * 命令文本解析器。用于解析命令的标签和参数。
  *
+ * <p>数字直接从输入文本中解析，不会先截取子串；{@link #readUnquotedView()} 返回的是输入文本的视图，
+ * 只有在需要保存时才转换为 {@code String}。解析失败时才会为报错信息截取子串。
+ *
  * @author SpCo
  * @version 3.2.2
  * @since 3.0.0
@@ -30,6 +35,10 @@ public class Parser {
     private static final char SYNTAX_ESCAPE = '\\';
     private static final char SYNTAX_DOUBLE_QUOTE = '"';
     private static final char SYNTAX_SINGLE_QUOTE = '\'';
+    /**
+     * {@link #parseSmallInteger(int, int, int)} 在输入不是足够短的整数时的返回值
+     */
+    private static final long NOT_SMALL_INTEGER = Long.MIN_VALUE;
     private final Message<?> message;
     private final String string;
     private int cursor;
@@ -102,17 +111,14 @@ public class Parser {
 
     public int readInt() throws CommandSyntaxException {
         final int start = cursor;
-        while (canRead() && isAllowedNumber(peek())) {
-            skip();
-        }
-
-        final String number = string.substring(start, cursor);
-        if (number.isEmpty()) {
+        skipNumber();
+        if (cursor == start) {
             throw BuiltInExceptions.parserExpectedInt(this);
         }
         try {
-            return Integer.parseInt(number);
+            return Integer.parseInt(string, start, cursor, 10);
         } catch (final NumberFormatException ex) {
+            final String number = string.substring(start, cursor);
             cursor = start;
             throw BuiltInExceptions.parserInvalidInt(this, number);
         }
@@ -120,17 +126,14 @@ public class Parser {
 
     public long readLong() throws CommandSyntaxException {
         final int start = cursor;
-        while (canRead() && isAllowedNumber(peek())) {
-            skip();
-        }
-
-        final String number = string.substring(start, cursor);
-        if (number.isEmpty()) {
+        skipNumber();
+        if (cursor == start) {
             throw BuiltInExceptions.parserExpectedLong(this);
         }
         try {
-            return Long.parseLong(number);
+            return Long.parseLong(string, start, cursor, 10);
         } catch (final NumberFormatException ex) {
+            final String number = string.substring(start, cursor);
             cursor = start;
             throw BuiltInExceptions.parserInvalidLong(this, number);
         }
@@ -138,14 +141,15 @@ public class Parser {
 
     public double readDouble() throws CommandSyntaxException {
         final int start = cursor;
-        while (canRead() && isAllowedNumber(peek())) {
-            skip();
-        }
-
-        final String number = string.substring(start, cursor);
-        if (number.isEmpty()) {
+        skipNumber();
+        if (cursor == start) {
             throw BuiltInExceptions.parserExpectedDouble(this);
         }
+        final long integral = parseSmallInteger(start, cursor, 15);
+        if (integral != NOT_SMALL_INTEGER) {
+            return integral == 0 && string.charAt(start) == '-' ? -0.0 : integral;
+        }
+        final String number = string.substring(start, cursor);
         try {
             return Double.parseDouble(number);
         } catch (final NumberFormatException ex) {
@@ -156,14 +160,15 @@ public class Parser {
 
     public float readFloat() throws CommandSyntaxException {
         final int start = cursor;
-        while (canRead() && isAllowedNumber(peek())) {
-            skip();
-        }
-
-        final String number = string.substring(start, cursor);
-        if (number.isEmpty()) {
+        skipNumber();
+        if (cursor == start) {
             throw BuiltInExceptions.parserExpectedFloat(this);
         }
+        final long integral = parseSmallInteger(start, cursor, 7);
+        if (integral != NOT_SMALL_INTEGER) {
+            return integral == 0 && string.charAt(start) == '-' ? -0.0f : integral;
+        }
+        final String number = string.substring(start, cursor);
         try {
             return Float.parseFloat(number);
         } catch (final NumberFormatException ex) {
@@ -172,6 +177,35 @@ public class Parser {
         }
     }
 
+    private void skipNumber() {
+        while (canRead() && isAllowedNumber(peek())) {
+            skip();
+        }
+    }
+
+    /**
+     * 将一段可选负号加上不超过 {@code maxDigits} 位数字的文本解析为整数。
+     * 这样的整数能被浮点数精确表示，因此可以不经 {@link Double#parseDouble(String)} 直接转换。
+     *
+     * @return 解析结果，文本不是这样的整数时为 {@link #NOT_SMALL_INTEGER}
+     */
+    private long parseSmallInteger(int start, int end, int maxDigits) {
+        boolean negative = string.charAt(start) == '-';
+        int i = negative ? start + 1 : start;
+        if (i == end || end - i > maxDigits) {
+            return NOT_SMALL_INTEGER;
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            char c = string.charAt(i);
+            if (c < '0' || c > '9') {
+                return NOT_SMALL_INTEGER;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return negative ? -value : value;
+    }
+
     public static boolean isAllowedInUnquotedString(final char c) {
         return c >= '0' && c <= '9'
                 || c >= 'A' && c <= 'Z'
@@ -182,15 +216,43 @@ public class Parser {
     }
 
     public String readUnquotedString() throws CommandSyntaxException {
+        return readUnquotedView().toString();
+    }
+
+    /**
+     * 读取一个不带引号的字符串，返回输入文本中对应区间的视图而不复制字符。
+     *
+     * @return 输入文本的视图，需要保存时应调用 {@link CharSequence#toString()}
+     * @throws CommandSyntaxException 没有可读的字符
+     */
+    public CharSequence readUnquotedView() throws CommandSyntaxException {
         final int start = cursor;
         if (!canRead()) {
-            setCursor(start);
             throw BuiltInExceptions.parserExpectedString(this);
         }
+        skipUnquoted();
+        return CharBuffer.wrap(string, start, cursor);
+    }
+
+    /**
+     * 跳过不带引号的字符串中允许出现的字符。
+     */
+    public void skipUnquoted() {
         while (canRead() && isAllowedInUnquotedString(peek())) {
             skip();
         }
-        return string.substring(start, cursor);
+    }
+
+    /**
+     * 判断输入文本的 {@code [start, end)} 区间是否与给定的字符串相同。
+     *
+     * @param start 区间的开始
+     * @param end   区间的结束
+     * @param s     要比较的字符串
+     * @return 相同时返回 {@code true}
+     */
+    public boolean regionEquals(int start, int end, String s) {
+        return end - start == s.length() && string.regionMatches(start, s, 0, s.length());
     }
 
     public String readQuotedString() throws CommandSyntaxException {
@@ -208,6 +270,18 @@ public class Parser {
     }
 
     public String readStringUntil(char terminator) throws CommandSyntaxException {
+        // 没有转义字符时直接截取，不需要逐个字符复制
+        final int start = cursor;
+        for (int i = start; i < string.length(); i++) {
+            final char c = string.charAt(i);
+            if (c == SYNTAX_ESCAPE) {
+                break;
+            }
+            if (c == terminator) {
+                cursor = i + 1;
+                return string.substring(start, i);
+            }
+        }
         final StringBuilder result = new StringBuilder();
         boolean escaped = false;
         while (canRead()) {
@@ -246,6 +320,15 @@ public class Parser {
 
     public boolean readBoolean() throws CommandSyntaxException {
         final int start = cursor;
+        if (canRead() && !isQuotedStringStart(peek())) {
+            skipUnquoted();
+            if (regionEquals(start, cursor, "true")) {
+                return true;
+            } else if (regionEquals(start, cursor, "false")) {
+                return false;
+            }
+            cursor = start;
+        }
         final String value = readString();
         if (value.isEmpty()) {
             throw BuiltInExceptions.parserExpectedBool(this);
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.service.command;
+
+import top.spco.api.Group;
+import top.spco.api.Interactive;
+import top.spco.core.config.RateLimitSettings;
+import top.spco.core.config.Settings;
+import top.spco.user.BotUser;
+import top.spco.user.UserPermission;
+import top.spco.util.TokenBucketTable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 命令限流器。
+ *
+ * <p>每次命令调用依次从以下令牌桶中取出令牌，任何一个桶的令牌不足时，已取出的令牌会被放回，命令不会被执行：
+ * <ol>
+ * <li>命令的全局桶：仅对配置了每分钟调用上限的命令存在，由所有用户共用。</li>
+ * <li>群的桶：仅在群中调用时使用，由群内所有用户共用。</li>
+ * <li>用户的桶。</li>
+ * </ol>
+ * 群和用户的桶按命令的消耗取出令牌，命令的全局桶每次取出1个令牌。对未知命令的提示也按消耗1计入群和用户的桶。
+ * 机器人管理员和机器人主人不受限制。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @see TokenBucketTable
+ * @see RateLimitSettings
+ * @since 4.0.0
+ */
+public class RateLimiter {
+    /**
+     * 用户和群的令牌桶表的大小
+     */
+    private static final int TABLE_CAPACITY = 8192;
+    private final TokenBucketTable users;
+    private final TokenBucketTable groups;
+    private final Map<String, Integer> costs;
+    private final Map<String, TokenBucketTable> commands = new HashMap<>();
+    private final LongAdder rejected = new LongAdder();
+    /**
+     * 以用户ID为键，用户最近一次收到限流提示后所需等待的截止时刻
+     */
+    private final ConcurrentHashMap<Long, Long> notices = new ConcurrentHashMap<>();
+
+    /**
+     * 根据配置创建限流器。
+     *
+     * @param settings 配置
+     */
+    public RateLimiter(Settings settings) {
+        this.users = new TokenBucketTable(TABLE_CAPACITY,
+                settings.getIntegerProperty(RateLimitSettings.USER_BURST),
+                settings.getLongProperty(RateLimitSettings.USER_REFILL_MILLIS));
+        this.groups = new TokenBucketTable(TABLE_CAPACITY,
+                settings.getIntegerProperty(RateLimitSettings.GROUP_BURST),
+                settings.getLongProperty(RateLimitSettings.GROUP_REFILL_MILLIS));
+        this.costs = Map.copyOf(settings.getIntegerMapProperty(RateLimitSettings.COMMAND_COSTS));
+        for (var entry : settings.getIntegerMapProperty(RateLimitSettings.COMMAND_PER_MINUTE).entrySet()) {
+            int perMinute = entry.getValue();
+            if (perMinute > 0) {
+                commands.put(entry.getKey(), new TokenBucketTable(1, perMinute, Math.max(1, TimeUnit.MINUTES.toMillis(1) / perMinute)));
+            }
+        }
+    }
+
+    /**
+     * 为一次命令调用取出令牌。
+     *
+     * @param command 被调用的命令
+     * @param from    消息来源
+     * @param user    发送者
+     * @return 可以执行时为0，否则为需要等待的毫秒数
+     */
+    public long tryAcquire(Command command, Interactive<?> from, BotUser user) {
+        return tryAcquire(command.getLabels()[0], from, user.getId(), user.getPermission());
+    }
+
+    /**
+     * 为一次未知命令的提示取出令牌。
+     *
+     * @param from       消息来源
+     * @param userId     发送者的ID
+     * @param permission 发送者的权限
+     * @return 可以提示时为0，否则为需要等待的毫秒数
+     */
+    public long tryAcquire(Interactive<?> from, long userId, UserPermission permission) {
+        return tryAcquire(null, from, userId, permission);
+    }
+
+    private long tryAcquire(String label, Interactive<?> from, long userId, UserPermission permission) {
+        if (permission.isOperator()) {
+            return 0;
+        }
+        int cost = label == null ? 1 : costs.getOrDefault(label, 1);
+        long now = System.nanoTime();
+        TokenBucketTable global = label == null ? null : commands.get(label);
+        long wait;
+        if (global != null && (wait = global.tryAcquire(0, 1, now)) > 0) {
+            return reject(wait);
+        }
+        boolean inGroup = from instanceof Group<?>;
+        if (inGroup && (wait = groups.tryAcquire(from.getId(), cost, now)) > 0) {
+            if (global != null) {
+                global.refund(0, 1);
+            }
+            return reject(wait);
+        }
+        if ((wait = users.tryAcquire(userId, cost, now)) > 0) {
+            if (inGroup) {
+                groups.refund(from.getId(), cost);
+            }
+            if (global != null) {
+                global.refund(0, 1);
+            }
+            return reject(wait);
+        }
+        return 0;
+    }
+
+    private long reject(long waitNanos) {
+        rejected.increment();
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+    }
+
+    /**
+     * 判断是否应当告知被拒绝的用户。用户收到提示后，在提示中的等待时间结束前再被拒绝时不再提示，以免刷屏。
+     *
+     * @param userId     用户的ID
+     * @param waitMillis 本次拒绝需要等待的毫秒数
+     * @return 是否应当告知用户
+     */
+    public boolean shouldNotify(long userId, long waitMillis) {
+        long now = System.nanoTime();
+        long until = now + TimeUnit.MILLISECONDS.toNanos(waitMillis);
+        boolean[] notify = new boolean[1];
+        notices.compute(userId, (k, last) -> {
+            if (last != null && last - now > 0) {
+                return last;
+            }
+            notify[0] = true;
+            return until;
+        });
+        if (notices.size() > TABLE_CAPACITY) {
+            notices.values().removeIf(last -> last - now <= 0);
+        }
+        return notify[0];
+    }
+
+    /**
+     * @return 被拒绝的调用次数
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return 尚未恢复满的用户令牌桶数
+     */
+    public int getActiveUserCount() {
+        return users.activeCount(System.nanoTime());
+    }
+}
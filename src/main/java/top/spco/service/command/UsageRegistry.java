@@ -0,0 +1,173 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.service.command;
+
+import top.spco.service.command.usage.Usage;
+import top.spco.user.UserPermission;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 在命令注册结束时生成的用法与帮助信息表。
+ *
+ * <p>表中保存：
+ * <ul>
+ * <li>每个作用域下每个命令标签的用法字符串，以及拼接好的用法文本。</li>
+ * <li>每个作用域、每个权限等级可见的帮助文本。命令按 {@link Command#needPermission()} 过滤，
+ * 重写了 {@link Command#hasPermission(top.spco.user.BotUser)} 的命令以其所需权限为准。</li>
+ * <li>不区分作用域和权限的完整帮助列表。</li>
+ * </ul>
+ * 这些内容都在构建时一次性生成，之后不再修改，{@code /help} 和 {@code /usage} 只需查表，不会在每条消息上重新构造用法对象和字符串。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @see CommandDispatcher
+ * @since 4.0.0
+ */
+final class UsageRegistry {
+    private static final UserPermission[] PERMISSIONS = UserPermission.values();
+    private final List<String> helpList;
+    private final Map<CommandScope, ScopeEntry> scopes = new EnumMap<>(CommandScope.class);
+
+    /**
+     * 生成用法与帮助信息表。
+     *
+     * @param scopeCommands 各作用域下以标签为键的命令表
+     * @param usageTrees    各命令的用法决策树
+     */
+    UsageRegistry(Map<CommandScope, Map<String, Command>> scopeCommands, Map<Command, UsageTree> usageTrees) {
+        Set<Command> all = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (var entry : scopeCommands.entrySet()) {
+            all.addAll(entry.getValue().values());
+            scopes.put(entry.getKey(), new ScopeEntry(entry.getValue(), usageTrees));
+        }
+        this.helpList = List.copyOf(renderHelp(all, null));
+    }
+
+    /**
+     * @return 所有可见命令的帮助列表，不可修改
+     */
+    List<String> getHelpList() {
+        return helpList;
+    }
+
+    /**
+     * 获取指定作用域和权限下的帮助文本。
+     *
+     * @param scope      命令作用域
+     * @param permission 用户权限
+     * @return 帮助文本，作用域不存在时为 {@code null}
+     */
+    String getHelpText(CommandScope scope, UserPermission permission) {
+        ScopeEntry entry = scopes.get(scope);
+        return entry == null ? null : entry.helpTexts[permission.getLevel()];
+    }
+
+    /**
+     * 获取命令在指定作用域下的所有用法。
+     *
+     * @param scope 命令作用域
+     * @param label 命令标签
+     * @return 用法字符串列表，不可修改，命令不存在时为 {@code null}
+     */
+    List<String> getUsages(CommandScope scope, String label) {
+        ScopeEntry entry = scopes.get(scope);
+        return entry == null ? null : entry.usages.get(label);
+    }
+
+    /**
+     * 获取命令在指定作用域下的用法文本。
+     *
+     * @param scope 命令作用域
+     * @param label 命令标签
+     * @return 用法文本，命令不存在时为 {@code null}
+     */
+    String getUsageText(CommandScope scope, String label) {
+        ScopeEntry entry = scopes.get(scope);
+        return entry == null ? null : entry.usageTexts.get(label);
+    }
+
+    /**
+     * 生成帮助列表。主标签显示为 {@code 标签 - 描述}，别名显示为 {@code 别名 -> 主标签}，按字母顺序排列。
+     *
+     * @param commands   命令
+     * @param permission 用户权限，为 {@code null} 时不按权限过滤
+     */
+    private static List<String> renderHelp(Iterable<Command> commands, UserPermission permission) {
+        List<String> help = new ArrayList<>();
+        for (Command command : commands) {
+            if (!command.isVisible()) {
+                continue;
+            }
+            if (permission != null && command.needPermission().getLevel() > permission.getLevel()) {
+                continue;
+            }
+            String[] labels = command.getLabels();
+            help.add(labels[0] + " - " + command.getDescriptions());
+            for (int i = 1; i < labels.length; i++) {
+                help.add(labels[i] + " -> " + labels[0]);
+            }
+        }
+        help.sort(String::compareToIgnoreCase);
+        return help;
+    }
+
+    private static String join(List<String> lines) {
+        StringBuilder sb = new StringBuilder();
+        for (String line : lines) {
+            sb.append(line).append("\n");
+        }
+        return sb.toString();
+    }
+
+    private static final class ScopeEntry {
+        private final Map<String, List<String>> usages;
+        private final Map<String, String> usageTexts;
+        private final String[] helpTexts = new String[PERMISSIONS.length];
+
+        private ScopeEntry(Map<String, Command> commands, Map<Command, UsageTree> usageTrees) {
+            Map<Command, List<String>> rendered = new IdentityHashMap<>();
+            Map<String, List<String>> usages = new HashMap<>();
+            Map<String, String> usageTexts = new HashMap<>();
+            for (var entry : commands.entrySet()) {
+                // 同一命令的多个标签共用同一份用法字符串
+                List<String> lines = rendered.computeIfAbsent(entry.getValue(), command -> {
+                    List<String> list = new ArrayList<>();
+                    for (Usage usage : usageTrees.get(command).getUsages()) {
+                        list.add(usage.toString());
+                    }
+                    return List.copyOf(list);
+                });
+                usages.put(entry.getKey(), lines);
+                usageTexts.put(entry.getKey(), join(lines));
+            }
+            this.usages = Map.copyOf(usages);
+            this.usageTexts = Map.copyOf(usageTexts);
+            Set<Command> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+            distinct.addAll(commands.values());
+            for (UserPermission permission : PERMISSIONS) {
+                helpTexts[permission.getLevel()] = join(renderHelp(distinct, permission));
+            }
+        }
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.service.command;
+
+import top.spco.service.command.exceptions.CommandSyntaxException;
+import top.spco.service.command.usage.Usage;
+import top.spco.service.command.usage.parameters.Parameter;
+import top.spco.service.command.usage.parameters.SpecifiedParameter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 由一个命令的所有用法编译成的决策树。
+ *
+ * <p>每个用法是从根节点出发的一条路径，路径上的每条边对应用法的一个参数，前缀相同的用法共用同一段路径：
+ * <ul>
+ * <li>必填的 {@link SpecifiedParameter} 以其指定值为键，同一节点上的所有指定值只需读取一次单词，再查表选出分支。</li>
+ * <li>其余参数只有在多个用法使用同一个参数对象时才会合并。</li>
+ * </ul>
+ * 因此每段共用的输入只解析一次，匹配的开销取决于输入的长度，而不是用法的数量。
+ *
+ * <p>多个用法都能匹配时，与逐个尝试用法时一样，选择声明在最前面的用法。每个节点记录了其下用法的最小序号，
+ * 已找到的匹配比某个分支中所有用法都靠前时，该分支不再尝试。
+ *
+ * <p>树在命令注册时构建，之后不再修改，可以被多个线程同时使用。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @see CommandDispatcher
+ * @since 4.0.0
+ */
+final class UsageTree {
+    private final List<Usage> usages;
+    private final Node root = new Node(0);
+    private final int maxDepth;
+
+    /**
+     * 编译命令的用法。
+     *
+     * @param usages 命令的所有用法，按声明顺序排列
+     */
+    UsageTree(List<Usage> usages) {
+        this.usages = List.copyOf(usages);
+        int depth = 0;
+        for (int i = 0; i < this.usages.size(); i++) {
+            List<Parameter<?>> params = this.usages.get(i).getParams();
+            depth = Math.max(depth, params.size());
+            Node node = root;
+            node.minIndex = Math.min(node.minIndex, i);
+            for (Parameter<?> param : params) {
+                node = node.child(param);
+                node.minIndex = Math.min(node.minIndex, i);
+            }
+            if (node.terminal < 0) {
+                node.terminal = i;
+            }
+        }
+        this.maxDepth = depth;
+        root.seal();
+    }
+
+    /**
+     * @return 命令的所有用法，按声明顺序排列
+     */
+    List<Usage> getUsages() {
+        return usages;
+    }
+
+    /**
+     * 从解析器的当前位置开始匹配用法。
+     *
+     * @param parser 解析器，光标位于第一个参数处
+     * @return 匹配到的用法和参数，没有用法能完整匹配输入时返回 {@code null}，此时光标的位置不确定
+     */
+    Match match(Parser parser) {
+        State state = new State(maxDepth);
+        visit(root, parser, parser.getCursor(), state);
+        if (state.best == Integer.MAX_VALUE) {
+            return null;
+        }
+        Usage usage = usages.get(state.best);
+        LinkedHashMap<String, Object> params = new LinkedHashMap<>();
+        List<Parameter<?>> usageParams = usage.getParams();
+        for (int i = 0; i < usageParams.size(); i++) {
+            params.put(usageParams.get(i).getName(), state.bestValues[i]);
+        }
+        parser.setCursor(parser.getTotalLength());
+        return new Match(usage, params);
+    }
+
+    private void visit(Node node, Parser parser, int cursor, State state) {
+        if (node.minIndex >= state.best) {
+            return;
+        }
+        parser.setCursor(cursor);
+        if (node.terminal >= 0 && node.terminal < state.best && !parser.canRead()) {
+            state.best = node.terminal;
+            System.arraycopy(state.values, 0, state.bestValues, 0, node.depth);
+        }
+        if (node.literalKeys.length > 0 && parser.canRead()) {
+            // 直接在输入文本上比较指定值，参数值使用指定值本身，不截取子串
+            parser.skipUnquoted();
+            int end = parser.getCursor();
+            for (int i = 0; i < node.literalKeys.length; i++) {
+                if (parser.regionEquals(cursor, end, node.literalKeys[i])) {
+                    state.values[node.depth] = node.literalKeys[i];
+                    advance(node.literalNodes[i], parser, state);
+                    break;
+                }
+            }
+        }
+        for (Edge edge : node.edges) {
+            if (edge.child.minIndex >= state.best) {
+                continue;
+            }
+            parser.setCursor(cursor);
+            Object value;
+            if (edge.param.isOptional() && !parser.canRead()) {
+                value = edge.param.getDefaultValue();
+            } else {
+                try {
+                    value = edge.param.parse(parser);
+                } catch (CommandSyntaxException e) {
+                    continue;
+                }
+            }
+            state.values[node.depth] = value;
+            advance(edge.child, parser, state);
+        }
+    }
+
+    /**
+     * 跳过参数分隔符后进入子节点。参数后既不是输入末尾也不是分隔符时，该分支不匹配。
+     */
+    private void advance(Node child, Parser parser, State state) {
+        if (parser.canRead()) {
+            if (parser.peek() != CommandDispatcher.PARAMETER_SEPARATOR_CHAR) {
+                return;
+            }
+            parser.skip();
+        }
+        visit(child, parser, parser.getCursor(), state);
+    }
+
+    /**
+     * 匹配的结果。
+     *
+     * @param usage  匹配到的用法
+     * @param params 以参数名为键的参数值，顺序与用法中的参数一致
+     */
+    record Match(Usage usage, LinkedHashMap<String, Object> params) {
+    }
+
+    private static final class Node {
+        final int depth;
+        /**
+         * 以指定值为键的必填 {@link SpecifiedParameter} 分支
+         */
+        final Map<String, Node> literals = new HashMap<>();
+        /**
+         * {@link #literals} 的键和值，在构建完成后由 {@link #seal()} 生成，匹配时按顺序比较
+         */
+        String[] literalKeys;
+        Node[] literalNodes;
+        final List<Edge> edges = new ArrayList<>();
+        /**
+         * 其下所有用法的最小序号
+         */
+        int minIndex = Integer.MAX_VALUE;
+        /**
+         * 在此结束的用法的序号，没有时为 {@code -1}
+         */
+        int terminal = -1;
+
+        Node(int depth) {
+            this.depth = depth;
+        }
+
+        void seal() {
+            literalKeys = new String[literals.size()];
+            literalNodes = new Node[literals.size()];
+            int i = 0;
+            for (Map.Entry<String, Node> entry : literals.entrySet()) {
+                literalKeys[i] = entry.getKey();
+                literalNodes[i] = entry.getValue();
+                entry.getValue().seal();
+                i++;
+            }
+            for (Edge edge : edges) {
+                edge.child.seal();
+            }
+        }
+
+        Node child(Parameter<?> param) {
+            if (param instanceof SpecifiedParameter specified && !specified.isOptional()) {
+                return literals.computeIfAbsent(specified.getDefaultValue(), key -> new Node(depth + 1));
+            }
+            for (Edge edge : edges) {
+                if (edge.param == param) {
+                    return edge.child;
+                }
+            }
+            Edge edge = new Edge(param, new Node(depth + 1));
+            edges.add(edge);
+            return edge.child;
+        }
+    }
+
+    private record Edge(Parameter<?> param, Node child) {
+    }
+
+    /**
+     * 一次匹配过程中的状态，每次匹配单独创建。
+     */
+    private static final class State {
+        /**
+         * 当前路径上各参数的值
+         */
+        final Object[] values;
+        final Object[] bestValues;
+        /**
+         * 已找到的匹配中最靠前的用法的序号
+         */
+        int best = Integer.MAX_VALUE;
+
+        State(int maxDepth) {
+            this.values = new Object[maxDepth];
+            this.bestValues = new Object[maxDepth];
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.service.command.commands;
+
+import top.spco.SpCoBot;
+import top.spco.api.Bot;
+import top.spco.api.Interactive;
+import top.spco.api.User;
+import top.spco.api.message.Message;
+import top.spco.core.database.DataBaseBackup;
+import top.spco.service.command.AbstractCommand;
+import top.spco.service.command.CommandMarker;
+import top.spco.service.command.CommandMeta;
+import top.spco.service.command.usage.Usage;
+import top.spco.service.command.usage.UsageBuilder;
+import top.spco.service.command.usage.parameters.SpecifiedParameter;
+import top.spco.user.BotUser;
+import top.spco.user.UserPermission;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * 数据库备份命令
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+@CommandMarker
+public class BackupCommand extends AbstractCommand {
+    @Override
+    public String[] getLabels() {
+        return new String[]{"backup"};
+    }
+
+    @Override
+    public String getDescriptions() {
+        return "备份数据库";
+    }
+
+    @Override
+    public List<Usage> getUsages() {
+        return List.of(
+                new UsageBuilder(getLabels()[0], "立即备份数据库").build(),
+                new UsageBuilder(getLabels()[0], "查看数据库备份")
+                        .add(new SpecifiedParameter("操作类型", false, "list", "list")).build());
+    }
+
+    @Override
+    public UserPermission needPermission() {
+        return UserPermission.OWNER;
+    }
+
+    @Override
+    public void onCommand(Bot<?> bot, Interactive<?> from, User<?> sender, BotUser user, Message<?> message, int time, CommandMeta meta, String usageName) {
+        DataBaseBackup dataBaseBackup = SpCoBot.getInstance().getDataBaseBackup();
+        if (dataBaseBackup == null) {
+            from.quoteReply(message, "当前未使用SQLite存储，无需备份数据库");
+            return;
+        }
+        switch (usageName) {
+            case "立即备份数据库" -> {
+                from.quoteReply(message, "开始备份数据库");
+                long start = System.currentTimeMillis();
+                dataBaseBackup.backupNow().whenComplete((path, e) -> {
+                    if (e != null) {
+                        from.handleException(message, "备份数据库失败", e);
+                        return;
+                    }
+                    from.quoteReply(message, "已备份至 " + path.getFileName() + "，耗时" + (System.currentTimeMillis() - start) + "ms");
+                });
+            }
+            case "查看数据库备份" -> {
+                List<File> backups = dataBaseBackup.listBackups();
+                if (backups.isEmpty()) {
+                    from.quoteReply(message, "没有数据库备份");
+                    return;
+                }
+                StringBuilder sb = new StringBuilder("数据库备份：");
+                for (File backup : backups) {
+                    sb.append("\n").append(backup.getName()).append(" (").append(backup.length() / 1024).append("KB)");
+                }
+                from.quoteReply(message, sb.toString());
+            }
+        }
+    }
+}
@@ -15,31 +15,42 @@
  */
 package top.spco.service.command.commands;
 
-import top.spco.SpCoBot;
 import top.spco.api.Bot;
 import top.spco.api.Interactive;
 import top.spco.api.User;
 import top.spco.api.message.Message;
+import top.spco.core.storage.BalanceEntry;
+import top.spco.core.storage.CoinType;
 import top.spco.service.command.AbstractCommand;
 import top.spco.service.command.CommandMarker;
 import top.spco.service.command.CommandMeta;
+import top.spco.service.command.usage.Usage;
+import top.spco.service.command.usage.UsageBuilder;
+import top.spco.service.command.usage.parameters.IntegerParameter;
+import top.spco.service.command.usage.parameters.SelectionParameter;
+import top.spco.service.command.usage.parameters.SpecifiedParameter;
 import top.spco.user.BotUser;
+import top.spco.user.Leaderboard;
 
-import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 /**
+ * 查看余额排行榜。
+ *
+ * <p>排行榜由 {@link Leaderboard} 维护，查看前几名时无需访问数据库。
+ *
  * @author SpCo
- * @version 2.0.4
+ * @version 4.0.0
  * @since 0.1.0
  */
 @CommandMarker
 public class BalanceTopCommand extends AbstractCommand {
+    /**
+     * 每页的名次数
+     */
+    private static final int PAGE_SIZE = 10;
+
     @Override
     public String[] getLabels() {
         return new String[]{"balancetop"};
@@ -50,45 +61,59 @@ public class BalanceTopCommand extends AbstractCommand {
         return "查看海绵山币排行榜";
     }
 
+    @Override
+    public List<Usage> getUsages() {
+        return List.of(
+                new UsageBuilder(getLabels()[0], "查看海绵山币排行榜").build(),
+                new UsageBuilder(getLabels()[0], "查看指定排行榜")
+                        .add(new SelectionParameter("排行榜", false, null, "smf", "star"))
+                        .build(),
+                new UsageBuilder(getLabels()[0], "查看指定排行榜的指定页")
+                        .add(new SelectionParameter("排行榜", false, null, "smf", "star"))
+                        .add(new IntegerParameter("页码", false, null, 1, 100000))
+                        .build(),
+                new UsageBuilder(getLabels()[0], "查看我的排名")
+                        .add(new SpecifiedParameter("操作类型", false, "rank", "rank"))
+                        .build());
+    }
+
     @Override
     public void onCommand(Bot<?> bot, Interactive<?> from, User<?> sender, BotUser user, Message<?> message, int time, CommandMeta meta, String usageName) {
-        if (usageName.equals("查看海绵山币排行榜")) {
-            try {
-                List<Map.Entry<Long, Integer>> topRecords = new ArrayList<>(getRecords().entrySet());
-                // 使用比较器进行值的降序排序
-                topRecords.sort((entry1, entry2) -> entry2.getValue().compareTo(entry1.getValue()));
-                // 取前10个记录
-                if (topRecords.size() > 10) {
-                    topRecords = topRecords.subList(0, 10);
+        try {
+            switch (usageName) {
+                case "查看海绵山币排行榜" -> from.quoteReply(message, render(CoinType.SMF_COIN, 1));
+                case "查看指定排行榜" -> from.quoteReply(message, render(coinTypeOf(meta), 1));
+                case "查看指定排行榜的指定页" -> from.quoteReply(message, render(coinTypeOf(meta), (Integer) meta.getParams().get("页码")));
+                case "查看我的排名" -> {
+                    long smfRank = Leaderboard.of(CoinType.SMF_COIN).rankOf(user.getId(), user.getSMFCoin());
+                    long starRank = Leaderboard.of(CoinType.STAR_COIN).rankOf(user.getId(), user.getStarCoin());
+                    from.quoteReply(message, "海绵山币: " + user.getSMFCoin() + "，第" + smfRank + "名\n星币: " + user.getStarCoin() + "，第" + starRank + "名");
                 }
-                // 处理前十个最大值的记录
-                StringBuilder sb = new StringBuilder("海绵山富豪榜\n");
-                int no = 1;
-                for (Map.Entry<Long, Integer> entry : topRecords) {
-                    long id = entry.getKey();
-                    int coin = entry.getValue();
-                    sb.append(no).append(". ").append(id).append(" - ").append(coin).append("\n");
-                    no += 1;
-                }
-                from.quoteReply(message, sb.toString());
-            } catch (SQLException e) {
-                from.handleException("查询记录失败", e);
             }
+        } catch (SQLException e) {
+            from.handleException("查询记录失败", e);
         }
     }
 
-    private static Map<Long, Integer> getRecords() throws SQLException {
-        Map<Long, Integer> recordsMap = new HashMap<>();
-        // 创建查询语句
-        String sql = "SELECT id, smf_coin FROM user";
-        try (Statement statement = SpCoBot.getInstance().getDataBase().getConn().createStatement();
-             ResultSet resultSet = statement.executeQuery(sql)) {
-            while (resultSet.next()) {
-                long id = resultSet.getLong("id");
-                int coin = resultSet.getInt("smf_coin");
-                recordsMap.put(id, coin);
-            }
-            return recordsMap;
+    private static CoinType coinTypeOf(CommandMeta meta) {
+        return "star".equals(meta.getParams().get("排行榜")) ? CoinType.STAR_COIN : CoinType.SMF_COIN;
+    }
+
+    private static String render(CoinType type, int page) throws SQLException {
+        int offset = (page - 1) * PAGE_SIZE;
+        List<BalanceEntry> entries = Leaderboard.of(type).page(offset, PAGE_SIZE);
+        if (entries.isEmpty()) {
+            return "该页没有记录";
+        }
+        StringBuilder sb = new StringBuilder(type == CoinType.SMF_COIN ? "海绵山富豪榜" : "星币排行榜");
+        if (page > 1) {
+            sb.append("（第").append(page).append("页）");
+        }
+        sb.append("\n");
+        int no = offset + 1;
+        for (BalanceEntry entry : entries) {
+            sb.append(no++).append(". ").append(entry.id()).append(" - ").append(entry.balance()).append("\n");
         }
+        return sb.toString();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.service.command.commands;
+
+import top.spco.SpCoBot;
+import top.spco.api.Bot;
+import top.spco.api.Interactive;
+import top.spco.api.User;
+import top.spco.api.message.Message;
+import top.spco.service.command.AbstractCommand;
+import top.spco.service.command.CommandMarker;
+import top.spco.service.command.CommandMeta;
+import top.spco.service.command.CommandMetrics;
+import top.spco.service.command.usage.Usage;
+import top.spco.service.command.usage.UsageBuilder;
+import top.spco.service.command.util.SpecifiedParameterHelper;
+import top.spco.service.command.util.SpecifiedParameterSet;
+import top.spco.statistics.LatencyHistogram;
+import top.spco.user.BotUser;
+import top.spco.user.UserPermission;
+
+import java.util.List;
+
+/**
+ * 查看命令的调用统计
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+@CommandMarker
+public class CmdStatsCommand extends AbstractCommand {
+    /**
+     * 最多展示的用法数
+     */
+    private static final int TOP_LIMIT = 10;
+
+    @Override
+    public String[] getLabels() {
+        return new String[]{"cmdstats"};
+    }
+
+    @Override
+    public String getDescriptions() {
+        return "查看命令的调用统计";
+    }
+
+    @Override
+    public List<Usage> getUsages() {
+        SpecifiedParameterSet set = new SpecifiedParameterHelper("操作类型", false).add("all", "reset").build();
+        return List.of(
+                new UsageBuilder(getLabels()[0], "查看最近一小时最慢的命令").build(),
+                new UsageBuilder(getLabels()[0], "查看全部时间最慢的命令").add(set.get("all")).build(),
+                new UsageBuilder(getLabels()[0], "重置命令统计").add(set.get("reset")).build());
+    }
+
+    @Override
+    public UserPermission needPermission() {
+        return UserPermission.OWNER;
+    }
+
+    @Override
+    public void onCommand(Bot<?> bot, Interactive<?> from, User<?> sender, BotUser user, Message<?> message, int time, CommandMeta meta, String usageName) {
+        CommandMetrics metrics = SpCoBot.getInstance().getCommandDispatcher().getMetrics();
+        switch (usageName) {
+            case "查看最近一小时最慢的命令" -> from.quoteReply(message, render("最近一小时最慢的命令：", metrics.top(TOP_LIMIT, true)));
+            case "查看全部时间最慢的命令" -> from.quoteReply(message, render("最慢的命令：", metrics.top(TOP_LIMIT, false)));
+            case "重置命令统计" -> {
+                metrics.reset();
+                from.quoteReply(message, "已重置");
+            }
+        }
+    }
+
+    private static String render(String title, List<CommandMetrics.Entry> top) {
+        if (top.isEmpty()) {
+            return "暂无统计";
+        }
+        StringBuilder sb = new StringBuilder(title);
+        int no = 1;
+        for (CommandMetrics.Entry entry : top) {
+            LatencyHistogram latency = entry.latency();
+            sb.append("\n").append(no++).append(". ").append(entry.label());
+            if (latency == null) {
+                sb.append("\n\t无执行记录");
+            } else {
+                sb.append(" ").append(entry.usageName())
+                        .append("\n\t").append(latency.count()).append("次，")
+                        .append("p50 ").append(latency.percentileMicros(0.5) / 1000).append("ms，")
+                        .append("p99 ").append(entry.p99Micros() / 1000).append("ms，")
+                        .append("最长").append(latency.maxMicros() / 1000).append("ms，")
+                        .append("异常").append(entry.exceptions()).append("次");
+            }
+            sb.append("\n\t参数错误").append(entry.command().getParseFailures()).append("次，")
+                    .append("无权限").append(entry.command().getPermissionDenials()).append("次，")
+                    .append("被限流").append(entry.command().getRateLimited()).append("次");
+        }
+        return sb.toString();
+    }
+}
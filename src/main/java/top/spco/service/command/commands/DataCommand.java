@@ -20,6 +20,9 @@ import top.spco.api.Bot;
 import top.spco.api.Interactive;
 import top.spco.api.User;
 import top.spco.api.message.Message;
+import top.spco.core.database.DataBase;
+import top.spco.core.feature.FeatureRegistry;
+import top.spco.core.storage.CoinType;
 import top.spco.service.command.AbstractCommand;
 import top.spco.service.command.CommandMarker;
 import top.spco.service.command.CommandMeta;
@@ -29,6 +32,8 @@ import top.spco.service.command.util.SpecifiedParameterHelper;
 import top.spco.service.command.util.SpecifiedParameterSet;
 import top.spco.service.command.usage.parameters.StringParameter;
 import top.spco.user.BotUser;
+import top.spco.user.BotUsers;
+import top.spco.user.Leaderboard;
 import top.spco.user.UserPermission;
 
 import java.sql.SQLException;
@@ -85,6 +90,12 @@ public class DataCommand extends AbstractCommand {
      */
     @Override
     public void onCommand(Bot<?> bot, Interactive<?> from, User<?> sender, BotUser user, Message<?> message, int time, CommandMeta meta, String usageName) {
+        DataBase dataBase = SpCoBot.getInstance().getDataBase();
+        if (dataBase == null) {
+            // 内存存储没有可以按表名访问的数据库
+            from.quoteReply(message, "当前未使用SQLite存储，无法直接操作数据");
+            return;
+        }
         switch (usageName) {
             case "查询记录" -> {
                 String table = (String) meta.getParams().get("表名");
@@ -92,7 +103,7 @@ public class DataCommand extends AbstractCommand {
                 String whereClause = (String) meta.getParams().get("字段名");
                 String whereValues = (String) meta.getParams().get("记录值");
                 try {
-                    String value = SpCoBot.getInstance().getDataBase().selectString(table, columns, whereClause, whereValues);
+                    String value = dataBase.selectString(table, columns, whereClause, whereValues);
                     from.quoteReply(message, "您查询的数据为: " + value);
                 } catch (SQLException e) {
                     from.handleException(message, "数据查询失败", e);
@@ -104,9 +115,20 @@ public class DataCommand extends AbstractCommand {
                 String whereClause = (String) meta.getParams().get("字段名");
                 String whereValues = (String) meta.getParams().get("记录值");
                 String toChange = (String) meta.getParams().get("新值");
+                if ("feature".equalsIgnoreCase(table) && "unavailable".equalsIgnoreCase(columns)) {
+                    // feature.unavailable 已被 feature_unavailable 表取代，修改它不会生效
+                    from.quoteReply(message, "功能不可用的场景已不再保存在 feature.unavailable 中，请使用 /feature disable <功能> true 或 /feature enable <功能> true 修改");
+                    return;
+                }
                 try {
-                    String value = SpCoBot.getInstance().getDataBase().selectString(table, columns, whereClause, whereValues);
-                    SpCoBot.getInstance().getDataBase().update("update " + table + " set " + columns + "=? where " + whereClause + "=?", toChange, whereValues);
+                    String value = dataBase.selectString(table, columns, whereClause, whereValues);
+                    dataBase.update("update " + table + " set " + columns + "=? where " + whereClause + "=?", toChange, whereValues);
+                    // 直接修改了数据，缓存的用户可能已过期
+                    BotUsers.getCache().invalidateAll();
+                    for (CoinType type : CoinType.values()) {
+                        Leaderboard.of(type).invalidate();
+                    }
+                    FeatureRegistry.getInstance().reload();
                     from.quoteReply(message, "已将数据从 " + value + " 修改为 " + toChange);
                 } catch (SQLException e) {
                     from.handleException(message, "数据更新失败", e);
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.service.command.commands;
+
+import top.spco.SpCoBot;
+import top.spco.api.Bot;
+import top.spco.api.Interactive;
+import top.spco.api.User;
+import top.spco.api.message.Message;
+import top.spco.core.database.QueryMetrics;
+import top.spco.service.command.AbstractCommand;
+import top.spco.service.command.CommandMarker;
+import top.spco.service.command.CommandMeta;
+import top.spco.service.command.usage.Usage;
+import top.spco.service.command.usage.UsageBuilder;
+import top.spco.service.command.util.SpecifiedParameterHelper;
+import top.spco.service.command.util.SpecifiedParameterSet;
+import top.spco.statistics.LatencyHistogram;
+import top.spco.user.BotUser;
+import top.spco.user.UserPermission;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 查看数据库语句的执行统计
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+@CommandMarker
+public class DbStatsCommand extends AbstractCommand {
+    /**
+     * 最多展示的 SQL 模板数
+     */
+    private static final int TOP_LIMIT = 10;
+
+    @Override
+    public String[] getLabels() {
+        return new String[]{"dbstats"};
+    }
+
+    @Override
+    public String getDescriptions() {
+        return "查看数据库语句的执行统计";
+    }
+
+    @Override
+    public List<Usage> getUsages() {
+        SpecifiedParameterSet set = new SpecifiedParameterHelper("操作类型", false).add("slow", "reset").build();
+        return List.of(
+                new UsageBuilder(getLabels()[0], "查看耗时最多的语句").build(),
+                new UsageBuilder(getLabels()[0], "查看最近的慢查询").add(set.get("slow")).build(),
+                new UsageBuilder(getLabels()[0], "重置语句统计").add(set.get("reset")).build());
+    }
+
+    @Override
+    public UserPermission needPermission() {
+        return UserPermission.OWNER;
+    }
+
+    @Override
+    public void onCommand(Bot<?> bot, Interactive<?> from, User<?> sender, BotUser user, Message<?> message, int time, CommandMeta meta, String usageName) {
+        if (SpCoBot.getInstance().getDataBase() == null) {
+            from.quoteReply(message, "当前未使用SQLite存储，没有语句统计");
+            return;
+        }
+        QueryMetrics metrics = SpCoBot.getInstance().getDataBase().getQueryMetrics();
+        switch (usageName) {
+            case "查看耗时最多的语句" -> {
+                List<Map.Entry<String, QueryMetrics.SqlStats>> top = metrics.top(TOP_LIMIT);
+                if (top.isEmpty()) {
+                    from.quoteReply(message, "暂无统计");
+                    return;
+                }
+                StringBuilder sb = new StringBuilder("耗时最多的语句：");
+                int no = 1;
+                for (Map.Entry<String, QueryMetrics.SqlStats> entry : top) {
+                    LatencyHistogram latency = entry.getValue().getLatency();
+                    sb.append("\n").append(no++).append(". ").append(entry.getKey())
+                            .append("\n\t").append(latency.count()).append("次，")
+                            .append("p50 ").append(latency.percentileMicros(0.5)).append("μs，")
+                            .append("p99 ").append(latency.percentileMicros(0.99)).append("μs，")
+                            .append("共").append(entry.getValue().getRows()).append("行");
+                }
+                from.quoteReply(message, sb.toString());
+            }
+            case "查看最近的慢查询" -> {
+                List<QueryMetrics.SlowQuery> slowQueries = metrics.getRecentSlowQueries();
+                if (slowQueries.isEmpty()) {
+                    from.quoteReply(message, "没有慢查询");
+                    return;
+                }
+                SimpleDateFormat format = new SimpleDateFormat("MM-dd HH:mm:ss");
+                StringBuilder sb = new StringBuilder("最近的慢查询：");
+                for (QueryMetrics.SlowQuery slowQuery : slowQueries) {
+                    sb.append("\n[").append(format.format(new Date(slowQuery.recorded()))).append("] ")
+                            .append(slowQuery.millis()).append("ms，").append(slowQuery.rows()).append("行: ")
+                            .append(slowQuery.sql());
+                }
+                from.quoteReply(message, sb.toString());
+            }
+            case "重置语句统计" -> {
+                metrics.reset();
+                from.quoteReply(message, "已重置");
+            }
+        }
+    }
+}
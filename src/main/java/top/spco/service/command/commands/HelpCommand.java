@@ -44,10 +44,6 @@ public final class HelpCommand extends AbstractCommand {
 
     @Override
     public void onCommand(Bot<?> bot, Interactive<?> from, User<?> sender, BotUser user, Message<?> message, int time, CommandMeta meta, String usageName) {
-        StringBuilder sb = new StringBuilder();
-        for (String help : SpCoBot.getInstance().getCommandDispatcher().getHelpList()) {
-            sb.append(help).append("\n");
-        }
-        from.quoteReply(message, sb.toString());
+        from.quoteReply(message, SpCoBot.getInstance().getCommandDispatcher().getHelpText(from, user));
     }
 }
\ No newline at end of file
@@ -73,7 +73,7 @@ public class McSCommand extends GroupAbstractCommand {
         });
         BotEvents.ONLINE_TICK.register(bot -> {
             try {
-                for (Long groupId : SpCoBot.getInstance().getDataBase().getLongFieldValues("group_id", "mcs")) {
+                for (Long groupId : SpCoBot.getInstance().getStorage().mcs().getBoundGroups()) {
                     if (!manager.isConnected(groupId)) {
                         try {
                             manager.connect(bot.getGroup(groupId), null);
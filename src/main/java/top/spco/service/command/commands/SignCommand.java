@@ -15,15 +15,18 @@
  */
 package top.spco.service.command.commands;
 
+import top.spco.SpCoBot;
 import top.spco.api.Bot;
 import top.spco.api.Interactive;
 import top.spco.api.User;
 import top.spco.api.message.Message;
+import top.spco.core.storage.SignDays;
 import top.spco.service.command.AbstractCommand;
 import top.spco.service.command.CommandMarker;
 import top.spco.service.command.CommandMeta;
 import top.spco.user.BotUser;
 import top.spco.user.UserOperationException;
+import top.spco.util.TimeUtil;
 
 /**
  * @author SpCo
@@ -51,12 +54,25 @@ public class SignCommand extends AbstractCommand {
         try {
             int i = user.sign();
             if (i == -1) {
-                from.quoteReply(message, "签到失败。您今天已经签到过了。");
+                from.quoteReply(message, "签到失败。您今天已经签到过了。" + streakOf(user));
             } else {
-                from.quoteReply(message, String.format("签到成功。您今天签到获得了%d海绵山币，您现在拥有%d海绵山币。", i, user.getSMFCoin()));
+                from.quoteReply(message, String.format("签到成功。您今天签到获得了%d海绵山币，您现在拥有%d海绵山币。", i, user.getSMFCoin()) + streakOf(user));
             }
         } catch (UserOperationException e) {
             from.handleException(message, "签到失败", e);
         }
     }
+
+    private static String streakOf(BotUser user) {
+        try {
+            SignDays days = user.getSignHistory();
+            int today = (int) TimeUtil.today().toEpochDay();
+            return String.format("\n您已连续签到%d天，最长连续签到%d天，近7天签到%d天。",
+                    days.currentStreak(today), days.longestStreak(), days.countBetween(today - 6, today));
+        } catch (UserOperationException e) {
+            // 签到历史只是附加信息，读取失败时不影响签到结果的回复
+            SpCoBot.LOGGER.warn("读取用户 {} 的签到历史失败。", user.getId(), e);
+            return "";
+        }
+    }
 }
\ No newline at end of file
@@ -56,16 +56,11 @@ public final class UsageCommand extends AbstractCommand {
 
     @Override
     public void onCommand(Bot<?> bot, Interactive<?> from, User<?> sender, BotUser user, Message<?> message, int time, CommandMeta meta, String usageName) {
-        var usages = SpCoBot.getInstance().getCommandDispatcher().getUsages((String) meta.getParams().get("命令名"), from);
+        String usages = SpCoBot.getInstance().getCommandDispatcher().getUsageText((String) meta.getParams().get("命令名"), from);
         if (usages == null) {
             from.quoteReply(message, "命令不存在或定义域错误");
             return;
         }
-        var ite = usages.iterator();
-        StringBuilder sb = new StringBuilder();
-        while (ite.hasNext()) {
-            sb.append(ite.next()).append("\n");
-        }
-        from.quoteReply(message, sb.toString());
+        from.quoteReply(message, usages);
     }
 }
\ No newline at end of file
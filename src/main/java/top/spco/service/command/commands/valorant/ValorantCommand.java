@@ -24,6 +24,7 @@ import org.apache.http.util.EntityUtils;
 import top.spco.SpCoBot;
 import top.spco.api.*;
 import top.spco.api.message.Message;
+import top.spco.core.storage.ValorantCredential;
 import top.spco.service.chat.Chat;
 import top.spco.service.chat.ChatBuilder;
 import top.spco.service.chat.ChatType;
@@ -46,8 +47,6 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.URL;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.util.*;
 
 /**
@@ -161,21 +160,18 @@ public class ValorantCommand extends AbstractCommand {
             }
             case "获取每日商店皮肤" -> {
                 // 从数据库中获取登录信息和账号密码
-                String sql = "SELECT username, password, access_token, entitlements, uuid FROM valorant_user WHERE id = ?";
-                try (PreparedStatement pstmt = SpCoBot.getInstance().getDataBase().getConn().prepareStatement(sql)) {
-                    pstmt.setLong(1, user.getId());
-                    ResultSet rs = pstmt.executeQuery();
+                try {
+                    ValorantCredential credential = SpCoBot.getInstance().getStorage().valorant().find(user.getId());
                     // 如果数据库中没有该用户的数据
-                    if (!rs.next()) {
+                    if (credential == null) {
                         from.quoteReply(message, "请在 「私聊」 中使用 " + loginUsage.toString() + " 命令来登录。\n\n***请注意：您的账号和密码将在服务器内以「明文形式」存储，如介意请以勿使用该命令，其他用户请务必开启双重验证。");
                         return;
                     }
-                    String username = rs.getString("username");
-                    String password = rs.getString("password");
-                    String accessToken = rs.getString("access_token");
-                    String entitlements = rs.getString("entitlements");
-                    String uuid = rs.getString("uuid");
-                    rs.close();
+                    String username = credential.username();
+                    String password = credential.password();
+                    String accessToken = credential.accessToken();
+                    String entitlements = credential.entitlements();
+                    String uuid = credential.uuid();
                     // 如果该用户的登录数据为null
                     if (accessToken.equals("null")) {
                         from.quoteReply(message, "请在 「私聊」 中使用 " + loginUsage.toString() + " 命令来登录。\n\n***请注意：您的账号和密码将在服务器内以「明文形式」存储，如介意请以勿使用该命令，其他用户请务必开启双重验证。");
@@ -331,24 +327,8 @@ public class ValorantCommand extends AbstractCommand {
     private void handleToken(RiotAuth riot, String[] tokens, long userId, Interactive<?> from, Message<?> message) {
         try {
             riot.parse(tokens);
-            String sql = "INSERT INTO valorant_user (id, username, password, access_token, entitlements, uuid, name, tag, create_data, ban_type, region) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
-                    "ON CONFLICT(id) DO UPDATE SET username = excluded.username, password = excluded.password, access_token = excluded.access_token, entitlements = excluded.entitlements, " +
-                    "uuid = excluded.uuid, name = excluded.name, tag = excluded.tag, create_data = excluded.create_data, ban_type = excluded.ban_type, region = excluded.region";
-            try (PreparedStatement pstmt = SpCoBot.getInstance().getDataBase().getConn().prepareStatement(sql)) {
-                pstmt.setLong(1, userId);
-                pstmt.setString(2, riot.getUsername());
-                pstmt.setString(3, riot.getPassword());
-                pstmt.setString(4, riot.getAccessToken());
-                pstmt.setString(5, riot.getEntitlement());
-                pstmt.setString(6, riot.getSub());
-                pstmt.setString(7, riot.getName());
-                pstmt.setString(8, riot.getTag());
-                pstmt.setString(9, riot.getCreationData());
-                pstmt.setString(10, riot.getTypeBan());
-                pstmt.setString(11, riot.getRegion());
-
-                pstmt.executeUpdate();
-            }
+            SpCoBot.getInstance().getStorage().valorant().save(new ValorantCredential(userId, riot.getUsername(), riot.getPassword(), riot.getAccessToken(),
+                    riot.getEntitlement(), riot.getSub(), riot.getName(), riot.getTag(), riot.getCreationData(), riot.getTypeBan(), riot.getRegion()));
             from.quoteReply(message, "与拳头官网服务验证成功");
         } catch (Exception e) {
             from.handleException(message, e);
@@ -19,7 +19,6 @@ import top.spco.service.command.Parser;
 import top.spco.service.command.exceptions.BuiltInExceptions;
 import top.spco.service.command.exceptions.CommandSyntaxException;
 
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
@@ -31,6 +30,9 @@ import java.util.regex.Pattern;
  * @since 3.0.2
  */
 public class HostParameter extends Parameter<String> {
+    private static final Pattern IP_PATTERN = Pattern.compile("(25[0-5]|2[0-4]\\d|[0-1]\\d{2}|[1-9]?\\d)\\.(25[0-5]|2[0-4]\\d|[0-1]\\d{2}|[1-9]?\\d)\\.(25[0-5]|2[0-4]\\d|[0-1]\\d{2}|[1-9]?\\d)\\.(25[0-5]|2[0-4]\\d|[0-1]\\d{2}|[1-9]?\\d)");
+    private static final Pattern DOMAIN_PATTERN = Pattern.compile("[a-zA-Z0-9][-a-zA-Z0-9]{0,62}(\\.[a-zA-Z0-9][-a-zA-Z0-9]{0,62})+\\.?");
+
     public HostParameter(String name, boolean isOptional, String defaultValue) {
         super(name, isOptional, defaultValue);
     }
@@ -38,21 +40,12 @@ public class HostParameter extends Parameter<String> {
     @Override
     public String parse(Parser parser) throws CommandSyntaxException {
         final int start = parser.getCursor();
-        String input = parser.readUnquotedString();
-        String ipRegex = "(25[0-5]|2[0-4]\\d|[0-1]\\d{2}|[1-9]?\\d)\\.(25[0-5]|2[0-4]\\d|[0-1]\\d{2}|[1-9]?\\d)\\.(25[0-5]|2[0-4]\\d|[0-1]\\d{2}|[1-9]?\\d)\\.(25[0-5]|2[0-4]\\d|[0-1]\\d{2}|[1-9]?\\d)";
-        String domainRegex = "[a-zA-Z0-9][-a-zA-Z0-9]{0,62}(\\.[a-zA-Z0-9][-a-zA-Z0-9]{0,62})+\\.?";
-
-        Pattern ipPattern = Pattern.compile(ipRegex);
-        Pattern domainPattern = Pattern.compile(domainRegex);
-
-        Matcher ipMatcher = ipPattern.matcher(input);
-        Matcher domainMatcher = domainPattern.matcher(input);
-
-        if (ipMatcher.matches() || domainMatcher.matches()) {
-            return input;
+        CharSequence input = parser.readUnquotedView();
+        if (IP_PATTERN.matcher(input).matches() || DOMAIN_PATTERN.matcher(input).matches()) {
+            return input.toString();
         } else {
             parser.setCursor(start);
             throw BuiltInExceptions.createWithContext("无效的主机地址“" + input + "”", parser);
         }
     }
-}
\ No newline at end of file
+}
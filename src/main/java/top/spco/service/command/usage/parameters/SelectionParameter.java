@@ -66,16 +66,15 @@ public class SelectionParameter extends StringParameter {
             parser.setCursor(start);
             throw BuiltInExceptions.createWithContext("需要" + name, parser);
         }
-        while (parser.canRead() && Parser.isAllowedInUnquotedString(parser.peek())) {
-            parser.skip();
+        parser.skipUnquoted();
+        for (String option : options) {
+            if (parser.regionEquals(start, parser.getCursor(), option)) {
+                return option;
+            }
         }
         String value = parser.getString().substring(start, parser.getCursor());
-        if (options.contains(value)) {
-            return value;
-        } else {
-            parser.setCursor(start);
-            throw BuiltInExceptions.createWithContext("无效的" + name + "，需要“" + getOptionsTable() + "”却出现了“" + value + "”", parser);
-        }
+        parser.setCursor(start);
+        throw BuiltInExceptions.createWithContext("无效的" + name + "，需要“" + getOptionsTable() + "”却出现了“" + value + "”", parser);
     }
 
     public String getOptionsTable() {
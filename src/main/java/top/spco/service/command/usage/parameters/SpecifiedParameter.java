@@ -49,20 +49,23 @@ public class SpecifiedParameter extends StringParameter {
     @Override
     public String parse(Parser parser) throws CommandSyntaxException {
         final int start = parser.getCursor();
-        String value = parser.readUnquotedString();
+        if (!parser.canRead()) {
+            throw BuiltInExceptions.parserExpectedString(parser);
+        }
+        parser.skipUnquoted();
+        if (parser.regionEquals(start, parser.getCursor(), defaultValue)) {
+            return defaultValue;
+        }
+        String value = parser.getString().substring(start, parser.getCursor());
+        parser.setCursor(start);
         if (value.isEmpty()) {
-            parser.setCursor(start);
             throw BuiltInExceptions.createWithContext("需要" + name, parser);
         }
-        if (!value.equals(defaultValue)) {
-            parser.setCursor(start);
-            if (match(value)) {
-                throw BuiltInExceptions.createWithContext("后续参数与该" + name + "不匹配", parser);
-            } else {
-                throw BuiltInExceptions.createWithContext("需要" + need() + "却出现了“" + value + "”", parser);
-            }
+        if (match(value)) {
+            throw BuiltInExceptions.createWithContext("后续参数与该" + name + "不匹配", parser);
+        } else {
+            throw BuiltInExceptions.createWithContext("需要" + need() + "却出现了“" + value + "”", parser);
         }
-        return value;
     }
 
     public boolean match(String s) {
@@ -21,9 +21,6 @@ import top.spco.service.command.Parser;
 import top.spco.service.command.exceptions.BuiltInExceptions;
 import top.spco.service.command.exceptions.CommandSyntaxException;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 /**
  * 指向一位用户的命令参数。通常用于表示命令执行的对象。
  *
@@ -41,31 +38,12 @@ public class TargetUserIdParameter extends UserIdParameter {
         var quote = SpCoBot.getInstance().getMessageService().getQuote(parser.getMessage());
         if (quote == null) {
             final int start = parser.getCursor();
-            String value = parser.readUnquotedString();
-            Matcher atMatcher = Pattern.compile("^@(\\d+)$").matcher(value);
-            try {
-                if (SpCoBot.getInstance().getMessageService().isAtFormat(value)) {
-                    Pattern pattern = Pattern.compile(SpCoBot.getInstance().getMessageService().getAtRegex());
-                    Matcher matcher = pattern.matcher(value);
-                    return Long.parseLong(matcher.group(1));
-                } else if (atMatcher.find()) {
-                    try {
-                        String id = atMatcher.group(1);
-                        return Long.parseLong(id);
-                    } catch (NumberFormatException e) {
-                        throw BuiltInExceptions.createWithContext("需要用户ID或@一位用户", parser);
-                    }
-                } else {
-                    try {
-                        return Long.parseLong(value);
-                    } catch (NumberFormatException e) {
-                        throw BuiltInExceptions.createWithContext("需要用户ID或@一位用户", parser);
-                    }
-                }
-            } catch (CommandSyntaxException e) {
+            Long id = readUserId(parser);
+            if (id == null) {
                 parser.setCursor(start);
                 throw BuiltInExceptions.createWithContext("需要用户ID或@一位用户或在回复一条消息时发送该命令", parser);
             }
+            return id;
         } else {
             long senderId = quote.getLeft().getSenderId();
             parser.setCursor(parser.getCursor() - 1);
@@ -21,7 +21,6 @@ import top.spco.service.command.exceptions.BuiltInExceptions;
 import top.spco.service.command.exceptions.CommandSyntaxException;
 
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * 指向一位用户的命令参数
@@ -38,27 +37,52 @@ public class UserIdParameter extends Parameter<Long> {
     @Override
     public Long parse(Parser parser) throws CommandSyntaxException {
         final int start = parser.getCursor();
-        String value = parser.readUnquotedString();
-        Matcher atMatcher = Pattern.compile("^@(\\d+)$").matcher(value);
-        if (SpCoBot.getInstance().getMessageService().isAtFormat(value)) {
-            Pattern pattern = Pattern.compile(SpCoBot.getInstance().getMessageService().getAtRegex());
-            Matcher matcher = pattern.matcher(value);
-            return Long.parseLong(matcher.group(1));
-        } else if (atMatcher.find()) {
+        Long id = readUserId(parser);
+        if (id == null) {
+            parser.setCursor(start);
+            throw BuiltInExceptions.createWithContext("需要用户ID或@一位用户", parser);
+        }
+        return id;
+    }
+
+    /**
+     * 读取一个用户ID。用户ID可以是纯数字、{@code @}加数字，或消息服务的@格式。
+     *
+     * <p>数字直接在输入文本上解析，不截取子串。
+     *
+     * @param parser 解析器
+     * @return 用户ID，输入不是以上任何一种形式时为 {@code null}
+     * @throws CommandSyntaxException 没有可读的字符
+     */
+    protected static Long readUserId(Parser parser) throws CommandSyntaxException {
+        CharSequence value = parser.readUnquotedView();
+        int length = value.length();
+        if (length > 1 && value.charAt(0) == '@') {
+            for (int i = 1; i < length; i++) {
+                char c = value.charAt(i);
+                if (c < '0' || c > '9') {
+                    return null;
+                }
+            }
             try {
-                String id = atMatcher.group(1);
-                return Long.parseLong(id);
+                return Long.parseLong(value, 1, length, 10);
             } catch (NumberFormatException e) {
-                parser.setCursor(start);
-                throw BuiltInExceptions.createWithContext("需要用户ID或@一位用户", parser);
+                return null;
             }
-        } else {
+        }
+        try {
+            return Long.parseLong(value, 0, length, 10);
+        } catch (NumberFormatException e) {
+            // 不是纯数字，尝试@格式
+        }
+        Matcher matcher = SpCoBot.getInstance().getMessageService().getAtPattern().matcher(value);
+        if (matcher.find() && matcher.groupCount() >= 1) {
             try {
-                return Long.parseLong(value);
+                return Long.parseLong(matcher.group(1));
             } catch (NumberFormatException e) {
-                parser.setCursor(start);
-                throw BuiltInExceptions.createWithContext("需要用户ID或@一位用户", parser);
+                return null;
             }
         }
+        return null;
     }
-}
\ No newline at end of file
+}
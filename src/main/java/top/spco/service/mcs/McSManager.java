@@ -20,12 +20,9 @@ import top.spco.api.Group;
 import top.spco.api.message.Message;
 import top.spco.core.Manager;
 import top.spco.service.RegistrationException;
-import top.spco.util.tuple.ImmutablePair;
 import top.spco.util.tuple.Pair;
 
 import java.io.IOException;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -87,62 +84,35 @@ public class McSManager extends Manager<Long, McS> {
     }
 
     public int unbind(long groupId) throws SQLException {
-        String sql = "DELETE FROM mcs WHERE group_id = ?";
-
-        try (PreparedStatement preparedStatement = SpCoBot.getInstance().getDataBase().getConn().prepareStatement(sql)) {
-            preparedStatement.setLong(1, groupId);
-
-            int rowsAffected = preparedStatement.executeUpdate();
-            if (rowsAffected > 0) {
-                var s = getAllRegistered().get(groupId);
-                if (s != null) {
-                    s.close(true, null);
-                    getAllRegistered().remove(groupId);
-                }
+        int rowsAffected = SpCoBot.getInstance().getStorage().mcs().unbind(groupId);
+        if (rowsAffected > 0) {
+            var s = getAllRegistered().get(groupId);
+            if (s != null) {
+                s.close(true, null);
+                getAllRegistered().remove(groupId);
             }
-            return rowsAffected;
         }
+        return rowsAffected;
     }
 
     public void bind(long groupId, String host, int port) throws SQLException {
-        SpCoBot.getInstance().getDataBase().insertData("insert into mcs(group_id,host,port) values (?,?,?)", groupId, host, port);
+        SpCoBot.getInstance().getStorage().mcs().bind(groupId, host, port);
     }
 
     public Pair<String, Integer> getServer(long groupId) {
-        String sql = "SELECT host, port FROM mcs WHERE group_id = ?";
-
-        try (PreparedStatement preparedStatement = SpCoBot.getInstance().getDataBase().getConn().prepareStatement(sql)) {
-            preparedStatement.setLong(1, groupId);
-
-            try (ResultSet resultSet = preparedStatement.executeQuery()) {
-                if (resultSet.next()) {
-                    String host = resultSet.getString("host");
-                    int port = resultSet.getInt("port");
-                    return new ImmutablePair<>(host, port);
-                }
-            } catch (SQLException e) {
-                throw new RuntimeException(e);
-            }
+        try {
+            return SpCoBot.getInstance().getStorage().mcs().find(groupId);
         } catch (SQLException e) {
             throw new RuntimeException(e);
         }
-        return null;
     }
 
     public boolean isBound(long groupId) {
-        String sql = "SELECT COUNT(*) FROM mcs WHERE group_id = ?";
-        try (PreparedStatement preparedStatement = SpCoBot.getInstance().getDataBase().getConn().prepareStatement(sql)) {
-            preparedStatement.setLong(1, groupId);
-            try (ResultSet resultSet = preparedStatement.executeQuery()) {
-                if (resultSet.next()) {
-                    int count = resultSet.getInt(1);
-                    return count > 0;
-                }
-            }
+        try {
+            return SpCoBot.getInstance().getStorage().mcs().isBound(groupId);
         } catch (SQLException e) {
             throw new RuntimeException(e);
         }
-        return false;
     }
 
     public static McSManager getInstance() {
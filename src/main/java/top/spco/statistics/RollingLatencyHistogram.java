@@ -0,0 +1,105 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.statistics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 同时记录全部耗时和最近一段时间内耗时的直方图。
+ *
+ * <p>最近的时间窗口被等分为若干段，每段对应环形数组中的一个 {@link LatencyHistogram}。记录时写入当前时间所在的段，
+ * 若该段上次使用时属于更早的一轮，则先将其清空。查询窗口时合并所有仍在窗口内的段，因此窗口按段的粒度向前滚动。
+ *
+ * <p>记录与 {@link LatencyHistogram} 一样无锁。段被清空的同时若有其他线程向其中记录，该次记录可能丢失。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+public class RollingLatencyHistogram {
+    private final LatencyHistogram total = new LatencyHistogram();
+    private final LatencyHistogram[] segments;
+    private final AtomicLongArray segmentEpochs;
+    private final long segmentMillis;
+
+    /**
+     * @param window   时间窗口的长度
+     * @param segments 时间窗口被等分的段数
+     * @param unit     时间窗口的单位
+     */
+    public RollingLatencyHistogram(long window, int segments, TimeUnit unit) {
+        if (window < 1 || segments < 1) {
+            throw new IllegalArgumentException("Invalid window parameters.");
+        }
+        this.segments = new LatencyHistogram[segments];
+        for (int i = 0; i < segments; i++) {
+            this.segments[i] = new LatencyHistogram();
+        }
+        this.segmentEpochs = new AtomicLongArray(segments);
+        this.segmentMillis = Math.max(1, unit.toMillis(window) / segments);
+    }
+
+    /**
+     * 记录一次耗时。
+     *
+     * @param nanos 耗时（纳秒）
+     */
+    public void record(long nanos) {
+        total.record(nanos);
+        long epoch = System.currentTimeMillis() / segmentMillis;
+        int index = (int) (epoch % segments.length);
+        long last = segmentEpochs.get(index);
+        if (last != epoch && segmentEpochs.compareAndSet(index, last, epoch)) {
+            segments[index].reset();
+        }
+        segments[index].record(nanos);
+    }
+
+    /**
+     * @return 全部耗时的直方图
+     */
+    public LatencyHistogram getTotal() {
+        return total;
+    }
+
+    /**
+     * 合并时间窗口内的所有段。
+     *
+     * @return 时间窗口内耗时的直方图，是一个新的对象
+     */
+    public LatencyHistogram getWindow() {
+        LatencyHistogram window = new LatencyHistogram();
+        long current = System.currentTimeMillis() / segmentMillis;
+        for (int i = 0; i < segments.length; i++) {
+            if (current - segmentEpochs.get(i) < segments.length) {
+                window.add(segments[i]);
+            }
+        }
+        return window;
+    }
+
+    /**
+     * 清空所有记录。与并发的记录操作之间不保证原子性。
+     */
+    public void reset() {
+        total.reset();
+        for (int i = 0; i < segments.length; i++) {
+            segments[i].reset();
+            segmentEpochs.set(i, 0);
+        }
+    }
+}
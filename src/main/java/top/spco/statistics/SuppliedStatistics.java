@@ -0,0 +1,51 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.statistics;
+
+import java.util.function.Supplier;
+
+/**
+ * 一条在生成报告时才取值的统计项目，用于展示由其他组件自行维护的计数
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+public class SuppliedStatistics implements StatisticsItem {
+    private final String name;
+    private final Supplier<String> value;
+
+    /**
+     * 创建一条统计项目
+     *
+     * @param name  统计项目的名称
+     * @param value 生成报告时调用，返回统计项目的值
+     */
+    public SuppliedStatistics(String name, Supplier<String> value) {
+        this.name = name;
+        this.value = value;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name + ": " + value.get();
+    }
+}
@@ -54,6 +54,7 @@ import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class RechargeSystem {
     private static RechargeSystem instance;
@@ -137,14 +138,20 @@ public class RechargeSystem {
                     return;
                 }
                 if (tradeStatus.equals("TRADE_SUCCESS") && tradeStateDB.equals("unpaid")) {
-
-                    Long userId = SpCoBot.getInstance().getDataBase().selectLong("trade", "user", "id", tradeNo);
-                    BotUser user = BotUsers.get(userId);
-                    String buyerPayAmount = params.get("buyer_pay_amount");
-                    int decimalIndex = buyerPayAmount.indexOf(".");
-                    String integerPart = (decimalIndex == -1) ? buyerPayAmount : buyerPayAmount.substring(0, decimalIndex);
-                    int amountInt = Integer.parseInt(integerPart);
-                    Objects.requireNonNull(user).recharge(tradeNo, amountInt);
+                    Long userId = SpCoBot.getInstance().getStorage().trades().getUser(tradeNo);
+                    // 持有用户的锁，支付平台重复的通知会在此排队，并由 recharge 中的状态检查忽略
+                    ReentrantLock lock = BotUsers.lockFor(Objects.requireNonNull(userId));
+                    lock.lock();
+                    try {
+                        BotUser user = BotUsers.get(userId);
+                        String buyerPayAmount = params.get("buyer_pay_amount");
+                        int decimalIndex = buyerPayAmount.indexOf(".");
+                        String integerPart = (decimalIndex == -1) ? buyerPayAmount : buyerPayAmount.substring(0, decimalIndex);
+                        int amountInt = Integer.parseInt(integerPart);
+                        Objects.requireNonNull(user).recharge(tradeNo, amountInt);
+                    } finally {
+                        lock.unlock();
+                    }
                 }
                 StringBuilder response = new StringBuilder();
                 response.append("success");
@@ -179,9 +186,15 @@ public class RechargeSystem {
                         return;
                     }
                     if (tradeState.equals("SUCCESS") && tradeStateDB.equals("unpaid")) {
-                        Long userId = SpCoBot.getInstance().getDataBase().selectLong("trade", "user", "id", tradeNo);
-                        BotUser user = BotUsers.get(userId);
-                        Objects.requireNonNull(user).recharge(decrypted);
+                        Long userId = SpCoBot.getInstance().getStorage().trades().getUser(tradeNo);
+                        ReentrantLock lock = BotUsers.lockFor(Objects.requireNonNull(userId));
+                        lock.lock();
+                        try {
+                            BotUser user = BotUsers.get(userId);
+                            Objects.requireNonNull(user).recharge(decrypted);
+                        } finally {
+                            lock.unlock();
+                        }
                         StringBuilder response = new StringBuilder();
                         response.append("success");
                         exchange.sendResponseHeaders(200, response.length());
@@ -239,8 +252,7 @@ public class RechargeSystem {
         request.setNotifyUrl(url);
         PrepayResponse response = WECHAT_PAY.prepay(request);
         try {
-            SpCoBot.getInstance().getDataBase().insertData("insert into trade(id,user,date,time,amount) values (?,?,?,?,?)",
-                    tradeNo, caller.getId(), TimeUtil.today(), System.currentTimeMillis(), totalAmount);
+            SpCoBot.getInstance().getStorage().trades().insert(tradeNo, caller.getId(), TimeUtil.today().toString(), System.currentTimeMillis(), totalAmount);
             return new WechatPayTrade(tradeNo, caller.getId(), response.getCodeUrl(), totalAmount);
         } catch (SQLException e) {
             return null;
@@ -267,8 +279,7 @@ public class RechargeSystem {
         if (Objects.requireNonNull(result.getTradeStatus()) == TradeStatus.SUCCESS) {
             AlipayTradePrecreateResponse response = result.getResponse();
             try {
-                SpCoBot.getInstance().getDataBase().insertData("insert into trade(id,user,date,time,amount) values (?,?,?,?,?)",
-                        tradeNo, caller.getId(), TimeUtil.today(), System.currentTimeMillis(), totalAmount);
+                SpCoBot.getInstance().getStorage().trades().insert(tradeNo, caller.getId(), TimeUtil.today().toString(), System.currentTimeMillis(), totalAmount);
                 return new AlipayTrade(tradeNo, caller.getId(), response.getQrCode(), totalAmount);
             } catch (SQLException e) {
                 return null;
@@ -282,6 +293,6 @@ public class RechargeSystem {
     }
 
     private static String queryTradeStateFromDB(String tradeNo) throws SQLException {
-        return SpCoBot.getInstance().getDataBase().selectString("trade", "state", "id", tradeNo);
+        return SpCoBot.getInstance().getStorage().trades().getState(tradeNo);
     }
 }
\ No newline at end of file
@@ -18,13 +18,20 @@ package top.spco.user;
 import com.google.gson.JsonObject;
 import top.spco.SpCoBot;
 import top.spco.api.Friend;
-import top.spco.core.database.DataBase;
+import top.spco.core.storage.CoinType;
+import top.spco.core.storage.ExpenseRecord;
+import top.spco.core.storage.SignDays;
+import top.spco.core.storage.Storage;
+import top.spco.core.storage.UserRepository;
 import top.spco.util.TimeUtil;
 
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 表示具有特定属性和功能的机器人用户。该类提供了管理机器人系统中用户属性和操作的方法。
@@ -43,6 +50,9 @@ import java.util.concurrent.ThreadLocalRandom;
  *
  * <p>需要创建或获取用户，可以通过 {@link BotUsers} 类中的方法 {@link BotUsers#get(long)} 或 {@link BotUsers#getOrCreate(long)}
  *
+ * <p>修改用户数据的方法会持有该用户的锁（见 {@link BotUsers#lockFor(long)}），同一用户的修改因此是串行的，
+ * 不同用户的修改仍可并行进行。签到由单条原子语句完成，是唯一的例外，见 {@link #sign()}。
+ *
  * @author SpCo
  * @version 3.0.4
  * @see BotUsers
@@ -50,11 +60,16 @@ import java.util.concurrent.ThreadLocalRandom;
  */
 public class BotUser {
     private final long id;
-    private UserPermission permission;
-    private int smfCoin;
-    private int starCoin;
-    private String sign;
-    private int premium;
+    // 字段可能在写后队列的线程中被更新，且总是被赋值为存储返回的最新值
+    private volatile UserPermission permission;
+    private volatile int smfCoin;
+    private volatile int starCoin;
+    private volatile String sign;
+    private final int premium;
+    /**
+     * 签到历史，尚未读取时为 {@code null}
+     */
+    private volatile SignDays signDays;
 
     BotUser(long id, UserPermission permission, int smfCoin, int starCoin, String sign, int premium) {
         this.id = id;
@@ -79,11 +94,16 @@ public class BotUser {
      * @throws UserOperationException 解封用户失败时抛出此异常
      */
     public void setPermission(UserPermission permission) throws UserOperationException {
-        this.permission = permission;
+        ReentrantLock lock = BotUsers.lockFor(id);
+        lock.lock();
         try {
-            SpCoBot.getInstance().getDataBase().update("update user set permission=? where id=?", permission.getLevel(), id);
+            SpCoBot.getInstance().getStorage().users().setPermission(id, permission.getLevel());
+            this.permission = permission;
         } catch (SQLException e) {
+            BotUsers.getCache().invalidate(id);
             throw new UserOperationException("An error occurred while saving data.", e);
+        } finally {
+            lock.unlock();
         }
     }
 
@@ -91,6 +111,71 @@ public class BotUser {
         return smfCoin;
     }
 
+    public int getStarCoin() {
+        return starCoin;
+    }
+
+    /**
+     * 增加用户的余额。
+     *
+     * @param type   货币种类
+     * @param amount 增加的数量，必须为正数
+     * @return 增加后的余额
+     * @throws UserOperationException 读写数据失败或用户不存在时抛出此异常
+     */
+    public int credit(CoinType type, int amount) throws UserOperationException {
+        ReentrantLock lock = BotUsers.lockFor(id);
+        lock.lock();
+        try {
+            Integer balance = SpCoBot.getInstance().getStorage().users().credit(id, type, amount);
+            if (balance == null) {
+                throw new UserOperationException("User(" + id + ") does not exist.");
+            }
+            setBalance(type, balance);
+            return balance;
+        } catch (SQLException e) {
+            throw new UserOperationException("An error occurred while saving data.", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 在余额足够时扣除用户的余额。
+     *
+     * @param type   货币种类
+     * @param amount 扣除的数量，必须为正数
+     * @return 余额足够并已扣除时返回 {@code true}，余额不足时返回 {@code false}
+     * @throws UserOperationException 读写数据失败时抛出此异常
+     */
+    public boolean debit(CoinType type, int amount) throws UserOperationException {
+        ReentrantLock lock = BotUsers.lockFor(id);
+        lock.lock();
+        try {
+            Integer balance = SpCoBot.getInstance().getStorage().users().debit(id, type, amount);
+            if (balance == null) {
+                // 余额不足，本对象中的余额可能已过期
+                BotUsers.getCache().invalidate(id);
+                return false;
+            }
+            setBalance(type, balance);
+            return true;
+        } catch (SQLException e) {
+            throw new UserOperationException("An error occurred while saving data.", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void setBalance(CoinType type, int balance) {
+        if (type == CoinType.SMF_COIN) {
+            this.smfCoin = balance;
+        } else {
+            this.starCoin = balance;
+        }
+        Leaderboard.of(type).update(id, balance);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -107,57 +192,126 @@ public class BotUser {
     /**
      * 签到。
      *
+     * <p>签到记录会经由写后队列与同时进行的其他签到合并提交，此方法等待记录提交后返回。
+     * 签到只在用户今日尚未签到时生效，由单条语句原子地完成，因此不需要持有用户的锁，等待提交期间也不会阻塞该用户的其他修改。
+     *
      * @return 成功时返回签到获得的海绵山币数量, 已签到返回 {@code -1}
      * @throws UserOperationException 签到失败时抛出此异常
+     * @see #signAsync()
      */
     public int sign() throws UserOperationException {
         try {
-            LocalDate today = TimeUtil.today();
-            String signDate = SpCoBot.getInstance().getDataBase().selectString("user", "sign", "id", id);
-            if (signDate.equals(today.toString())) {
-                return -1;
+            return signAsync().join();
+        } catch (CompletionException e) {
+            throw new UserOperationException("An error occurred while reading or saving data.", e.getCause());
+        }
+    }
+
+    /**
+     * 异步签到。
+     *
+     * <p>签到日期和奖励在同一条语句中写入，且仅当用户今日尚未签到时生效，因此同一用户的并发签到只有一次会成功。
+     * 签到历史与签到记录在同一个事务中提交。
+     *
+     * <p>此方法不持有用户的锁，签到完成时写后队列的线程会直接更新本对象。
+     *
+     * @return 在签到记录提交后完成的 {@link CompletableFuture}，其值为签到获得的海绵山币数量, 已签到为 {@code -1}
+     */
+    public CompletableFuture<Integer> signAsync() {
+        UserRepository users = SpCoBot.getInstance().getStorage().users();
+        LocalDate date = TimeUtil.today();
+        String today = date.toString();
+        // 本对象的签到日期与存储一致，已签到时无需访问存储
+        if (today.equals(sign)) {
+            return CompletableFuture.completedFuture(-1);
+        }
+        int day = (int) date.toEpochDay();
+        int randomNumber = ThreadLocalRandom.current().nextInt(10, 101);
+        return users.sign(id, today, day, randomNumber)
+                .handle((result, e) -> {
+                    if (e != null) {
+                        BotUsers.getCache().invalidate(id);
+                        throw e instanceof CompletionException ce ? ce : new CompletionException(e);
+                    }
+                    if (result == null) {
+                        // 已在别处签到，本对象的数据已过期
+                        BotUsers.getCache().invalidate(id);
+                        return -1;
+                    }
+                    this.sign = today;
+                    this.signDays = result.days();
+                    setBalance(CoinType.SMF_COIN, result.smfCoin());
+                    return randomNumber;
+                });
+    }
+
+    /**
+     * 获取签到历史。
+     *
+     * <p>签到历史在第一次调用时从存储中读取，之后随签到更新，不再访问存储。
+     *
+     * @return 签到历史
+     * @throws UserOperationException 读取数据失败时抛出此异常
+     * @see SignDays
+     */
+    public SignDays getSignHistory() throws UserOperationException {
+        SignDays days = signDays;
+        if (days == null) {
+            try {
+                days = SpCoBot.getInstance().getStorage().signHistory().find(id);
+            } catch (SQLException e) {
+                throw new UserOperationException("An error occurred while reading data.", e);
             }
-            SpCoBot.getInstance().getDataBase().update("update user set sign=? where id=?", today, id);
-            int randomNumber = ThreadLocalRandom.current().nextInt(10, 101);
-            this.smfCoin += randomNumber;
-            SpCoBot.getInstance().getDataBase().update("update user set smf_coin=? where id=?", this.smfCoin, this.id);
-            return randomNumber;
-        } catch (SQLException e) {
-            throw new UserOperationException("An error occurred while reading or saving data.", e);
+            signDays = days;
         }
+        return days;
     }
 
+    /**
+     * 为已支付的订单充值。
+     *
+     * <p>持有用户的锁检查订单状态，订单已不是未支付状态（如支付平台重复通知）时不做任何事。
+     *
+     * @param tradeNo 订单号
+     * @param amount  充值的星币数量
+     * @throws UserOperationException 读写数据失败时抛出此异常
+     */
     public void recharge(String tradeNo, int amount) throws UserOperationException {
-        DataBase db = SpCoBot.getInstance().getDataBase();
+        Storage storage = SpCoBot.getInstance().getStorage();
+        ReentrantLock lock = BotUsers.lockFor(id);
+        int newBalance;
+        lock.lock();
         try {
-            int baseAmount = db.selectInt("user", "star_coin", "id", id);
-            this.starCoin = baseAmount + amount;
-            db.getConn().setAutoCommit(false);
-            // 更新用户StarCoin数量
-            db.update("update user set star_coin=? where id=?", starCoin, id);
-            // 为用户添加StarCoin变动记录
-            db.insertData("insert into expenses(user,date,time,amount,balance,desc) values (?,?,?,?,?,?)",
-                    id, TimeUtil.today(), System.currentTimeMillis(), amount, this.starCoin, tradeNo + " Recharge " + amount + " StarCoin");
-            // 更新充值交易状态
-            SpCoBot.getInstance().getDataBase().update("update trade set state=? where id=?", "paid", tradeNo);
-            db.getConn().commit();
-            Friend<?> friend = SpCoBot.getInstance().getBot().getFriend(getId());
-            if (friend != null) {
-                friend.sendMessage("订单" + tradeNo + "支付成功，已到账" + amount + "星币，账户余额: " + this.starCoin);
+            if (!"unpaid".equals(storage.trades().getState(tradeNo))) {
+                return;
             }
+            storage.transaction(() -> {
+                // 更新用户StarCoin数量
+                Integer balance = storage.users().credit(id, CoinType.STAR_COIN, amount);
+                if (balance == null) {
+                    throw new SQLException("User(" + id + ") does not exist.");
+                }
+                this.starCoin = balance;
+                // 为用户添加StarCoin变动记录
+                storage.expenses().insert(new ExpenseRecord(id, TimeUtil.today().toString(), System.currentTimeMillis(),
+                        amount, this.starCoin, tradeNo + " Recharge " + amount + " StarCoin"));
+                // 更新充值交易状态
+                storage.trades().setState(tradeNo, "paid");
+                return null;
+            });
+            Leaderboard.of(CoinType.STAR_COIN).update(id, starCoin);
+            newBalance = starCoin;
         } catch (SQLException e) {
-            try {
-                db.getConn().rollback();
-            } catch (SQLException rollbackException) {
-                SpCoBot.LOGGER.error("Rollback failed.", rollbackException);
-            }
+            // 事务已回滚，本对象中的星币数量可能已过期
+            BotUsers.getCache().invalidate(id);
             throw new UserOperationException("An error occurred while reading or saving data.", e);
         } finally {
-            try {
-                db.getConn().setAutoCommit(true);
-            } catch (SQLException e) {
-                SpCoBot.LOGGER.error(e);
-            }
+            lock.unlock();
+        }
+        // 发送消息可能很慢，不能持有用户的锁
+        Friend<?> friend = SpCoBot.getInstance().getBot().getFriend(getId());
+        if (friend != null) {
+            friend.sendMessage("订单" + tradeNo + "支付成功，已到账" + amount + "星币，账户余额: " + newBalance);
         }
     }
 
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.user;
+
+import top.spco.util.LongObjectHashMap;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link BotUser} 对象的缓存。
+ *
+ * <p>缓存以QQ号为键，按最近最少使用的顺序淘汰：缓存满时淘汰最久未被访问的用户，
+ * 超过空闲时间未被访问的用户在下次访问或放入新用户时被移除。
+ *
+ * <p>缓存只对经由 {@link BotUser} 的修改方法进行的写入是权威的：这些方法先写入存储再更新自身的字段，
+ * 写入失败或发现数据已过期时会移除该用户。缓存不会察觉其他途径对存储的修改，
+ * 绕过 {@link BotUser} 直接修改用户数据的代码须在写入后调用 {@link #invalidate(long)} 或 {@link #invalidateAll()}，目前包括：
+ * <ul>
+ * <li>{@link top.spco.service.command.commands.DataCommand} 直接编辑数据表后调用 {@link #invalidateAll()}；</li>
+ * <li>{@link top.spco.modules.AutoSign} 批量签到后对每名签到的用户调用 {@link #invalidate(long)}。</li>
+ * </ul>
+ * 在调用之前，缓存中的对象可能仍持有旧数据。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @see BotUsers#getCache()
+ * @since 4.0.0
+ */
+public class BotUserCache {
+    private final int maxSize;
+    private final long idleNanos;
+    private final LongObjectHashMap<Node> nodes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    /**
+     * 哨兵节点，其后是最近访问的用户，其前是最久未访问的用户
+     */
+    private final Node head = new Node(0, null);
+
+    /**
+     * @param maxSize     最多缓存的用户数
+     * @param idleMinutes 用户未被访问多少分钟后被移除
+     */
+    BotUserCache(int maxSize, long idleMinutes) {
+        if (maxSize < 1 || idleMinutes < 1) {
+            throw new IllegalArgumentException("Invalid cache parameters.");
+        }
+        this.maxSize = maxSize;
+        this.idleNanos = TimeUnit.MINUTES.toNanos(idleMinutes);
+        this.nodes = new LongObjectHashMap<>(maxSize);
+        head.prev = head;
+        head.next = head;
+    }
+
+    /**
+     * 获取缓存的用户。
+     *
+     * @param id 用户的QQ号
+     * @return 缓存的用户，未缓存或已过期时返回 {@code null}
+     */
+    synchronized BotUser get(long id) {
+        Node node = nodes.get(id);
+        long now = System.nanoTime();
+        if (node == null || now - node.lastAccess > idleNanos) {
+            if (node != null) {
+                remove(node);
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        node.lastAccess = now;
+        unlink(node);
+        linkFirst(node);
+        return node.user;
+    }
+
+    /**
+     * 缓存一个用户。若该用户已被缓存，则保留已有的对象，以免同一用户同时存在多个对象。
+     *
+     * @param user 从存储中读取的用户
+     * @return 缓存中的用户
+     */
+    synchronized BotUser putIfAbsent(BotUser user) {
+        long now = System.nanoTime();
+        Node node = nodes.get(user.getId());
+        if (node != null) {
+            node.lastAccess = now;
+            unlink(node);
+            linkFirst(node);
+            return node.user;
+        }
+        node = new Node(user.getId(), user);
+        node.lastAccess = now;
+        nodes.put(user.getId(), node);
+        linkFirst(node);
+        // 从最久未访问的一端移除过期或超出容量的用户
+        Node eldest = head.prev;
+        while (eldest != head && (nodes.size() > maxSize || now - eldest.lastAccess > idleNanos)) {
+            remove(eldest);
+            eldest = head.prev;
+        }
+        return user;
+    }
+
+    /**
+     * 移除一个用户。
+     *
+     * @param id 用户的QQ号
+     */
+    public synchronized void invalidate(long id) {
+        Node node = nodes.get(id);
+        if (node != null) {
+            remove(node);
+        }
+    }
+
+    /**
+     * 移除所有用户。
+     */
+    public synchronized void invalidateAll() {
+        nodes.clear();
+        head.prev = head;
+        head.next = head;
+    }
+
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    /**
+     * @return 缓存命中的次数
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return 缓存未命中的次数
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private void remove(Node node) {
+        nodes.remove(node.id);
+        unlink(node);
+    }
+
+    private void linkFirst(Node node) {
+        node.prev = head;
+        node.next = head.next;
+        head.next.prev = node;
+        head.next = node;
+    }
+
+    private static void unlink(Node node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+    }
+
+    private static class Node {
+        final long id;
+        final BotUser user;
+        long lastAccess;
+        Node prev;
+        Node next;
+
+        Node(long id, BotUser user) {
+            this.id = id;
+            this.user = user;
+        }
+    }
+}
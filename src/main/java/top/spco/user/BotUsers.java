@@ -16,15 +16,20 @@
 package top.spco.user;
 
 import top.spco.SpCoBot;
+import top.spco.core.storage.CoinType;
+import top.spco.core.storage.UserRecord;
+import top.spco.core.storage.UserRepository;
+import top.spco.util.StripedLock;
 
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 该类提供与机器人用户相关的功能，包括检索或创建 BotUser 对象以及检查用户是否存在的方法。
  *
  * <p>该类中的方法操作 {@link BotUser} 类，并在机器人的上下文中处理与用户相关的操作。
+ * 读取过的用户会被缓存，同一用户的后续请求无需再访问存储。缓存仅反映经由 {@link BotUser} 进行的写入，
+ * 其他途径修改用户数据后须使缓存失效，见 {@link BotUserCache}。
  *
  * @author SpCo
  * @version 1.2.4
@@ -32,6 +37,21 @@ import java.sql.SQLException;
  * @since 1.2.3
  */
 public class BotUsers {
+    /**
+     * 最多缓存的用户数
+     */
+    private static final int CACHE_SIZE = 4096;
+    /**
+     * 用户未被访问多少分钟后从缓存中移除
+     */
+    private static final long CACHE_IDLE_MINUTES = 30;
+    private static final BotUserCache CACHE = new BotUserCache(CACHE_SIZE, CACHE_IDLE_MINUTES);
+    /**
+     * 用户锁的数量
+     */
+    private static final int LOCK_STRIPES = 64;
+    private static final StripedLock LOCKS = new StripedLock(LOCK_STRIPES);
+
     /**
      * 获取或创建指定用户的 {@link BotUser} 对象。
      *
@@ -40,15 +60,23 @@ public class BotUsers {
      * @throws UserFetchException 获取用户信息失败时抛出的异常
      */
     public static BotUser getOrCreate(long id) throws UserFetchException {
-        BotUser botUser = get(id);
+        BotUser botUser = CACHE.get(id);
+        if (botUser != null) {
+            return botUser;
+        }
+        botUser = load(id);
         if (botUser == null) {
             UserPermission defaultPermission = UserPermission.NORMAL;
             if (id == SpCoBot.getInstance().botId || id == SpCoBot.getInstance().botOwnerId) {
                 defaultPermission = UserPermission.OWNER;
             }
             try {
-                SpCoBot.getInstance().getDataBase().insertData("insert into user(id,permission) values (?,?)", id, defaultPermission.getLevel());
-                return get(id);
+                SpCoBot.getInstance().getStorage().users().insert(id, defaultPermission.getLevel());
+                for (CoinType type : CoinType.values()) {
+                    Leaderboard.of(type).update(id, 0);
+                }
+                // 新用户的其余属性均为默认值，无需再次读取
+                return CACHE.putIfAbsent(new BotUser(id, defaultPermission, 0, 0, UserRepository.NEVER_SIGNED, 0));
             } catch (SQLException e) {
                 throw new UserFetchException("Exception occurred while creating user: " + e.getMessage(), e);
             }
@@ -64,20 +92,23 @@ public class BotUsers {
      * @throws UserFetchException 获取用户信息失败时抛出的异常
      */
     public static BotUser get(long id) throws UserFetchException {
-        String sql = "SELECT * FROM user WHERE id = ?";
-        try (PreparedStatement preparedStatement = SpCoBot.getInstance().getDataBase().getConn().prepareStatement(sql)) {
-            preparedStatement.setLong(1, id);
-            try (ResultSet rs = preparedStatement.executeQuery()) {
-                if (!rs.isBeforeFirst()) {
-                    return null;
-                }
-                int smfCoin = rs.getInt(2);
-                UserPermission permission = UserPermission.byLevel(rs.getInt(3));
-                String signDate = rs.getString(4);
-                int premium = rs.getInt(5);
-                int starCoin = rs.getInt(6);
-                return new BotUser(id, permission, smfCoin, starCoin, signDate, premium);
+        BotUser botUser = CACHE.get(id);
+        if (botUser != null) {
+            return botUser;
+        }
+        return load(id);
+    }
+
+    /**
+     * 从存储中读取用户，并放入缓存。
+     */
+    private static BotUser load(long id) throws UserFetchException {
+        try {
+            UserRecord record = SpCoBot.getInstance().getStorage().users().find(id);
+            if (record == null) {
+                return null;
             }
+            return CACHE.putIfAbsent(new BotUser(id, UserPermission.byLevel(record.permission()), record.smfCoin(), record.starCoin(), record.sign(), record.premium()));
         } catch (SQLException e) {
             throw new UserFetchException("An exception occurred while reading data from the database: " + e.getMessage(), e);
         }
@@ -91,16 +122,32 @@ public class BotUsers {
      * @throws SQLException 查询数据库发生异常时抛出
      */
     public static boolean isUserExists(long id) throws SQLException {
-        String query = "SELECT COUNT(*) FROM user WHERE id = ?";
-        try (PreparedStatement pstmt = SpCoBot.getInstance().getDataBase().getConn().prepareStatement(query)) {
-            pstmt.setLong(1, id);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    int count = rs.getInt(1);
-                    return count > 0;
-                }
-            }
+        if (CACHE.get(id) != null) {
+            return true;
         }
-        return false;
+        return SpCoBot.getInstance().getStorage().users().exists(id);
+    }
+
+    /**
+     * 获取用户的锁。
+     *
+     * <p>修改用户余额等数据的操作应持有此锁，使同一用户的修改串行进行。锁按QQ号分段，不同用户可能共用一把锁，
+     * 因此持有锁时不应等待其他用户的锁，以免死锁。
+     *
+     * @param id 用户的QQ号
+     * @return 用户的锁，可重入
+     */
+    public static ReentrantLock lockFor(long id) {
+        return LOCKS.get(id);
+    }
+
+    /**
+     * 获取用户缓存。绕过 {@link BotUser} 批量修改用户数据的代码（如 {@code DataCommand}、{@code AutoSign}）
+     * 须在写入后通过它使相应的用户失效。
+     *
+     * @return 用户缓存
+     */
+    public static BotUserCache getCache() {
+        return CACHE;
     }
 }
\ No newline at end of file
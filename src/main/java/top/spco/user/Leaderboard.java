@@ -0,0 +1,231 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.user;
+
+import top.spco.SpCoBot;
+import top.spco.core.storage.BalanceEntry;
+import top.spco.core.storage.CoinType;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 余额排行榜。
+ *
+ * <p>每种货币各有一个排行榜，在内存中保存余额最多的至多 {@link #CAPACITY} 名用户，按余额从多到少排列，
+ * 余额相同时QQ号较大的用户在前。{@link BotUser} 的余额每次改变都会通知排行榜，因此查询前几名时无需访问存储。
+ *
+ * <p>排行榜始终保证内存中保存的是真实的前若干名：排在榜上的用户余额减少到低于最后一名时会被移出，
+ * 榜外的用户只有余额超过最后一名时才会被加入。移出使榜上人数少于 {@link #MIN_SIZE} 时，
+ * 排行榜会在下次查询时通过余额上的索引重新读取前 {@link #CAPACITY} 名。
+ * 超出内存范围的分页和排名查询直接访问存储。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+public class Leaderboard {
+    /**
+     * 内存中最多保存的用户数
+     */
+    static final int CAPACITY = 100;
+    /**
+     * 榜上人数少于此值时重新读取
+     */
+    static final int MIN_SIZE = 20;
+    private static final Map<CoinType, Leaderboard> BOARDS = new EnumMap<>(CoinType.class);
+
+    static {
+        for (CoinType type : CoinType.values()) {
+            BOARDS.put(type, new Leaderboard(type));
+        }
+    }
+
+    private final CoinType type;
+    private final long[] ids = new long[CAPACITY + 1];
+    private final int[] balances = new int[CAPACITY + 1];
+    private int size = 0;
+    /**
+     * 是否已从存储中读取
+     */
+    private boolean loaded = false;
+    /**
+     * 榜上是否包含了所有用户
+     */
+    private boolean complete = false;
+
+    private Leaderboard(CoinType type) {
+        this.type = type;
+    }
+
+    /**
+     * @param type 货币种类
+     * @return 该货币的排行榜
+     */
+    public static Leaderboard of(CoinType type) {
+        return BOARDS.get(type);
+    }
+
+    /**
+     * 记录用户的最新余额。
+     *
+     * @param id      用户的QQ号
+     * @param balance 用户的最新余额
+     */
+    synchronized void update(long id, int balance) {
+        if (!loaded) {
+            return;
+        }
+        int index = indexOf(id);
+        if (index >= 0) {
+            removeAt(index);
+        }
+        if (complete || (size > 0 && ahead(balance, id, balances[size - 1], ids[size - 1]))) {
+            insert(id, balance);
+            if (size > CAPACITY) {
+                size--;
+                complete = false;
+            }
+        } else if (index >= 0 && size < MIN_SIZE) {
+            // 榜上人数过少，已不能回答常见的查询
+            loaded = false;
+        }
+    }
+
+    /**
+     * 使排行榜失效，下次查询时重新从存储中读取。绕过 {@link BotUser} 修改余额后须调用此方法。
+     */
+    public synchronized void invalidate() {
+        loaded = false;
+    }
+
+    /**
+     * 获取排行榜的前若干名。
+     *
+     * @param limit 名次数
+     * @return 前 {@code limit} 名用户及其余额
+     * @throws SQLException 读取存储时发生错误
+     */
+    public List<BalanceEntry> top(int limit) throws SQLException {
+        return page(0, limit);
+    }
+
+    /**
+     * 获取排行榜中的一段。
+     *
+     * @param offset 跳过的名次数
+     * @param limit  名次数
+     * @return 第 {@code offset + 1} 名起的至多 {@code limit} 名用户及其余额
+     * @throws SQLException 读取存储时发生错误
+     */
+    public synchronized List<BalanceEntry> page(int offset, int limit) throws SQLException {
+        ensureLoaded();
+        if (offset + limit > size && !complete) {
+            return SpCoBot.getInstance().getStorage().users().findTopBalances(type, offset, limit);
+        }
+        List<BalanceEntry> entries = new ArrayList<>(limit);
+        for (int i = offset; i < Math.min(size, offset + limit); i++) {
+            entries.add(new BalanceEntry(ids[i], balances[i]));
+        }
+        return entries;
+    }
+
+    /**
+     * 获取用户的名次。
+     *
+     * @param id      用户的QQ号
+     * @param balance 用户的余额
+     * @return 用户的名次，从1开始
+     * @throws SQLException 读取存储时发生错误
+     */
+    public synchronized long rankOf(long id, int balance) throws SQLException {
+        ensureLoaded();
+        int index = indexOf(id);
+        if (index >= 0) {
+            return index + 1;
+        }
+        if (complete || (size > 0 && ahead(balance, id, balances[size - 1], ids[size - 1]))) {
+            // 榜上的信息足以确定名次
+            return insertionPoint(id, balance) + 1;
+        }
+        return SpCoBot.getInstance().getStorage().users().countAhead(type, id, balance) + 1;
+    }
+
+    private void ensureLoaded() throws SQLException {
+        if (loaded) {
+            return;
+        }
+        List<BalanceEntry> entries = SpCoBot.getInstance().getStorage().users().findTopBalances(type, 0, CAPACITY);
+        size = entries.size();
+        for (int i = 0; i < size; i++) {
+            ids[i] = entries.get(i).id();
+            balances[i] = entries.get(i).balance();
+        }
+        complete = size < CAPACITY;
+        loaded = true;
+    }
+
+    private int indexOf(long id) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void removeAt(int index) {
+        System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+        System.arraycopy(balances, index + 1, balances, index, size - index - 1);
+        size--;
+    }
+
+    private void insert(long id, int balance) {
+        int index = insertionPoint(id, balance);
+        System.arraycopy(ids, index, ids, index + 1, size - index);
+        System.arraycopy(balances, index, balances, index + 1, size - index);
+        ids[index] = id;
+        balances[index] = balance;
+        size++;
+    }
+
+    /**
+     * 二分查找排在指定用户之前的人数。
+     */
+    private int insertionPoint(long id, int balance) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ahead(balances[mid], ids[mid], balance, id)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return 用户1是否排在用户2之前
+     */
+    private static boolean ahead(int balance1, long id1, int balance2, long id2) {
+        return balance1 > balance2 || (balance1 == balance2 && id1 > id2);
+    }
+}
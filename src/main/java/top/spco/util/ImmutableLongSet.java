@@ -0,0 +1,200 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.util;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 不可变的 {@code long} 集合。
+ *
+ * <p>元素直接存放在 {@code long} 数组中，采用开放寻址和线性探测，查找时不会装箱。
+ * 集合创建后不再修改，因此可以在线程之间共享，并发查找无需加锁。{@link #with(long)} 和 {@link #without(long)}
+ * 返回新的集合，适合元素很少变动、查找非常频繁的场合。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @see LongObjectHashMap
+ * @since 4.0.0
+ */
+public final class ImmutableLongSet {
+    /**
+     * 空集合
+     */
+    public static final ImmutableLongSet EMPTY = new ImmutableLongSet(new long[0], false);
+    private static final float LOAD_FACTOR = 0.5f;
+    /**
+     * 0单独记录，使数组中的0可以表示空位
+     */
+    private final boolean hasZero;
+    private final long[] elements;
+    private final int size;
+    private final int mask;
+
+    private ImmutableLongSet(long[] distinct, boolean hasZero) {
+        this.hasZero = hasZero;
+        this.size = distinct.length + (hasZero ? 1 : 0);
+        if (distinct.length == 0) {
+            this.elements = new long[1];
+            this.mask = 0;
+            return;
+        }
+        int capacity = Integer.highestOneBit(Math.max(2, (int) (distinct.length / LOAD_FACTOR)) - 1) << 1;
+        this.elements = new long[capacity];
+        this.mask = capacity - 1;
+        for (long e : distinct) {
+            int i = slot(e);
+            while (elements[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            elements[i] = e;
+        }
+    }
+
+    /**
+     * 由集合中的元素创建。
+     *
+     * @param values 元素，为 {@code null} 时返回空集合
+     * @return 新的集合
+     */
+    public static ImmutableLongSet copyOf(Collection<Long> values) {
+        if (values == null || values.isEmpty()) {
+            return EMPTY;
+        }
+        Set<Long> distinct = values instanceof Set<Long> set ? set : new HashSet<>(values);
+        long[] array = new long[distinct.size()];
+        int n = 0;
+        boolean hasZero = false;
+        for (long value : distinct) {
+            if (value == 0) {
+                hasZero = true;
+            } else {
+                array[n++] = value;
+            }
+        }
+        return new ImmutableLongSet(n == array.length ? array : Arrays.copyOf(array, n), hasZero);
+    }
+
+    private int slot(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * @param value 元素
+     * @return 集合是否包含该元素
+     */
+    public boolean contains(long value) {
+        if (value == 0) {
+            return hasZero;
+        }
+        for (int i = slot(value); ; i = (i + 1) & mask) {
+            long e = elements[i];
+            if (e == 0) {
+                return false;
+            }
+            if (e == value) {
+                return true;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param value 要加入的元素
+     * @return 加入后的集合，已包含该元素时返回此集合
+     */
+    public ImmutableLongSet with(long value) {
+        if (contains(value)) {
+            return this;
+        }
+        if (value == 0) {
+            return new ImmutableLongSet(distinct(0), true);
+        }
+        long[] array = distinct(1);
+        array[array.length - 1] = value;
+        return new ImmutableLongSet(array, hasZero);
+    }
+
+    /**
+     * @param value 要移除的元素
+     * @return 移除后的集合，不包含该元素时返回此集合
+     */
+    public ImmutableLongSet without(long value) {
+        if (!contains(value)) {
+            return this;
+        }
+        if (size == 1) {
+            return EMPTY;
+        }
+        if (value == 0) {
+            return new ImmutableLongSet(distinct(0), false);
+        }
+        long[] array = new long[size - (hasZero ? 2 : 1)];
+        int n = 0;
+        for (long e : elements) {
+            if (e != 0 && e != value) {
+                array[n++] = e;
+            }
+        }
+        return new ImmutableLongSet(array, hasZero);
+    }
+
+    /**
+     * @param extra 在末尾额外留出的空位数
+     * @return 除0以外的所有元素
+     */
+    private long[] distinct(int extra) {
+        long[] array = new long[size - (hasZero ? 1 : 0) + extra];
+        int n = 0;
+        for (long e : elements) {
+            if (e != 0) {
+                array[n++] = e;
+            }
+        }
+        return array;
+    }
+
+    /**
+     * @return 包含所有元素的可变集合
+     */
+    public Set<Long> toSet() {
+        Set<Long> set = new HashSet<>(size * 2);
+        if (hasZero) {
+            set.add(0L);
+        }
+        for (long e : elements) {
+            if (e != 0) {
+                set.add(e);
+            }
+        }
+        return set;
+    }
+
+    @Override
+    public String toString() {
+        return toSet().toString();
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.util;
+
+import java.util.Arrays;
+
+/**
+ * 以 {@code long} 为键的哈希表。
+ *
+ * <p>键直接存放在 {@code long} 数组中，采用开放寻址和线性探测，查找和插入时不会装箱。
+ * 删除时将后续同一探测链上的元素前移，因此不需要墓碑标记。
+ *
+ * <p>此类不是线程安全的。
+ *
+ * @param <V> 值的类型
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+public class LongObjectHashMap<V> {
+    private static final float LOAD_FACTOR = 0.5f;
+    /**
+     * 键为0的元素单独存放，使数组中的0可以表示空位
+     */
+    private boolean hasZeroKey = false;
+    private V zeroValue;
+    private long[] keys;
+    private Object[] values;
+    private int size = 0;
+    private int mask;
+    private int threshold;
+
+    public LongObjectHashMap() {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize 预计的元素数量
+     */
+    public LongObjectHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private int indexOf(long key) {
+        for (int i = slot(key); ; i = (i + 1) & mask) {
+            long k = keys[i];
+            if (k == 0) {
+                return -1;
+            }
+            if (k == key) {
+                return i;
+            }
+        }
+    }
+
+    /**
+     * 获取键对应的值。
+     *
+     * @param key 键
+     * @return 键对应的值，不存在时返回 {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        if (key == 0) {
+            return zeroValue;
+        }
+        int index = indexOf(key);
+        return index < 0 ? null : (V) values[index];
+    }
+
+    public boolean containsKey(long key) {
+        if (key == 0) {
+            return hasZeroKey;
+        }
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * 放入键值对。
+     *
+     * @param key   键
+     * @param value 值
+     * @return 键原先对应的值，不存在时返回 {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (key == 0) {
+            V old = zeroValue;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return old;
+        }
+        int i = slot(key);
+        for (; keys[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                V old = (V) values[i];
+                values[i] = value;
+                return old;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > threshold) {
+            rehash(keys.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * 移除键对应的值。
+     *
+     * @param key 键
+     * @return 被移除的值，不存在时返回 {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        if (key == 0) {
+            V old = zeroValue;
+            if (hasZeroKey) {
+                hasZeroKey = false;
+                zeroValue = null;
+                size--;
+            }
+            return old;
+        }
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        V old = (V) values[index];
+        size--;
+        // 将探测链上后续的元素前移，填补空位
+        int gap = index;
+        for (int i = (gap + 1) & mask; keys[i] != 0; i = (i + 1) & mask) {
+            int home = slot(keys[i]);
+            // 元素的理想位置不在 (gap, i] 区间内时，才能移到空位上
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        keys[gap] = 0;
+        values[gap] = null;
+        return old;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, null);
+        hasZeroKey = false;
+        zeroValue = null;
+        size = 0;
+    }
+
+    /**
+     * 对每个键值对执行操作，遍历顺序不确定。遍历期间不应修改此表。
+     *
+     * @param action 要执行的操作
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> action) {
+        if (hasZeroKey) {
+            action.accept(0, zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                action.accept(keys[i], (V) values[i]);
+            }
+        }
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int j = 0; j < oldKeys.length; j++) {
+            long key = oldKeys[j];
+            if (key != 0) {
+                int i = slot(key);
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    /**
+     * 接受一个键值对的操作。
+     *
+     * @param <V> 值的类型
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(long key, V value);
+    }
+}
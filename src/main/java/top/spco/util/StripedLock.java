@@ -0,0 +1,63 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.util;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 以 {@code long} 为键的分段锁。
+ *
+ * <p>持有固定数量的可重入锁，键经过散列后映射到其中一把。同一个键总是得到同一把锁，
+ * 不同的键通常得到不同的锁，因此既能串行化对同一对象的操作，又不会像全局锁那样使不相关的操作互相等待。
+ * 锁的数量是固定的，不会随键的增多而增长。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+public class StripedLock {
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    /**
+     * @param stripes 锁的数量，会被向上取整为2的幂
+     */
+    public StripedLock(int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("Stripe count must be positive.");
+        }
+        int size = Integer.highestOneBit(stripes - 1) << 1;
+        if (stripes == 1) {
+            size = 1;
+        }
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * 获取键对应的锁。
+     *
+     * @param key 键
+     * @return 键对应的锁
+     */
+    public ReentrantLock get(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return locks[(int) (h ^ (h >>> 32)) & mask];
+    }
+}
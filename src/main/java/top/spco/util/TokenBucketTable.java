@@ -0,0 +1,160 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.util;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 以 {@code long} 为键的一组令牌桶。
+ *
+ * <p>每个桶只记录一个时间点：桶中令牌恢复满所需的理论时刻（GCRA 算法）。取令牌时将该时刻后移 {@code 令牌数 × 恢复间隔}，
+ * 后移后超出当前时间 {@code 容量 × 恢复间隔} 即为令牌不足。桶是不可变的记录，存放在定长的开放寻址表中，
+ * 更新时用 CAS 替换整个记录，因此取令牌不需要加锁。
+ *
+ * <p>恢复满的桶与新建的桶没有区别，所以表中不需要单独清理空闲的桶：插入新键时，探测范围内任何已恢复满的桶都可以直接被覆盖。
+ * 探测范围内全是未恢复满的其他键时（表已饱和），本次请求不受限制。
+ *
+ * <p>此类是线程安全的。
+ *
+ * @author SpCo
+ * @version 4.0.0
+ * @since 4.0.0
+ */
+public class TokenBucketTable {
+    private static final int MAX_PROBES = 16;
+    private final AtomicReferenceArray<Bucket> slots;
+    private final int mask;
+    private final int probes;
+    private final int burst;
+    private final long intervalNanos;
+    private final long toleranceNanos;
+
+    /**
+     * @param capacity     表的大小，会被向上取整为2的幂
+     * @param burst        每个桶的容量（令牌数）
+     * @param refillMillis 每恢复一个令牌所需的毫秒数
+     */
+    public TokenBucketTable(int capacity, int burst, long refillMillis) {
+        if (capacity < 1 || burst < 1 || refillMillis < 1) {
+            throw new IllegalArgumentException("Invalid token bucket parameters.");
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.probes = Math.min(MAX_PROBES, size);
+        this.burst = burst;
+        this.intervalNanos = refillMillis * 1_000_000L;
+        this.toleranceNanos = burst * intervalNanos;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * 从键对应的桶中取出令牌。令牌不足时不取出任何令牌。
+     *
+     * @param key  键
+     * @param cost 取出的令牌数，超过桶的容量时按容量计
+     * @param now  当前时间，取自 {@link System#nanoTime()}
+     * @return 令牌充足时为0，否则为令牌恢复到足够所需的纳秒数
+     */
+    public long tryAcquire(long key, int cost, long now) {
+        long charge = Math.min(Math.max(cost, 1), burst) * intervalNanos;
+        while (true) {
+            int start = slot(key);
+            int free = -1;
+            Bucket freeBucket = null;
+            boolean retry = false;
+            for (int p = 0; p < probes; p++) {
+                int i = (start + p) & mask;
+                Bucket bucket = slots.get(i);
+                if (bucket != null && bucket.key == key) {
+                    long base = bucket.tat - now > 0 ? bucket.tat : now;
+                    long tat = base + charge;
+                    long excess = tat - now - toleranceNanos;
+                    if (excess > 0) {
+                        return excess;
+                    }
+                    if (slots.compareAndSet(i, bucket, new Bucket(key, tat))) {
+                        return 0;
+                    }
+                    retry = true;
+                    break;
+                }
+                if (free < 0 && (bucket == null || bucket.tat - now <= 0)) {
+                    free = i;
+                    freeBucket = bucket;
+                }
+            }
+            if (retry) {
+                continue;
+            }
+            if (free < 0) {
+                // 表已饱和
+                return 0;
+            }
+            if (slots.compareAndSet(free, freeBucket, new Bucket(key, now + charge))) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * 将令牌放回键对应的桶中，用于撤销 {@link #tryAcquire(long, int, long)}。
+     *
+     * @param key  键
+     * @param cost 取出时的令牌数
+     */
+    public void refund(long key, int cost) {
+        long charge = Math.min(Math.max(cost, 1), burst) * intervalNanos;
+        int start = slot(key);
+        for (int p = 0; p < probes; p++) {
+            int i = (start + p) & mask;
+            Bucket bucket = slots.get(i);
+            if (bucket != null && bucket.key == key) {
+                if (slots.compareAndSet(i, bucket, new Bucket(key, bucket.tat - charge))) {
+                    return;
+                }
+                // 被其他线程更新，重新查找
+                p = -1;
+            }
+        }
+    }
+
+    /**
+     * @param now 当前时间，取自 {@link System#nanoTime()}
+     * @return 尚未恢复满的桶数
+     */
+    public int activeCount(long now) {
+        int count = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            Bucket bucket = slots.get(i);
+            if (bucket != null && bucket.tat - now > 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param key 键
+     * @param tat 令牌恢复满的理论时刻
+     */
+    private record Bucket(long key, long tat) {
+    }
+}
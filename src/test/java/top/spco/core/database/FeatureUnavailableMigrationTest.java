@@ -0,0 +1,109 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.database;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 迁移6拆分 {@code feature.unavailable} 的测试，在内存数据库上执行 {@link DataBase#SPLIT_FEATURE_UNAVAILABLE_SQL}。
+ */
+class FeatureUnavailableMigrationTest {
+    private static Connection open() throws SQLException {
+        Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+        try (Statement stmt = conn.createStatement()) {
+            // 迁移6之前的 feature 表和迁移6新建的表
+            stmt.execute("CREATE TABLE feature (id TEXT NOT NULL UNIQUE, disable INTEGER DEFAULT 0, unavailable TEXT)");
+            stmt.execute("CREATE TABLE feature_unavailable (feature TEXT NOT NULL, target INTEGER NOT NULL)");
+            stmt.execute("CREATE UNIQUE INDEX idx_feature_unavailable_feature_target ON feature_unavailable (feature, target)");
+        }
+        return conn;
+    }
+
+    private static void insert(Connection conn, String id, String unavailable) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO feature (id, unavailable) VALUES (?, ?)")) {
+            pstmt.setString(1, id);
+            pstmt.setString(2, unavailable);
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static void split(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(DataBase.SPLIT_FEATURE_UNAVAILABLE_SQL);
+        }
+    }
+
+    private static List<String> rows(Connection conn) throws SQLException {
+        List<String> rows = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT feature, target, typeof(target) FROM feature_unavailable ORDER BY feature, target")) {
+            while (rs.next()) {
+                rows.add(rs.getString(1) + ":" + rs.getLong(2) + ":" + rs.getString(3));
+            }
+        }
+        return rows;
+    }
+
+    @Test
+    void splitsCommaSeparatedTargets() throws SQLException {
+        try (Connection conn = open()) {
+            insert(conn, "echo", "123,456,789");
+            insert(conn, "ping", "2934567890");
+            split(conn);
+            assertEquals(List.of("echo:123:integer", "echo:456:integer", "echo:789:integer", "ping:2934567890:integer"), rows(conn));
+        }
+    }
+
+    @Test
+    void skipsEmptyAndNullLists() throws SQLException {
+        try (Connection conn = open()) {
+            insert(conn, "empty", "");
+            insert(conn, "null", null);
+            split(conn);
+            assertEquals(List.of(), rows(conn));
+        }
+    }
+
+    @Test
+    void skipsEmptyItemsAndDuplicates() throws SQLException {
+        try (Connection conn = open()) {
+            insert(conn, "echo", "5,,5,-7,");
+            split(conn);
+            assertEquals(List.of("echo:-7:integer", "echo:5:integer"), rows(conn));
+        }
+    }
+
+    @Test
+    void isIdempotent() throws SQLException {
+        try (Connection conn = open()) {
+            insert(conn, "echo", "1,2");
+            split(conn);
+            split(conn);
+            assertEquals(List.of("echo:1:integer", "echo:2:integer"), rows(conn));
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SignDaysTest {
+    private static SignDays of(int... days) {
+        SignDays result = SignDays.EMPTY;
+        for (int day : days) {
+            result = result.with(day);
+        }
+        return result;
+    }
+
+    @Test
+    void withReturnsSameObjectForExistingDay() {
+        SignDays days = of(10, 11, 12);
+        assertSame(days, days.with(11));
+        assertSame(days, days.with(10));
+        assertSame(days, days.with(12));
+    }
+
+    @Test
+    void withExtendsAdjacentRuns() {
+        // 向后延伸、向前延伸
+        assertEquals(of(10, 11, 12), of(10, 11).with(12));
+        assertEquals(of(9, 10, 11), of(10, 11).with(9));
+        assertEquals(1, runCount(of(10, 11).with(12)));
+        assertEquals(1, runCount(of(10, 11).with(9)));
+    }
+
+    @Test
+    void withMergesTwoRuns() {
+        SignDays days = of(1, 2, 4, 5, 8);
+        assertEquals(3, runCount(days));
+        SignDays merged = days.with(3);
+        assertEquals(2, runCount(merged));
+        assertEquals(5, merged.longestStreak());
+        assertEquals(6, merged.cardinality());
+        for (int day = 1; day <= 5; day++) {
+            assertTrue(merged.contains(day));
+        }
+        assertFalse(merged.contains(6));
+        assertTrue(merged.contains(8));
+    }
+
+    @Test
+    void withInsertsRunBetweenOthers() {
+        SignDays days = of(1, 10).with(5);
+        assertEquals(3, runCount(days));
+        assertTrue(days.contains(1));
+        assertTrue(days.contains(5));
+        assertTrue(days.contains(10));
+        assertFalse(days.contains(4));
+        assertFalse(days.contains(6));
+    }
+
+    @Test
+    void orderOfInsertionDoesNotMatter() {
+        assertEquals(of(1, 2, 3, 7, 8, 20), of(20, 8, 3, 1, 7, 2));
+        assertEquals(of(1, 2, 3, 7, 8, 20), of(2, 7, 20, 1, 3, 8));
+    }
+
+    @Test
+    void streaksAndCounts() {
+        SignDays days = of(1, 2, 3, 5, 6, 7, 8, 10);
+        assertEquals(4, days.longestStreak());
+        assertEquals(8, days.cardinality());
+        assertEquals(1, days.currentStreak(10));
+        // 当天尚未签到时，截至前一天的连续签到仍然有效
+        assertEquals(1, days.currentStreak(11));
+        assertEquals(0, days.currentStreak(12));
+        assertEquals(3, days.currentStreak(7));
+        assertEquals(0, days.currentStreak(0));
+        assertEquals(5, days.countBetween(3, 9));
+        assertEquals(8, days.countBetween(-100, 100));
+        assertEquals(0, days.countBetween(9, 9));
+        assertEquals(0, days.countBetween(5, 4));
+        assertEquals(0, SignDays.EMPTY.currentStreak(10));
+    }
+
+    @Test
+    void emptyRoundTrip() {
+        assertSame(SignDays.EMPTY, SignDays.fromBytes(SignDays.EMPTY.toBytes()));
+        assertSame(SignDays.EMPTY, SignDays.fromBytes(null));
+        assertSame(SignDays.EMPTY, SignDays.fromBytes(new byte[0]));
+    }
+
+    @Test
+    void varIntRoundTrip() {
+        // 覆盖1至5字节的变长整数：起点、间隔和长度都跨过 2^7、2^14、2^21、2^28
+        SignDays days = of(0);
+        int[] values = {1, 127, 128, 16_383, 16_384, 2_097_151, 2_097_152, 268_435_455, 268_435_456};
+        int day = 0;
+        for (int value : values) {
+            day += value + 2;
+            days = days.with(day);
+        }
+        for (int length : new int[]{127, 128, 16_384}) {
+            day += 2;
+            for (int i = 0; i <= length; i++) {
+                days = days.with(day + i);
+            }
+            day += length;
+        }
+        SignDays restored = SignDays.fromBytes(days.toBytes());
+        assertEquals(days, restored);
+        assertEquals(days.cardinality(), restored.cardinality());
+        assertEquals(days.longestStreak(), restored.longestStreak());
+        assertArrayEquals(days.toBytes(), restored.toBytes());
+    }
+
+    @Test
+    void typicalHistoryIsSmall() {
+        // 一年中每周签到5天
+        int start = 19_000;
+        SignDays days = SignDays.EMPTY;
+        for (int week = 0; week < 52; week++) {
+            for (int i = 0; i < 5; i++) {
+                days = days.with(start + week * 7 + i);
+            }
+        }
+        byte[] bytes = days.toBytes();
+        assertEquals(days, SignDays.fromBytes(bytes));
+        assertTrue(bytes.length < 120, "序列化后为 " + bytes.length + " 字节");
+    }
+
+    @Test
+    void rejectsMalformedBytes() {
+        assertThrows(IllegalArgumentException.class, () -> SignDays.fromBytes(new byte[]{2, 0}));
+        byte[] truncated = of(1, 5, 300).toBytes();
+        assertThrows(IllegalArgumentException.class, () -> SignDays.fromBytes(Arrays.copyOf(truncated, truncated.length - 1)));
+        assertThrows(IllegalArgumentException.class, () -> SignDays.fromBytes(new byte[]{1, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80}));
+    }
+
+    /**
+     * @return 区间数，即序列化结果中的第二个字节（区间数小于128时）
+     */
+    private static int runCount(SignDays days) {
+        return days.toBytes()[1];
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.core.storage.memory;
+
+import org.junit.jupiter.api.Test;
+import top.spco.core.storage.SignResult;
+import top.spco.core.storage.UserRepository;
+
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoryStorageSignTest {
+    private static final int DAY = 20_000;
+
+    @Test
+    void signRecordsHistoryAndDailyCount() throws SQLException {
+        MemoryStorage storage = new MemoryStorage();
+        storage.users().insert(1, 1);
+        SignResult result = storage.users().sign(1, "2024-10-04", DAY, 50).join();
+        assertEquals(50, result.smfCoin());
+        assertTrue(result.days().contains(DAY));
+        assertEquals(result.days(), storage.signHistory().find(1));
+        assertEquals(1, storage.signHistory().countOn(DAY));
+        assertEquals("2024-10-04", storage.users().getSignDate(1));
+    }
+
+    @Test
+    void signTwiceOnSameDayChangesNothing() throws SQLException {
+        MemoryStorage storage = new MemoryStorage();
+        storage.users().insert(1, 1);
+        storage.users().sign(1, "2024-10-04", DAY, 50).join();
+        assertNull(storage.users().sign(1, "2024-10-04", DAY, 70).join());
+        assertEquals(50, storage.users().find(1).smfCoin());
+        assertEquals(1, storage.signHistory().find(1).cardinality());
+        assertEquals(1, storage.signHistory().countOn(DAY));
+    }
+
+    @Test
+    void signOfUnknownUserRecordsNothing() throws SQLException {
+        MemoryStorage storage = new MemoryStorage();
+        assertNull(storage.users().sign(1, "2024-10-04", DAY, 50).join());
+        assertTrue(storage.signHistory().find(1).isEmpty());
+        assertEquals(0, storage.signHistory().countOn(DAY));
+    }
+
+    @Test
+    void consecutiveSignsExtendStreak() throws SQLException {
+        MemoryStorage storage = new MemoryStorage();
+        storage.users().insert(1, 1);
+        assertEquals(UserRepository.NEVER_SIGNED, storage.users().getSignDate(1));
+        storage.users().sign(1, "2024-10-04", DAY, 10).join();
+        SignResult result = storage.users().sign(1, "2024-10-05", DAY + 1, 20).join();
+        assertEquals(30, result.smfCoin());
+        assertEquals(2, result.days().currentStreak(DAY + 1));
+        assertEquals(2, storage.signHistory().countBetween(DAY, DAY + 1));
+    }
+}
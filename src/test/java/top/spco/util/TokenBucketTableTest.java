@@ -0,0 +1,119 @@
+/*
+ * Copyright 2025 SpCo
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package top.spco.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTableTest {
+    private static final long SECOND = 1_000_000_000L;
+    /**
+     * 模拟的 {@link System#nanoTime()} 起点，取一个较大的值以检验时间比较不依赖符号
+     */
+    private static final long T = Long.MAX_VALUE - 10 * SECOND;
+
+    @Test
+    void allowsBurstThenLimits() {
+        TokenBucketTable table = new TokenBucketTable(16, 3, 1000);
+        assertEquals(0, table.tryAcquire(1, 1, T));
+        assertEquals(0, table.tryAcquire(1, 1, T));
+        assertEquals(0, table.tryAcquire(1, 1, T));
+        // 第四个令牌要等一个恢复间隔
+        assertEquals(SECOND, table.tryAcquire(1, 1, T));
+        assertEquals(SECOND / 2, table.tryAcquire(1, 1, T + SECOND / 2));
+    }
+
+    @Test
+    void rejectedRequestDoesNotConsumeTokens() {
+        TokenBucketTable table = new TokenBucketTable(16, 2, 1000);
+        table.tryAcquire(1, 2, T);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(table.tryAcquire(1, 1, T) > 0);
+        }
+        assertEquals(0, table.tryAcquire(1, 1, T + SECOND));
+        assertEquals(SECOND, table.tryAcquire(1, 1, T + SECOND));
+    }
+
+    @Test
+    void refillsAtConfiguredRate() {
+        TokenBucketTable table = new TokenBucketTable(16, 3, 1000);
+        table.tryAcquire(1, 3, T);
+        assertEquals(0, table.tryAcquire(1, 1, T + SECOND));
+        assertTrue(table.tryAcquire(1, 1, T + SECOND) > 0);
+        assertEquals(0, table.tryAcquire(1, 2, T + 3 * SECOND));
+        assertEquals(0, table.activeCount(T + 10 * SECOND));
+    }
+
+    @Test
+    void costIsCappedAtBurst() {
+        TokenBucketTable table = new TokenBucketTable(16, 3, 1000);
+        assertEquals(0, table.tryAcquire(1, 10, T));
+        assertEquals(SECOND, table.tryAcquire(1, 1, T));
+        // 不足1的令牌数按1计
+        assertEquals(SECOND, table.tryAcquire(1, 0, T));
+    }
+
+    @Test
+    void keysAreIndependent() {
+        TokenBucketTable table = new TokenBucketTable(16, 1, 1000);
+        assertEquals(0, table.tryAcquire(1, 1, T));
+        assertTrue(table.tryAcquire(1, 1, T) > 0);
+        assertEquals(0, table.tryAcquire(2, 1, T));
+        assertEquals(0, table.tryAcquire(-1, 1, T));
+        assertEquals(3, table.activeCount(T));
+    }
+
+    @Test
+    void refundReturnsTokens() {
+        TokenBucketTable table = new TokenBucketTable(16, 3, 1000);
+        table.tryAcquire(1, 3, T);
+        assertTrue(table.tryAcquire(1, 1, T) > 0);
+        table.refund(1, 1);
+        assertEquals(0, table.tryAcquire(1, 1, T));
+        assertTrue(table.tryAcquire(1, 1, T) > 0);
+        table.refund(1, 3);
+        assertEquals(0, table.tryAcquire(1, 3, T));
+    }
+
+    @Test
+    void refundOfUnknownKeyIsIgnored() {
+        TokenBucketTable table = new TokenBucketTable(16, 3, 1000);
+        table.refund(42, 1);
+        assertEquals(0, table.activeCount(T));
+    }
+
+    @Test
+    void saturatedTableDoesNotLimit() {
+        TokenBucketTable table = new TokenBucketTable(1, 1, 1000);
+        assertEquals(0, table.tryAcquire(1, 1, T));
+        // 唯一的桶被未恢复满的其他键占用，本次请求不受限制
+        assertEquals(0, table.tryAcquire(2, 1, T));
+        assertEquals(0, table.tryAcquire(2, 1, T));
+        assertTrue(table.tryAcquire(1, 1, T) > 0);
+        // 恢复满的桶可以被新键覆盖
+        assertEquals(0, table.tryAcquire(2, 1, T + SECOND));
+        assertTrue(table.tryAcquire(2, 1, T + SECOND) > 0);
+        assertEquals(1, table.activeCount(T + SECOND));
+    }
+
+    @Test
+    void rejectsInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketTable(0, 1, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketTable(16, 0, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketTable(16, 1, 0));
+    }
+}